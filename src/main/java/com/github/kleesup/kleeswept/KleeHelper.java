@@ -9,7 +9,7 @@ import com.badlogic.gdx.math.Vector2;
  * Simple utility class.
  * <br>Created on 17.04.2023</br>
  * @author KleeSup
- * @version 1.5
+ * @version 1.6
  * @since 1.0.0
  */
 public final class KleeHelper {
@@ -76,6 +76,52 @@ public final class KleeHelper {
         return ((x & 0xFFFFFFFFL) | (y & 0xFFFFFFFFL) << 32);
     }
 
+    /**
+     * Interleaves the bits of two integers into a Morton code (Z-order curve), so that coordinates which are close to
+     * each other mostly end up with close codes. The sign bits are flipped before interleaving and the result is
+     * offset, so comparing two codes as signed longs yields the Z-order of the coordinates (negative ones included).
+     * @param x The first integer of the pair.
+     * @param y The second integer of the pair.
+     * @return The Morton code of the pair.
+     */
+    public static long mortonLong(int x, int y){
+        return (spreadBits(x ^ Integer.MIN_VALUE) | spreadBits(y ^ Integer.MIN_VALUE) << 1) ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * @param morton The Morton code created by {@link #mortonLong(int, int)}.
+     * @return The first integer of the pair.
+     */
+    public static int mortonX(long morton){
+        return compactBits(morton ^ Long.MIN_VALUE) ^ Integer.MIN_VALUE;
+    }
+
+    /**
+     * @param morton The Morton code created by {@link #mortonLong(int, int)}.
+     * @return The second integer of the pair.
+     */
+    public static int mortonY(long morton){
+        return compactBits((morton ^ Long.MIN_VALUE) >>> 1) ^ Integer.MIN_VALUE;
+    }
+
+    private static long spreadBits(int value){
+        long v = value & 0xFFFFFFFFL;
+        v = (v | v << 16) & 0x0000FFFF0000FFFFL;
+        v = (v | v << 8) & 0x00FF00FF00FF00FFL;
+        v = (v | v << 4) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | v << 2) & 0x3333333333333333L;
+        return (v | v << 1) & 0x5555555555555555L;
+    }
+
+    private static int compactBits(long v){
+        v &= 0x5555555555555555L;
+        v = (v | v >>> 1) & 0x3333333333333333L;
+        v = (v | v >>> 2) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | v >>> 4) & 0x00FF00FF00FF00FFL;
+        v = (v | v >>> 8) & 0x0000FFFF0000FFFFL;
+        return (int) (v | v >>> 16);
+    }
+
     /**
      * Sets a polygon to fit a rectangle. This polygon is given and needs at least 4 vertexes!
      * @param polygon The polygon to modify.
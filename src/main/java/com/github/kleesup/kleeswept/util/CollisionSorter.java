@@ -11,7 +11,7 @@ import java.util.Comparator;
  * Class used to sort collisions. Can be filled with extra information if {@link #needFullInfo} is set to {@code true}.
  * @author KleeSup
  * @since 1.1
- * @version 1.0
+ * @version 1.2
  */
 public abstract class CollisionSorter<Body extends ISweptBody> implements Comparator<CollisionResponse.Collision> {
 
@@ -19,7 +19,13 @@ public abstract class CollisionSorter<Body extends ISweptBody> implements Compar
         return new CollisionSorter<Body>(false) {
             @Override
             public int compare(CollisionResponse.Collision o1, CollisionResponse.Collision o2) {
-                return Float.compare(o1.hitTime, o2.hitTime);
+                //-0.0f and 0.0f are the same time
+                return Float.compare(o1.hitTime + 0.0f, o2.hitTime + 0.0f);
+            }
+
+            @Override
+            public int rank(byte normalX, byte normalY) {
+                return 0;
             }
         };
     }
@@ -52,6 +58,16 @@ public abstract class CollisionSorter<Body extends ISweptBody> implements Compar
                 }
                 return Float.compare(o1.hitTime, o2.hitTime);
             }
+
+            @Override
+            public int rank(byte normalX, byte normalY) {
+                if (displacement.x > displacement.y) {
+                    return normalX != 0 ? 0 : 1;
+                } else if (displacement.x < displacement.y) {
+                    return normalY != 0 ? 0 : 1;
+                }
+                return 0;
+            }
         };
     }
 
@@ -75,4 +91,17 @@ public abstract class CollisionSorter<Body extends ISweptBody> implements Compar
     public boolean needFullInfo() {
         return needFullInfo;
     }
+
+    /**
+     * Ranks a collision among collisions with the same hit time, so that the sorter can be applied as a primitive
+     * sort key instead of a {@link Comparator} (see {@link HitBuffer#sortByRank(CollisionSorter)}).
+     * Collisions with a smaller rank are resolved first. The rank needs to be between {@code 0} and {@code 3}
+     * and must order collisions the same way {@link #compare(Object, Object)} does.
+     * @param normalX The x-normal of the collision.
+     * @param normalY The y-normal of the collision.
+     * @return The rank of the collision or {@code -1} if this sorter cannot be expressed by a rank (default).
+     */
+    public int rank(byte normalX, byte normalY){
+        return -1;
+    }
 }
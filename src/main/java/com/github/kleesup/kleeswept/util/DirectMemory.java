@@ -0,0 +1,88 @@
+package com.github.kleesup.kleeswept.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Allocates and frees direct {@link ByteBuffer}s. The memory of a direct buffer is normally only released once the
+ * garbage collector finds the buffer unreachable, which might take very long for big buffers in the old generation.
+ * {@link #free(ByteBuffer)} releases it right away through the cleaner of the buffer, which is only accessed by
+ * reflection (through {@code sun.misc.Unsafe#invokeCleaner} since Java 9, through the cleaner of the buffer on
+ * Java 8). If neither is accessible, freeing is left to the garbage collector.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+public final class DirectMemory {
+
+    private static final MethodHandle INVOKE_CLEANER;
+    private static final Method CLEANER, CLEAN;
+
+    static {
+        MethodHandle invokeCleaner = null;
+        Method cleaner = null, clean = null;
+        try{
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            invokeCleaner = MethodHandles.lookup().findVirtual(unsafeClass, "invokeCleaner",
+                    MethodType.methodType(void.class, ByteBuffer.class)).bindTo(field.get(null));
+        }catch (Throwable e){
+            //Java 8, the cleaner of the buffer is called directly
+            try{
+                cleaner = ByteBuffer.allocateDirect(1).getClass().getMethod("cleaner");
+                cleaner.setAccessible(true);
+                clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            }catch (Throwable ignored){
+                cleaner = null;
+            }
+        }
+        INVOKE_CLEANER = invokeCleaner;
+        CLEANER = cleaner;
+        CLEAN = clean;
+    }
+
+    private DirectMemory() {
+    }
+
+    /**
+     * Allocates a direct buffer in the native byte order.
+     * @param bytes The capacity of the buffer.
+     * @return The buffer.
+     */
+    public static ByteBuffer allocate(int bytes){
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Releases the memory of a direct buffer immediately. The buffer must not be used anymore afterwards.
+     * @param buffer The buffer to free, nothing is done if it is {@code null} or not direct.
+     */
+    public static void free(ByteBuffer buffer){
+        if(buffer == null || !buffer.isDirect())return;
+        try{
+            if(INVOKE_CLEANER != null){
+                INVOKE_CLEANER.invokeExact(buffer);
+            }else if(CLEANER != null){
+                Object cleaner = CLEANER.invoke(buffer);
+                if(cleaner != null)CLEAN.invoke(cleaner);
+            }
+        }catch (Throwable ignored){
+            //the garbage collector will free the memory
+        }
+    }
+
+    /**
+     * @return Whether buffers can be freed explicitly in this runtime.
+     */
+    public static boolean canFree(){
+        return INVOKE_CLEANER != null || CLEANER != null;
+    }
+
+}
@@ -0,0 +1,204 @@
+package com.github.kleesup.kleeswept.util;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A custom JDK Flight Recorder event type whose fields are all {@code long} values.
+ * As the library targets Java 8, the event types aren't declared as subclasses of {@code jdk.jfr.Event} but are
+ * created at runtime through {@code jdk.jfr.EventFactory}, which is only accessed by reflection. If the flight recorder
+ * is not available, all event types are disabled and every method is a cheap no-op.
+ * <br>
+ * Duration events are used like this:
+ * <pre>
+ *     Object event = TYPE.begin(); //null if the event type isn't enabled by the current recording
+ *     ...
+ *     TYPE.commit(event, valueA, valueB); //only committed if the duration exceeds the threshold
+ * </pre>
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.1
+ * @since 1.2
+ */
+public final class FlightEvent {
+
+    private static final MethodHandle CREATE, NEW_EVENT, BEGIN, END, COMMIT, SHOULD_COMMIT, IS_ENABLED, SET;
+    private static final MethodHandle NEW_ANNOTATION, NEW_VALUE;
+    private static final Class<? extends Annotation> NAME, LABEL, DESCRIPTION, CATEGORY, THRESHOLD, STACK_TRACE;
+
+    static {
+        MethodHandle create = null, newEvent = null, begin = null, end = null, commit = null, shouldCommit = null,
+                isEnabled = null, set = null, newAnnotation = null, newValue = null;
+        Class<? extends Annotation> name = null, label = null, description = null, category = null, threshold = null,
+                stackTrace = null;
+        try{
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> factoryClass = Class.forName("jdk.jfr.EventFactory");
+            Class<?> eventClass = Class.forName("jdk.jfr.Event");
+            Class<?> annotationElement = Class.forName("jdk.jfr.AnnotationElement");
+            Class<?> valueDescriptor = Class.forName("jdk.jfr.ValueDescriptor");
+            create = lookup.findStatic(factoryClass, "create", MethodType.methodType(factoryClass, List.class, List.class))
+                    .asType(MethodType.methodType(Object.class, List.class, List.class));
+            newEvent = lookup.findVirtual(factoryClass, "newEvent", MethodType.methodType(eventClass))
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            begin = eventMethod(lookup, eventClass, "begin", void.class);
+            end = eventMethod(lookup, eventClass, "end", void.class);
+            commit = eventMethod(lookup, eventClass, "commit", void.class);
+            shouldCommit = eventMethod(lookup, eventClass, "shouldCommit", boolean.class);
+            isEnabled = eventMethod(lookup, eventClass, "isEnabled", boolean.class);
+            set = lookup.findVirtual(eventClass, "set", MethodType.methodType(void.class, int.class, Object.class))
+                    .asType(MethodType.methodType(void.class, Object.class, int.class, Object.class));
+            newAnnotation = lookup.findConstructor(annotationElement, MethodType.methodType(void.class, Class.class, Object.class))
+                    .asType(MethodType.methodType(Object.class, Class.class, Object.class));
+            newValue = lookup.findConstructor(valueDescriptor, MethodType.methodType(void.class, Class.class, String.class))
+                    .asType(MethodType.methodType(Object.class, Class.class, String.class));
+            name = annotation("jdk.jfr.Name");
+            label = annotation("jdk.jfr.Label");
+            description = annotation("jdk.jfr.Description");
+            category = annotation("jdk.jfr.Category");
+            threshold = annotation("jdk.jfr.Threshold");
+            stackTrace = annotation("jdk.jfr.StackTrace");
+        }catch (Throwable e){
+            //the flight recorder isn't available, all event types will be disabled
+            create = null;
+        }
+        CREATE = create;
+        NEW_EVENT = newEvent;
+        BEGIN = begin;
+        END = end;
+        COMMIT = commit;
+        SHOULD_COMMIT = shouldCommit;
+        IS_ENABLED = isEnabled;
+        SET = set;
+        NEW_ANNOTATION = newAnnotation;
+        NEW_VALUE = newValue;
+        NAME = name;
+        LABEL = label;
+        DESCRIPTION = description;
+        CATEGORY = category;
+        THRESHOLD = threshold;
+        STACK_TRACE = stackTrace;
+    }
+
+    private static MethodHandle eventMethod(MethodHandles.Lookup lookup, Class<?> eventClass, String name, Class<?> returnType)
+            throws ReflectiveOperationException {
+        return lookup.findVirtual(eventClass, name, MethodType.methodType(returnType))
+                .asType(MethodType.methodType(returnType, Object.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Annotation> annotation(String name) throws ClassNotFoundException {
+        return (Class<? extends Annotation>) Class.forName(name);
+    }
+
+    /**
+     * @return Whether the flight recorder is available in this runtime.
+     */
+    public static boolean isAvailable(){
+        return CREATE != null;
+    }
+
+    /**
+     * Creates and registers a new event type. If the flight recorder is not available, a disabled type is returned.
+     * @param name The unique name of the event type.
+     * @param label The human-readable name of the event type.
+     * @param description The description of the event type.
+     * @param threshold The default threshold of the event type (e.g. {@code "1 ms"}), events that took less time are
+     *                  not committed. {@code null} for instant events.
+     * @param fields The names of the {@code long} fields of the event type.
+     * @return The event type.
+     */
+    public static FlightEvent create(String name, String label, String description, String threshold, String... fields){
+        if(CREATE == null)return new FlightEvent(null, null);
+        try{
+            List<Object> annotations = new ArrayList<>();
+            annotations.add(NEW_ANNOTATION.invokeExact((Class<?>) NAME, (Object) name));
+            annotations.add(NEW_ANNOTATION.invokeExact((Class<?>) LABEL, (Object) label));
+            annotations.add(NEW_ANNOTATION.invokeExact((Class<?>) DESCRIPTION, (Object) description));
+            annotations.add(NEW_ANNOTATION.invokeExact((Class<?>) CATEGORY, (Object) new String[]{"KleeSwept"}));
+            annotations.add(NEW_ANNOTATION.invokeExact((Class<?>) STACK_TRACE, (Object) Boolean.FALSE));
+            if(threshold != null)annotations.add(NEW_ANNOTATION.invokeExact((Class<?>) THRESHOLD, (Object) threshold));
+            List<Object> values = new ArrayList<>(fields.length);
+            for(String field : fields)values.add(NEW_VALUE.invokeExact((Class<?>) long.class, field));
+            Object factory = CREATE.invokeExact((List<?>) annotations, (List<?>) values);
+            return new FlightEvent(factory, NEW_EVENT.invokeExact(factory));
+        }catch (Throwable e){
+            return new FlightEvent(null, null);
+        }
+    }
+
+    private final Object factory;
+    //an instance which is only used to ask whether the event type is enabled
+    private final Object probe;
+
+    private FlightEvent(Object factory, Object probe) {
+        this.factory = factory;
+        this.probe = probe;
+    }
+
+    /**
+     * @return Whether events of this type are currently recorded.
+     */
+    public boolean isEnabled(){
+        if(probe == null)return false;
+        try{
+            return (boolean) IS_ENABLED.invokeExact(probe);
+        }catch (Throwable e){
+            return false;
+        }
+    }
+
+    /**
+     * Starts timing a new event.
+     * @return The event, or {@code null} if events of this type are not recorded at the moment.
+     */
+    public Object begin(){
+        if(!isEnabled())return null;
+        try{
+            Object event = NEW_EVENT.invokeExact(factory);
+            BEGIN.invokeExact(event);
+            return event;
+        }catch (Throwable e){
+            return null;
+        }
+    }
+
+    /**
+     * Stops timing an event and commits it with the given field values, if its duration exceeds the threshold.
+     * @param event The event returned by {@link #begin()}, nothing is done if it is {@code null}.
+     * @param values The values of the fields, in the order they were declared.
+     */
+    public void commit(Object event, long... values){
+        if(event == null)return;
+        try{
+            END.invokeExact(event);
+            if(!(boolean) SHOULD_COMMIT.invokeExact(event))return;
+            for(int i = 0; i < values.length; i++)SET.invokeExact(event, i, (Object) values[i]);
+            COMMIT.invokeExact(event);
+        }catch (Throwable ignored){
+            //recording an event must never break the world
+        }
+    }
+
+    /**
+     * Commits an instant event (without duration) with the given field values, if events of this type are recorded.
+     * @param values The values of the fields, in the order they were declared.
+     */
+    public void emit(long... values){
+        commit(begin(), values);
+    }
+
+    /**
+     * Same as {@link #emit(long...)} for two fields, but the value array is only created if the event is recorded,
+     * so frequent call sites don't allocate while the flight recorder is off.
+     */
+    public void emit(long valueA, long valueB){
+        Object event = begin();
+        if(event != null)commit(event, valueA, valueB);
+    }
+
+}
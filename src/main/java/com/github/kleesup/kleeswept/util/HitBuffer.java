@@ -0,0 +1,250 @@
+package com.github.kleesup.kleeswept.util;
+
+import com.github.kleesup.kleeswept.world.CollisionResponse;
+import com.github.kleesup.kleeswept.world.body.ISweptBody;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * A reusable buffer which stores collision candidates in primitive parallel arrays instead of
+ * {@link CollisionResponse.Collision} objects. The hits are ordered through an index array, so sorting or
+ * dropping hits never moves the hit data itself. Once the arrays have grown to the needed size, no further
+ * objects are created.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.1
+ * @since 1.2
+ */
+public class HitBuffer {
+
+    private Object[] targets;
+    private int[] ids;
+    private boolean[] overlapping;
+    private byte[] normalsX, normalsY;
+    private float[] hitTimes;
+    private long[] keys;
+    private int[] order;
+    private int[] mergeScratch;
+    private int size;
+
+    //collision objects used to present two hits to a comparator
+    private final CollisionResponse.Collision first = new CollisionResponse.Collision();
+    private final CollisionResponse.Collision second = new CollisionResponse.Collision();
+
+    public HitBuffer(int initialCapacity) {
+        initialCapacity = Math.max(initialCapacity, 1);
+        targets = new Object[initialCapacity];
+        ids = new int[initialCapacity];
+        overlapping = new boolean[initialCapacity];
+        normalsX = new byte[initialCapacity];
+        normalsY = new byte[initialCapacity];
+        hitTimes = new float[initialCapacity];
+        keys = new long[initialCapacity];
+        order = new int[initialCapacity];
+    }
+    public HitBuffer() {
+        this(16);
+    }
+
+    /**
+     * Clears the buffer so it can be reused.
+     */
+    public void clear(){
+        Arrays.fill(targets, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Adds a hit to the end of the buffer.
+     * @param target The targeted body.
+     * @param id A non-negative id of the target which is unique within this buffer. It is used to break ties when
+     *           sorting, so the order does not depend on the order the hits were added in.
+     * @param overlap Whether the goal position overlaps the target.
+     * @param normalX The x-normal of the hit.
+     * @param normalY The y-normal of the hit.
+     * @param hitTime The time of the hit.
+     * @return The index of the added hit.
+     */
+    public int add(Object target, int id, boolean overlap, byte normalX, byte normalY, float hitTime){
+        if(size == targets.length)grow(size << 1);
+        targets[size] = target;
+        ids[size] = id;
+        overlapping[size] = overlap;
+        normalsX[size] = normalX;
+        normalsY[size] = normalY;
+        hitTimes[size] = hitTime;
+        order[size] = size;
+        return size++;
+    }
+
+    private void grow(int capacity){
+        targets = Arrays.copyOf(targets, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        overlapping = Arrays.copyOf(overlapping, capacity);
+        normalsX = Arrays.copyOf(normalsX, capacity);
+        normalsY = Arrays.copyOf(normalsY, capacity);
+        hitTimes = Arrays.copyOf(hitTimes, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        order = Arrays.copyOf(order, capacity);
+    }
+
+    /**
+     * Sorts the hits only by their ids.
+     */
+    public void sortById(){
+        for(int i = 0; i < size; i++){
+            keys[i] = ids[i] & 0xFFFFFFFFL;
+            order[i] = i;
+        }
+        sortKeys();
+    }
+
+    /**
+     * Sorts the hits by a primitive key made of the hit time, the rank of the sorter (see
+     * {@link CollisionSorter#rank(byte, byte)}) and the id. This gives the same order as a stable sort with the
+     * sorter as comparator of hits that were added in id order.
+     * @param sorter The sorter to rank hits with the same hit time.
+     * @return {@code true} if the hits were sorted, {@code false} if the sorter has no primitive rank.
+     */
+    public boolean sortByRank(CollisionSorter<?> sorter){
+        if(size == 0)return true;
+        if(sorter.rank(normalsX[0], normalsY[0]) < 0)return false;
+        for(int i = 0; i < size; i++){
+            int rank = Math.min(sorter.rank(normalsX[i], normalsY[i]), 3);
+            keys[i] = ((long) sortableBits(hitTimes[i]) << 32) | ((long) rank << 30) | (ids[i] & 0x3FFFFFFFL);
+            order[i] = i;
+        }
+        sortKeys();
+        return true;
+    }
+
+    /**
+     * Sorts the hits with a comparator. The hits are brought into id order first and then stable sorted.
+     * @param comparator The comparator to use.
+     */
+    public void sort(Comparator<CollisionResponse.Collision> comparator){
+        sortById();
+        if(size < 2)return;
+        if(mergeScratch == null || mergeScratch.length < size)mergeScratch = new int[order.length];
+        mergeSort(comparator, 0, size);
+        first.reset();
+        second.reset();
+    }
+
+    private void mergeSort(Comparator<CollisionResponse.Collision> comparator, int from, int to){
+        if(to - from < 2)return;
+        int mid = (from + to) >>> 1;
+        mergeSort(comparator, from, mid);
+        mergeSort(comparator, mid, to);
+        if(compare(comparator, order[mid - 1], order[mid]) <= 0)return; //already in order
+        System.arraycopy(order, from, mergeScratch, from, to - from);
+        int left = from, right = mid;
+        for(int i = from; i < to; i++){
+            if(right >= to || (left < mid && compare(comparator, mergeScratch[left], mergeScratch[right]) <= 0)){
+                order[i] = mergeScratch[left++];
+            }else{
+                order[i] = mergeScratch[right++];
+            }
+        }
+    }
+
+    private int compare(Comparator<CollisionResponse.Collision> comparator, int a, int b){
+        first.set((ISweptBody) targets[a], overlapping[a], normalsX[a], normalsY[a], hitTimes[a], false);
+        second.set((ISweptBody) targets[b], overlapping[b], normalsX[b], normalsY[b], hitTimes[b], false);
+        return comparator.compare(first, second);
+    }
+
+    /**
+     * Sorts {@link #keys} (which are unique) together with {@link #order}, without creating any objects.
+     */
+    private void sortKeys(){
+        if(size < 2)return;
+        if(size <= 24){ //insertion sort for the common case of few hits
+            for(int i = 1; i < size; i++){
+                long key = keys[i];
+                int index = order[i];
+                int j = i - 1;
+                while (j >= 0 && keys[j] > key){
+                    keys[j + 1] = keys[j];
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                keys[j + 1] = key;
+                order[j + 1] = index;
+            }
+            return;
+        }
+        //heap sort for crowded scenes
+        for(int i = (size >>> 1) - 1; i >= 0; i--)siftDown(i, size);
+        for(int end = size - 1; end > 0; end--){
+            swap(0, end);
+            siftDown(0, end);
+        }
+    }
+
+    private void siftDown(int i, int end){
+        while (true){
+            int child = (i << 1) + 1;
+            if(child >= end)return;
+            if(child + 1 < end && keys[child + 1] > keys[child])child++;
+            if(keys[i] >= keys[child])return;
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    private void swap(int a, int b){
+        long key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        int index = order[a];
+        order[a] = order[b];
+        order[b] = index;
+    }
+
+    /**
+     * Converts a float into an int whose signed order matches {@link Float#compare(float, float)}, except that
+     * {@code -0.0f} and {@code 0.0f} are treated as the same time.
+     */
+    private static int sortableBits(float value){
+        int bits = Float.floatToIntBits(value + 0.0f); //turns -0.0f into 0.0f
+        return bits ^ ((bits >> 31) & 0x7FFFFFFF);
+    }
+
+    /**
+     * @return The amount of hits in this buffer.
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Retrieves the index of the hit at the specified position of the current order.
+     * @param position The position in the order (between {@code 0} and {@link #size()}).
+     * @return The index of the hit which can be used with the other getters.
+     */
+    public int index(int position){
+        return order[position];
+    }
+
+    public Object getTarget(int index){
+        return targets[index];
+    }
+    public int getId(int index){
+        return ids[index];
+    }
+    public boolean isOverlapping(int index){
+        return overlapping[index];
+    }
+    public byte getNormalX(int index){
+        return normalsX[index];
+    }
+    public byte getNormalY(int index){
+        return normalsY[index];
+    }
+    public float getHitTime(int index){
+        return hitTimes[index];
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.github.kleesup.kleeswept.world.body.ISweptBody;
+
+/**
+ * The internal record a {@link SimpleCollisionWorld} keeps for each of its bodies.
+ * Besides the bounding box it holds a world-assigned slot which is unique among the bodies that are currently
+ * contained in the world and is used as a deterministic ordering key.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.2
+ * @since 1.2
+ */
+final class BodyEntry<Body extends ISweptBody> {
+
+    final Body body;
+    final int slot;
+    final Rectangle box;
+    /** The box the chunk membership is based on, the bounding box itself unless the world has a chunk margin. */
+    Rectangle chunkBox;
+    /** The journal segment in which the state of this body was last recorded (see {@link WorldJournal}). */
+    int journalSegment = -1;
+    /** The index of this body in the {@link SimultaneousSolver} that is currently stepping, {@code -1} otherwise. */
+    int solverIndex = -1;
+
+    /** Whether the body is a sensor, read once when the body is added (see {@link ISweptBody#isSensor()}). */
+    final boolean sensor;
+    /** The bodies that overlap this one while either of them is a sensor, {@code null} until the first contact. */
+    Array<BodyEntry<Body>> contacts;
+    //stamps of the last sensor update this entry was visited and confirmed as contact in
+    int sensorVisit, sensorConfirm;
+    /** The epoch of the last query that visited this body, used to visit bodies in several chunks only once. */
+    int queryEpoch;
+
+    BodyEntry(Body body, int slot, Rectangle box) {
+        this.body = body;
+        this.slot = slot;
+        this.box = box;
+        this.chunkBox = box;
+        this.sensor = body.isSensor();
+    }
+}
@@ -0,0 +1,236 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.github.kleesup.kleeswept.KleeHelper;
+import com.github.kleesup.kleeswept.world.body.ISweptBody;
+
+import java.util.Arrays;
+
+/**
+ * A ring buffer of all changes of the bodies of a world (see {@link SimpleCollisionWorld#setChangeFeedCapacity(int)}),
+ * e.g. to replicate them over the network without comparing every body with the last state.
+ * Changes are stored in parallel primitive arrays and are numbered by a running sequence. A consumer keeps a cursor
+ * (the sequence of the first change it hasn't seen yet, see {@link #getCursor()}) and reads all changes up to the
+ * current cursor of the feed. Every change remembers the range of chunks the bounding box of the body took space in
+ * before and after the change, so a consumer can only read the changes of a region of chunks (see
+ * {@link #touches(long, int, int, int, int)}).
+ * <p>
+ * Once the buffer is full, the oldest changes are overwritten. A consumer whose cursor fell behind
+ * (see {@link #isLost(long)}) has to take a full snapshot of the world and continue from the current cursor.
+ * </p>
+ * The class is NOT Thread-Safe!
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.1
+ * @since 1.2
+ */
+public class ChangeFeed<Body extends ISweptBody> {
+
+    public static final byte ADDED = 0;
+    public static final byte REMOVED = 1;
+    public static final byte MOVED = 2;
+    public static final byte RESIZED = 3;
+
+    private final float invChunkSize;
+    private final int mask;
+    private final byte[] types;
+    private final Object[] bodies;
+    private final int[] handles;
+    private final float[] boxes;  //x, y, width, height
+    //the chunk ranges before and after the change: min chunk-x, min chunk-y, max chunk-x, max chunk-y (each)
+    private final int[] chunks;
+    private long written;
+    private long cleared; //the cursor at the last clear, older changes are gone
+
+    ChangeFeed(float invChunkSize, int capacity) {
+        this.invChunkSize = invChunkSize;
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.mask = size - 1;
+        types = new byte[size];
+        bodies = new Object[size];
+        handles = new int[size];
+        boxes = new float[size * 4];
+        chunks = new int[size * 8];
+    }
+
+    /**
+     * Records a change.
+     * @param fromX The x of the bounding box before the change.
+     * @param fromY The y of the bounding box before the change.
+     * @param fromWidth The width of the bounding box before the change.
+     * @param fromHeight The height of the bounding box before the change.
+     * @param box The bounding box of the body after the change (or before the removal).
+     */
+    void record(byte type, Body body, int handle, float fromX, float fromY, float fromWidth, float fromHeight, Rectangle box){
+        int index = (int) written & mask;
+        types[index] = type;
+        bodies[index] = body;
+        handles[index] = handle;
+        boxes[index * 4] = box.x;
+        boxes[index * 4 + 1] = box.y;
+        boxes[index * 4 + 2] = box.width;
+        boxes[index * 4 + 3] = box.height;
+        writeRange(index * 8, fromX, fromY, fromWidth, fromHeight);
+        writeRange(index * 8 + 4, box.x, box.y, box.width, box.height);
+        written++;
+    }
+
+    /**
+     * Records an addition or a removal, the bounding box didn't change.
+     */
+    void record(byte type, Body body, int handle, Rectangle box){
+        record(type, body, handle, box.x, box.y, box.width, box.height, box);
+    }
+
+    private void writeRange(int offset, float x, float y, float width, float height){
+        chunks[offset] = KleeHelper.chunkFloor(x * invChunkSize);
+        chunks[offset + 1] = KleeHelper.chunkFloor(y * invChunkSize);
+        chunks[offset + 2] = KleeHelper.chunkFloor((x + width) * invChunkSize);
+        chunks[offset + 3] = KleeHelper.chunkFloor((y + height) * invChunkSize);
+    }
+
+    /**
+     * @return The cursor after the newest change, a consumer that read everything up to here is up-to-date.
+     */
+    public long getCursor(){
+        return written;
+    }
+
+    /**
+     * @return The sequence of the oldest change that is still in the buffer.
+     */
+    public long getOldestCursor(){
+        return Math.max(cleared, written - types.length);
+    }
+
+    /**
+     * @param cursor The cursor of a consumer.
+     * @return Whether changes after the cursor were already overwritten or the cursor is ahead of the feed (so it
+     * doesn't belong to it), the consumer has to resynchronise in both cases.
+     */
+    public boolean isLost(long cursor){
+        return cursor < getOldestCursor() || cursor > written;
+    }
+
+    /**
+     * @return The amount of changes the buffer can hold.
+     */
+    public int getCapacity(){
+        return types.length;
+    }
+
+    /**
+     * Passes all changes after a cursor to a listener.
+     * @param cursor The cursor of the consumer.
+     * @param listener The listener to notify.
+     * @return The new cursor of the consumer.
+     * @throws IllegalStateException If the cursor is lost (see {@link #isLost(long)}).
+     */
+    public long read(long cursor, ChangeListener<Body> listener){
+        return read(cursor, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, listener);
+    }
+
+    /**
+     * Passes all changes after a cursor that touch a region of chunks to a listener.
+     * @param cursor The cursor of the consumer.
+     * @param minChunkX The smallest chunk-x of the region.
+     * @param minChunkY The smallest chunk-y of the region.
+     * @param maxChunkX The biggest chunk-x of the region (inclusive).
+     * @param maxChunkY The biggest chunk-y of the region (inclusive).
+     * @param listener The listener to notify.
+     * @return The new cursor of the consumer.
+     * @throws IllegalStateException If the cursor is lost (see {@link #isLost(long)}).
+     */
+    public long read(long cursor, int minChunkX, int minChunkY, int maxChunkX, int maxChunkY, ChangeListener<Body> listener){
+        KleeHelper.paramRequireNonNull(listener, "Listener cannot be null!");
+        if(cursor > written)throw new IllegalStateException("The cursor " + cursor + " is ahead of the feed!");
+        if(isLost(cursor))throw new IllegalStateException("The changes after cursor " + cursor + " were already overwritten!");
+        for(long sequence = cursor; sequence < written; sequence++){
+            if(!touches(sequence, minChunkX, minChunkY, maxChunkX, maxChunkY))continue;
+            int index = (int) sequence & mask;
+            listener.onChange(types[index], getBody(sequence), handles[index], boxes[index * 4], boxes[index * 4 + 1],
+                    boxes[index * 4 + 2], boxes[index * 4 + 3]);
+        }
+        return written;
+    }
+
+    /**
+     * @param sequence The sequence of a change.
+     * @return Whether the bounding box of the body took space in any chunk of the region before or after the change.
+     */
+    public boolean touches(long sequence, int minChunkX, int minChunkY, int maxChunkX, int maxChunkY){
+        int offset = ((int) sequence & mask) * 8;
+        return overlaps(offset, minChunkX, minChunkY, maxChunkX, maxChunkY)
+                || overlaps(offset + 4, minChunkX, minChunkY, maxChunkX, maxChunkY);
+    }
+
+    private boolean overlaps(int offset, int minChunkX, int minChunkY, int maxChunkX, int maxChunkY){
+        return chunks[offset] <= maxChunkX && chunks[offset + 2] >= minChunkX
+                && chunks[offset + 1] <= maxChunkY && chunks[offset + 3] >= minChunkY;
+    }
+
+    /**
+     * Removes all changes, consumers that didn't read all of them have to resynchronise afterwards.
+     */
+    public void clear(){
+        Arrays.fill(bodies, null);
+        cleared = written;
+    }
+
+    /**
+     * @param sequence The sequence of the change.
+     * @return The type of the change, either {@link #ADDED}, {@link #REMOVED}, {@link #MOVED} or {@link #RESIZED}.
+     */
+    public byte getType(long sequence){
+        return types[(int) sequence & mask];
+    }
+
+    @SuppressWarnings("unchecked")
+    public Body getBody(long sequence){
+        return (Body) bodies[(int) sequence & mask];
+    }
+
+    /**
+     * @return The handle of the body at the time of the change, see {@link SimpleCollisionWorld#getHandle(ISweptBody)}.
+     */
+    public int getHandle(long sequence){
+        return handles[(int) sequence & mask];
+    }
+
+    /**
+     * The bounding box after the change, or before the removal.
+     */
+    public float getX(long sequence){
+        return boxes[((int) sequence & mask) * 4];
+    }
+
+    public float getY(long sequence){
+        return boxes[((int) sequence & mask) * 4 + 1];
+    }
+
+    public float getWidth(long sequence){
+        return boxes[((int) sequence & mask) * 4 + 2];
+    }
+
+    public float getHeight(long sequence){
+        return boxes[((int) sequence & mask) * 4 + 3];
+    }
+
+    /**
+     * A listener for the changes of a {@link ChangeFeed}.
+     */
+    @FunctionalInterface
+    public interface ChangeListener<Body extends ISweptBody> {
+        /**
+         * @param type The type of the change, see {@link ChangeFeed#getType(long)}.
+         * @param body The changed body.
+         * @param handle The handle of the body.
+         * @param x The x of the bounding box after the change (or before the removal).
+         * @param y The y of the bounding box.
+         * @param width The width of the bounding box.
+         * @param height The height of the bounding box.
+         */
+        void onChange(byte type, Body body, int handle, float x, float y, float width, float height);
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.LongMap;
+import com.github.kleesup.kleeswept.KleeHelper;
+
+/**
+ * Keeps a tight aggregate bounding box and the member count of every chunk of a {@link SimpleCollisionWorld}, so a
+ * query can reject a whole chunk with a single overlap test instead of iterating its bodies.
+ * The bounds grow incrementally when a body is added or moved, but are only marked dirty when a body that touched
+ * one of their edges is removed or moves inwards. Dirty bounds are recalculated from the members by the world the
+ * next time they are tested (see {@link Bounds#isDirty()}), therefore they are never smaller than the members.
+ * The bounds of a chunk are dropped as soon as its last member leaves, so they never outlive their bodies.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.1
+ * @since 1.2
+ */
+final class ChunkBounds {
+
+    private final LongMap<Bounds> chunks = new LongMap<>();
+    private final float invChunkSize;
+
+    ChunkBounds(float invChunkSize) {
+        this.invChunkSize = invChunkSize;
+    }
+
+    /**
+     * @return The bounds of a chunk, {@code null} if no body is in the chunk.
+     */
+    Bounds get(int chunkX, int chunkY){
+        return chunks.get(KleeHelper.pairLong(chunkX, chunkY));
+    }
+
+    /**
+     * Adds a box to the bounds of all chunks it takes space in.
+     */
+    void add(Rectangle box){
+        int minX = KleeHelper.chunkFloor(box.x * invChunkSize), maxX = KleeHelper.chunkFloor((box.x + box.width) * invChunkSize);
+        int minY = KleeHelper.chunkFloor(box.y * invChunkSize), maxY = KleeHelper.chunkFloor((box.y + box.height) * invChunkSize);
+        for(int x = minX; x <= maxX; x++){
+            for(int y = minY; y <= maxY; y++)bounds(x, y).add(box);
+        }
+    }
+
+    /**
+     * Removes a box from the bounds of all chunks it takes space in.
+     */
+    void remove(Rectangle box){
+        int minX = KleeHelper.chunkFloor(box.x * invChunkSize), maxX = KleeHelper.chunkFloor((box.x + box.width) * invChunkSize);
+        int minY = KleeHelper.chunkFloor(box.y * invChunkSize), maxY = KleeHelper.chunkFloor((box.y + box.height) * invChunkSize);
+        for(int x = minX; x <= maxX; x++){
+            for(int y = minY; y <= maxY; y++)release(x, y, box);
+        }
+    }
+
+    /**
+     * Changes the bounds of all chunks of the old and the new box, the chunks covered by both only get updated.
+     */
+    void move(Rectangle from, Rectangle to){
+        int fromMinX = KleeHelper.chunkFloor(from.x * invChunkSize), fromMaxX = KleeHelper.chunkFloor((from.x + from.width) * invChunkSize);
+        int fromMinY = KleeHelper.chunkFloor(from.y * invChunkSize), fromMaxY = KleeHelper.chunkFloor((from.y + from.height) * invChunkSize);
+        int toMinX = KleeHelper.chunkFloor(to.x * invChunkSize), toMaxX = KleeHelper.chunkFloor((to.x + to.width) * invChunkSize);
+        int toMinY = KleeHelper.chunkFloor(to.y * invChunkSize), toMaxY = KleeHelper.chunkFloor((to.y + to.height) * invChunkSize);
+        for(int x = fromMinX; x <= fromMaxX; x++){
+            for(int y = fromMinY; y <= fromMaxY; y++){
+                boolean kept = x >= toMinX && x <= toMaxX && y >= toMinY && y <= toMaxY;
+                if(kept)bounds(x, y).move(from, to);
+                else release(x, y, from);
+            }
+        }
+        for(int x = toMinX; x <= toMaxX; x++){
+            for(int y = toMinY; y <= toMaxY; y++){
+                if(x >= fromMinX && x <= fromMaxX && y >= fromMinY && y <= fromMaxY)continue;
+                bounds(x, y).add(to);
+            }
+        }
+    }
+
+    private Bounds bounds(int chunkX, int chunkY){
+        long key = KleeHelper.pairLong(chunkX, chunkY);
+        Bounds bounds = chunks.get(key);
+        if(bounds == null)chunks.put(key, bounds = new Bounds());
+        return bounds;
+    }
+
+    /**
+     * Removes a box from the bounds of a chunk and drops the bounds once the chunk is empty.
+     */
+    private void release(int chunkX, int chunkY, Rectangle box){
+        long key = KleeHelper.pairLong(chunkX, chunkY);
+        if(chunks.get(key).remove(box))chunks.remove(key);
+    }
+
+    /**
+     * @return The amount of chunks bounds are kept for, which are all chunks containing at least one body.
+     */
+    int size(){
+        return chunks.size;
+    }
+
+    /**
+     * The aggregate bounding box and the member count of a single chunk.
+     */
+    static final class Bounds {
+        private float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY;
+        private float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+        private int count;
+        private boolean dirty;
+
+        private void add(Rectangle box){
+            count++;
+            merge(box);
+        }
+
+        /**
+         * @return Whether the chunk is empty now.
+         */
+        private boolean remove(Rectangle box){
+            if(--count == 0)return true;
+            if(touchesEdge(box))dirty = true;
+            return false;
+        }
+
+        private void move(Rectangle from, Rectangle to){
+            merge(to);
+            //the bounds can only shrink if the old box defined an edge the new one doesn't reach anymore
+            if(from.x <= minX && to.x > minX || from.y <= minY && to.y > minY
+                    || from.x + from.width >= maxX && to.x + to.width < maxX
+                    || from.y + from.height >= maxY && to.y + to.height < maxY)dirty = true;
+        }
+
+        private boolean touchesEdge(Rectangle box){
+            return box.x <= minX || box.y <= minY || box.x + box.width >= maxX || box.y + box.height >= maxY;
+        }
+
+        /**
+         * Resets the bounds to be empty, so they can be recalculated by merging all members.
+         */
+        void reset(){
+            minX = minY = Float.POSITIVE_INFINITY;
+            maxX = maxY = Float.NEGATIVE_INFINITY;
+            dirty = false;
+        }
+
+        void merge(Rectangle box){
+            minX = Math.min(minX, box.x);
+            minY = Math.min(minY, box.y);
+            maxX = Math.max(maxX, box.x + box.width);
+            maxY = Math.max(maxY, box.y + box.height);
+        }
+
+        /**
+         * Uses the same (exclusive) test as {@link Rectangle#overlaps(Rectangle)}, so a chunk is only rejected if no
+         * member can overlap the area.
+         */
+        boolean overlaps(Rectangle area){
+            return count > 0 && area.x < maxX && area.x + area.width > minX && area.y < maxY && area.y + area.height > minY;
+        }
+
+        boolean isDirty() {
+            return dirty;
+        }
+
+        int getCount() {
+            return count;
+        }
+    }
+
+}
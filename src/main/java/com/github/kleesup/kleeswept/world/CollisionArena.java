@@ -0,0 +1,42 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * A bump allocator for the responses and collisions of one tick of a {@link SimpleCollisionWorld}
+ * (see {@link SimpleCollisionWorld#setArenaMode(boolean)}). Objects are handed out in order and are all released at
+ * once by {@link #reset()}, after which they are reused. Once the arena has grown to the peak amount of a tick,
+ * no more objects are created.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+final class CollisionArena {
+
+    private final Array<CollisionResponse> responses = new Array<>();
+    private final Array<CollisionResponse.Collision> collisions = new Array<>();
+    private int usedResponses, usedCollisions;
+
+    CollisionResponse obtainResponse(){
+        if(usedResponses == responses.size)responses.add(new CollisionResponse());
+        return responses.get(usedResponses++);
+    }
+
+    CollisionResponse.Collision obtainCollision(){
+        if(usedCollisions == collisions.size)collisions.add(new CollisionResponse.Collision());
+        return collisions.get(usedCollisions++);
+    }
+
+    /**
+     * Releases all objects handed out since the last reset. Their references are cleared, so no body is kept alive
+     * by the arena.
+     */
+    void reset(){
+        for(int i = 0; i < usedResponses; i++)responses.get(i).clear();
+        for(int i = 0; i < usedCollisions; i++)collisions.get(i).reset();
+        usedResponses = 0;
+        usedCollisions = 0;
+    }
+
+}
@@ -10,7 +10,7 @@ import java.util.*;
  * The object that is returned when a collision test was done.
  * <br>Created on 13.09.2023</br>
  * @author KleeSup
- * @version 1.4
+ * @version 1.5
  * @since 1.0.1
  */
 public class CollisionResponse {
@@ -120,6 +120,7 @@ public class CollisionResponse {
             normalX = 0;
             normalY = 0;
             hitTime = 0;
+            resolved = false;
         }
     }
 
@@ -0,0 +1,124 @@
+package com.github.kleesup.kleeswept.world;
+
+import java.util.Arrays;
+
+/**
+ * A bounded max-heap of the k closest bodies found by a nearest-neighbour query, stored in primitive arrays which keep
+ * their capacity when the heap is reused. The root is always the farthest of the kept bodies, so a new body only has to
+ * be compared with the root once the heap is full. Equal distances are ordered by the slot of the bodies, which makes
+ * the result independent of the order the bodies are found in.
+ * The class is NOT Thread-Safe!
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+final class NearestHeap {
+
+    private float[] distances = new float[8];
+    private int[] slots = new int[8];
+    private Object[] bodies = new Object[8];
+    private int size, limit;
+
+    /**
+     * Clears the heap so it can keep up to {@code k} bodies.
+     */
+    void reset(int k){
+        Arrays.fill(bodies, 0, size, null);
+        size = 0;
+        limit = k;
+        if(bodies.length < k){
+            int capacity = Math.max(k, bodies.length << 1);
+            distances = new float[capacity];
+            slots = new int[capacity];
+            bodies = new Object[capacity];
+        }
+    }
+
+    boolean isFull(){
+        return size == limit;
+    }
+
+    /**
+     * @return The biggest kept distance, only valid if the heap isn't empty.
+     */
+    float farthest(){
+        return distances[0];
+    }
+
+    /**
+     * Offers a body to the heap, it is only kept if the heap isn't full or it is closer than the farthest kept body.
+     */
+    void offer(Object body, int slot, float distance){
+        if(size < limit){
+            int i = size++;
+            //sifting up
+            while(i > 0){
+                int parent = (i - 1) >> 1;
+                if(!after(distance, slot, distances[parent], slots[parent]))break;
+                set(i, parent);
+                i = parent;
+            }
+            set(i, body, slot, distance);
+        }else if(after(distances[0], slots[0], distance, slot)){
+            siftDown(body, slot, distance, size);
+        }
+    }
+
+    /**
+     * Sorts the kept bodies ascending by their distance, the heap is invalid afterwards until it is reset.
+     * @return The amount of kept bodies.
+     */
+    int sort(){
+        for(int end = size - 1; end > 0; end--){
+            Object body = bodies[end];
+            int slot = slots[end];
+            float distance = distances[end];
+            set(end, 0);
+            siftDown(body, slot, distance, end);
+        }
+        return size;
+    }
+
+    float distance(int index){
+        return distances[index];
+    }
+
+    Object body(int index){
+        return bodies[index];
+    }
+
+    /**
+     * Puts an element at the root and moves it down until the heap property is restored.
+     */
+    private void siftDown(Object body, int slot, float distance, int size){
+        int i = 0;
+        while(true){
+            int child = (i << 1) + 1;
+            if(child >= size)break;
+            if(child + 1 < size && after(distances[child + 1], slots[child + 1], distances[child], slots[child]))child++;
+            if(!after(distances[child], slots[child], distance, slot))break;
+            set(i, child);
+            i = child;
+        }
+        set(i, body, slot, distance);
+    }
+
+    /**
+     * @return Whether the first element is ordered after the second one.
+     */
+    private static boolean after(float distanceA, int slotA, float distanceB, int slotB){
+        return distanceA > distanceB || distanceA == distanceB && slotA > slotB;
+    }
+
+    private void set(int to, int from){
+        set(to, bodies[from], slots[from], distances[from]);
+    }
+
+    private void set(int index, Object body, int slot, float distance){
+        bodies[index] = body;
+        slots[index] = slot;
+        distances[index] = distance;
+    }
+
+}
@@ -0,0 +1,211 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.github.kleesup.kleeswept.world.body.ISweptBody;
+
+import java.util.Arrays;
+
+/**
+ * An alternative layout of {@link CollisionResponse} for bulk consumers (e.g. network replication).
+ * Instead of a list of {@link CollisionResponse.Collision} objects, every hit is stored in parallel primitive arrays
+ * which keep their capacity when the response is reused. It is filled directly by
+ * {@link SimpleCollisionWorld#simulatePacked(ISweptBody, com.badlogic.gdx.math.Vector2, float, float, PackedCollisionResponse)},
+ * without any collision object being pooled.
+ * <br>
+ * The hits can either be read column-wise through the arrays (e.g. {@link #getHandles()}), which are valid up to
+ * {@link #size()} (exclusive), or hit by hit through the reusable view of {@link #get(int)}.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.1
+ * @since 1.2
+ */
+public class PackedCollisionResponse {
+
+    /** The AABB that was tested **/
+    public ISweptBody body;
+    /** The next best goal position-x (original x + {@link #updatedDisplacementX}) **/
+    public float bestGoalX;
+    /** The next best goal position-y (original y + {@link #updatedDisplacementY}) **/
+    public float bestGoalY;
+    /** The updated displacement x (already calculated into {@link #bestGoalX}). **/
+    public float updatedDisplacementX;
+    /** The updated displacement y (already calculated into {@link #bestGoalY}). **/
+    public float updatedDisplacementY;
+
+    private ISweptBody[] targets;
+    private int[] handles;
+    private byte[] normalsX, normalsY;
+    private float[] hitTimes;
+    private boolean[] overlapping, resolved;
+    private int size;
+    private final Hit view = new Hit();
+
+    public PackedCollisionResponse(int capacity) {
+        if(capacity < 1)throw new IllegalArgumentException("The capacity cannot be smaller than 1!");
+        targets = new ISweptBody[capacity];
+        handles = new int[capacity];
+        normalsX = new byte[capacity];
+        normalsY = new byte[capacity];
+        hitTimes = new float[capacity];
+        overlapping = new boolean[capacity];
+        resolved = new boolean[capacity];
+    }
+    public PackedCollisionResponse(){
+        this(8);
+    }
+
+    void add(ISweptBody target, int handle, boolean isOverlapping, byte normalX, byte normalY, float hitTime, boolean isResolved){
+        if(size == handles.length){
+            int capacity = size << 1;
+            targets = Arrays.copyOf(targets, capacity);
+            handles = Arrays.copyOf(handles, capacity);
+            normalsX = Arrays.copyOf(normalsX, capacity);
+            normalsY = Arrays.copyOf(normalsY, capacity);
+            hitTimes = Arrays.copyOf(hitTimes, capacity);
+            overlapping = Arrays.copyOf(overlapping, capacity);
+            resolved = Arrays.copyOf(resolved, capacity);
+        }
+        targets[size] = target;
+        handles[size] = handle;
+        normalsX[size] = normalX;
+        normalsY[size] = normalY;
+        hitTimes[size] = hitTime;
+        overlapping[size] = isOverlapping;
+        resolved[size] = isResolved;
+        size++;
+    }
+
+    /**
+     * Clears the object so it can be reused, the capacity is kept.
+     */
+    public void clear(){
+        Arrays.fill(targets, 0, size, null);
+        size = 0;
+        body = null;
+    }
+
+    /**
+     * @return The amount of hits.
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Retrieves the reusable view of a hit. The view is changed by the next call, so it shouldn't be kept.
+     * @param index The index of the hit.
+     * @return The view pointing to the hit.
+     */
+    public Hit get(int index){
+        if(index < 0 || index >= size)throw new IndexOutOfBoundsException("index can't be >= size: " + index + " >= " + size);
+        view.index = index;
+        return view;
+    }
+
+    public ISweptBody getTarget(int index){
+        return targets[index];
+    }
+
+    /**
+     * @param index The index of the hit.
+     * @return The handle of the target, see {@link SimpleCollisionWorld#getHandle(ISweptBody)}. {@code -1} if the
+     * target is part of the layer of the world (see {@link SimpleCollisionWorld#setLayer}).
+     */
+    public int getHandle(int index){
+        return handles[index];
+    }
+
+    public byte getNormalX(int index){
+        return normalsX[index];
+    }
+
+    public byte getNormalY(int index){
+        return normalsY[index];
+    }
+
+    public float getHitTime(int index){
+        return hitTimes[index];
+    }
+
+    public boolean isOverlapping(int index){
+        return overlapping[index];
+    }
+
+    public boolean isResolved(int index){
+        return resolved[index];
+    }
+
+    /*
+    Column-wise access, all arrays are only valid up to size() (exclusive) and until the response is filled again.
+    */
+
+    public ISweptBody[] getTargets() {
+        return targets;
+    }
+
+    public int[] getHandles() {
+        return handles;
+    }
+
+    public byte[] getNormalsX() {
+        return normalsX;
+    }
+
+    public byte[] getNormalsY() {
+        return normalsY;
+    }
+
+    public float[] getHitTimes() {
+        return hitTimes;
+    }
+
+    public boolean[] getOverlapping() {
+        return overlapping;
+    }
+
+    public boolean[] getResolved() {
+        return resolved;
+    }
+
+    /**
+     * A view on a single hit of the response (see {@link CollisionResponse.Collision} for the meaning of the values).
+     */
+    public final class Hit {
+        private int index;
+
+        private Hit() {
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public ISweptBody getTarget(){
+            return targets[index];
+        }
+
+        public int getHandle(){
+            return handles[index];
+        }
+
+        public byte getNormalX(){
+            return normalsX[index];
+        }
+
+        public byte getNormalY(){
+            return normalsY[index];
+        }
+
+        public float getHitTime(){
+            return hitTimes[index];
+        }
+
+        public boolean isOverlapping(){
+            return overlapping[index];
+        }
+
+        public boolean isResolved(){
+            return resolved[index];
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.github.kleesup.kleeswept.world.body.ISweptBody;
+
+import java.util.Arrays;
+
+/**
+ * A reusable buffer of sensor events. Events are stored in parallel arrays, so no object is created per event.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+public class SensorEvents<Body extends ISweptBody> {
+
+    public static final byte ENTER = 0;
+    public static final byte STAY = 1;
+    public static final byte EXIT = 2;
+
+    private byte[] types = new byte[16];
+    private Object[] sensors = new Object[16];
+    private Object[] others = new Object[16];
+    private int size;
+
+    void add(byte type, Body sensor, Body other){
+        if(size == types.length){
+            int capacity = size << 1;
+            types = Arrays.copyOf(types, capacity);
+            sensors = Arrays.copyOf(sensors, capacity);
+            others = Arrays.copyOf(others, capacity);
+        }
+        types[size] = type;
+        sensors[size] = sensor;
+        others[size] = other;
+        size++;
+    }
+
+    /**
+     * Passes all events to a listener and clears the buffer afterwards.
+     * @param listener The listener to notify.
+     */
+    public void dispatch(SensorListener<Body> listener){
+        for(int i = 0; i < size; i++){
+            switch (types[i]){
+                case ENTER: listener.onEnter(getSensor(i), getOther(i)); break;
+                case STAY: listener.onStay(getSensor(i), getOther(i)); break;
+                case EXIT: listener.onExit(getSensor(i), getOther(i)); break;
+            }
+        }
+        clear();
+    }
+
+    /**
+     * Clears the buffer so it can be reused.
+     */
+    public void clear(){
+        Arrays.fill(sensors, 0, size, null);
+        Arrays.fill(others, 0, size, null);
+        size = 0;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    /**
+     * @param index The index of the event.
+     * @return The type of the event, either {@link #ENTER}, {@link #STAY} or {@link #EXIT}.
+     */
+    public byte getType(int index){
+        return types[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    public Body getSensor(int index){
+        return (Body) sensors[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    public Body getOther(int index){
+        return (Body) others[index];
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.github.kleesup.kleeswept.world.body.ISweptBody;
+
+/**
+ * A listener for the sensor events of a world (see {@link ISweptBody#isSensor()}).
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+public interface SensorListener<Body extends ISweptBody> {
+
+    /**
+     * Called when a body started overlapping a sensor.
+     * @param sensor The sensor.
+     * @param other The body that entered the sensor.
+     */
+    default void onEnter(Body sensor, Body other){}
+
+    /**
+     * Called when a body that already overlapped a sensor still overlaps it after either of them moved.
+     * @param sensor The sensor.
+     * @param other The body that stays in the sensor.
+     */
+    default void onStay(Body sensor, Body other){}
+
+    /**
+     * Called when a body stopped overlapping a sensor (or either of them was removed from the world).
+     * @param sensor The sensor.
+     * @param other The body that exited the sensor.
+     */
+    default void onExit(Body sensor, Body other){}
+
+}
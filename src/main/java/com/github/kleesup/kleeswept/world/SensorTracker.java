@@ -0,0 +1,97 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.badlogic.gdx.utils.Array;
+import com.github.kleesup.kleeswept.world.body.ISweptBody;
+
+/**
+ * Keeps the persistent set of overlapping sensor pairs of a {@link SimpleCollisionWorld} up to date.
+ * The pairs are stored as contact lists on both entries of a pair and are only updated for a body that was added,
+ * removed or moved, the changes are written into a {@link SensorEvents} buffer.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.1
+ * @since 1.2
+ */
+final class SensorTracker<Body extends ISweptBody> {
+
+    final SensorEvents<Body> events = new SensorEvents<>();
+    private final SimpleCollisionWorld<Body> world;
+    private final Array<BodyEntry<Body>> _found = new Array<>();
+    private int stamp;
+
+    SensorTracker(SimpleCollisionWorld<Body> world) {
+        this.world = world;
+    }
+
+    /**
+     * Updates the contacts of an entry after it was added, moved or resized.
+     * @param entry The entry that changed.
+     */
+    void update(BodyEntry<Body> entry){
+        update(entry, false);
+    }
+
+    /**
+     * @param added Whether the entry was just added. Contacts it already has were linked by other bodies added along
+     *              with it (see {@link SimpleCollisionWorld#addBodies(ISweptBody[], float[])}), they only entered and
+     *              don't stay yet.
+     */
+    void update(BodyEntry<Body> entry, boolean added){
+        stamp++;
+        //marking all current contacts, so existing ones can be told apart from new ones
+        if(entry.contacts != null){
+            for(BodyEntry<Body> contact : entry.contacts)contact.sensorVisit = stamp;
+        }
+        _found.clear();
+        world.collectEntries(entry.box, _found);
+        for(BodyEntry<Body> other : _found){
+            if(other == entry || other.sensor == entry.sensor)continue; //only sensor vs non-sensor
+            BodyEntry<Body> sensor = entry.sensor ? entry : other;
+            BodyEntry<Body> target = entry.sensor ? other : entry;
+            if(!sensor.body.checkCollision(target.body))continue;
+            other.sensorConfirm = stamp;
+            if(other.sensorVisit == stamp){
+                if(!added)events.add(SensorEvents.STAY, sensor.body, target.body);
+            }else{
+                link(entry, other);
+                events.add(SensorEvents.ENTER, sensor.body, target.body);
+            }
+        }
+        _found.clear();
+        //all contacts that weren't confirmed are no longer overlapping
+        if(entry.contacts == null)return;
+        for(int i = entry.contacts.size - 1; i >= 0; i--){
+            BodyEntry<Body> contact = entry.contacts.get(i);
+            if(contact.sensorConfirm == stamp)continue;
+            entry.contacts.removeIndex(i);
+            contact.contacts.removeValue(entry, true);
+            exit(entry, contact);
+        }
+    }
+
+    /**
+     * Removes all contacts of an entry that is about to be removed from the world.
+     * @param entry The entry to remove.
+     */
+    void clear(BodyEntry<Body> entry){
+        if(entry.contacts == null || entry.contacts.isEmpty())return;
+        for(BodyEntry<Body> contact : entry.contacts){
+            contact.contacts.removeValue(entry, true);
+            exit(entry, contact);
+        }
+        entry.contacts.clear();
+    }
+
+    private void link(BodyEntry<Body> a, BodyEntry<Body> b){
+        if(a.contacts == null)a.contacts = new Array<>(false, 4);
+        if(b.contacts == null)b.contacts = new Array<>(false, 4);
+        a.contacts.add(b);
+        b.contacts.add(a);
+    }
+
+    private void exit(BodyEntry<Body> a, BodyEntry<Body> b){
+        if(a.sensor)events.add(SensorEvents.EXIT, a.body, b.body);
+        else events.add(SensorEvents.EXIT, b.body, a.body);
+    }
+
+}
@@ -0,0 +1,488 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.Pool;
+import com.github.kleesup.kleeswept.KleeHelper;
+import com.github.kleesup.kleeswept.world.body.ISweptBody;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * A {@link CollisionWorld} that partitions space into large square regions, each backed by its own
+ * {@link SimpleCollisionWorld} (and therefore its own chunk index and temporary fields).
+ * <p>
+ * A body is owned by the region containing the bottom-left corner of its bounding box. Bodies closer than the ghost
+ * margin to a neighbouring region are mirrored into it as read-only ghosts, so each region knows every body that
+ * overlaps its bounds expanded by the margin. When a bounding box changes, the body is handed off: it is added to the
+ * regions it now reaches, removed from the ones it left and the ownership moves along with its corner.
+ * All regions share the slots assigned by this world, hence ties between collisions are broken the same way in every
+ * region and single-body moves ({@link #update(ISweptBody, Vector2)}, {@link #simulate(ISweptBody, Vector2)}) yield the
+ * same results as an unsharded {@link SimpleCollisionWorld}. A move that leaves the expanded bounds of its region
+ * temporarily borrows the bodies of the neighbouring regions it reaches.
+ * </p>
+ * <p>
+ * Moves queued with {@link #move(ISweptBody, float, float)} are executed by {@link #step()}: the regions process
+ * their own moves in parallel on the executor, each in queue order. Bodies owned by other regions are seen at their
+ * position from the start of the step. Afterwards, the new positions are handed to the neighbouring regions and all
+ * moves that would have left the expanded bounds of their region (and all moves queued after them in that region)
+ * are executed one after another in queue order.
+ * User callbacks ({@link ISweptBody#checkCollision(ISweptBody)}, {@link ISweptBody#resolveCollision}) of bodies in
+ * different regions might therefore be called concurrently during a step.
+ * </p>
+ * Sensors are not supported, as their events would be reported by every region they are mirrored into.
+ * The class is NOT Thread-Safe!
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.2
+ * @since 1.2
+ */
+public class ShardedCollisionWorld<Body extends ISweptBody> implements CollisionWorld<Body> {
+
+    private final int chunkSize;
+    private final int regionSize;
+    private final float invRegionSize;
+    private final float ghostMargin;
+    private final ExecutorService executor;
+    private final LongMap<Region> regions = new LongMap<>();
+    private final IdentityHashMap<Body, Shard<Body>> shards = new IdentityHashMap<>();
+    private final IntArray freeSlots = new IntArray();
+    private int nextSlot;
+    private boolean sort = true;
+
+    //queued moves of the next step
+    private final Array<Body> queuedBodies = new Array<>();
+    private float[] queuedMoves = new float[32];
+
+    private final Pool<CollisionResponse.Collision> collisions = new Pool<CollisionResponse.Collision>() {
+        @Override
+        protected CollisionResponse.Collision newObject() {
+            return new CollisionResponse.Collision();
+        }
+    };
+
+    //state of the current step
+    private final Array<CollisionResponse> responses = new Array<>();
+    private int responseCount;
+    private final Array<Region> activeRegions = new Array<>();
+    private final ArrayList<Region> tasks = new ArrayList<>();
+    private final IntArray deferred = new IntArray();
+
+    /**
+     * @param chunkSize The chunk size of the regions.
+     * @param regionSize The size of a region, should be a lot bigger than the chunk size.
+     * @param ghostMargin The distance to a region in which bodies are mirrored into it. Moves that stay within
+     *                    this distance to the region of the body can be stepped in parallel.
+     * @param executor The executor the regions are stepped on, it is not shut down by this world.
+     */
+    public ShardedCollisionWorld(int chunkSize, int regionSize, float ghostMargin, ExecutorService executor) {
+        if(chunkSize < 1)throw new IllegalArgumentException("The chunk size cannot be smaller than 1!");
+        if(regionSize < chunkSize)throw new IllegalArgumentException("The region size cannot be smaller than the chunk size!");
+        if(!(ghostMargin >= 0) || Float.isInfinite(ghostMargin))throw new IllegalArgumentException("The ghost margin has to be a finite number >= 0!");
+        KleeHelper.paramRequireNonNull(executor, "Executor cannot be null!");
+        this.chunkSize = chunkSize;
+        this.regionSize = regionSize;
+        this.invRegionSize = 1f / regionSize;
+        this.ghostMargin = ghostMargin;
+        this.executor = executor;
+    }
+    public ShardedCollisionWorld(int chunkSize, int regionSize, float ghostMargin) {
+        this(chunkSize, regionSize, ghostMargin, ForkJoinPool.commonPool());
+    }
+
+    @Override
+    public void addBody(Body body, Rectangle boundingBox) {
+        KleeHelper.paramRequireNonNull(boundingBox, "Bounding box cannot be null!");
+        addBody(body, boundingBox.x, boundingBox.y, boundingBox.width, boundingBox.height);
+    }
+
+    @Override
+    public void addBody(Body body, float bbX, float bbY, float bbWidth, float bbHeight) {
+        KleeHelper.paramRequireNonNull(body, "Body cannot be null!");
+        if(shards.containsKey(body))return;
+        if(body.isSensor())throw new IllegalArgumentException("Sensors are not supported by a sharded world!");
+        int slot = freeSlots.size > 0 ? freeSlots.pop() : nextSlot++;
+        Shard<Body> shard = new Shard<>(body, slot, new Rectangle(bbX, bbY, bbWidth, bbHeight));
+        shards.put(body, shard);
+        handoff(shard);
+    }
+
+    @Override
+    public Rectangle removeBody(Body body) {
+        KleeHelper.paramRequireNonNull(body, "Body cannot be null!");
+        Shard<Body> shard = shards.remove(body);
+        if(shard == null)return null;
+        for(int x = shard.minRegionX; x <= shard.maxRegionX; x++){
+            for(int y = shard.minRegionY; y <= shard.maxRegionY; y++){
+                regions.get(KleeHelper.pairLong(x, y)).world.removeExternal(body);
+            }
+        }
+        freeSlots.add(shard.slot);
+        return shard.box;
+    }
+
+    @Override
+    public boolean contains(Body body) {
+        return shards.containsKey(body);
+    }
+
+    @Override
+    public Rectangle getBoundingBox(Body body) {
+        return getBoundingBox(body, new Rectangle());
+    }
+
+    @Override
+    public Rectangle getBoundingBox(Body body, Rectangle writeTo) {
+        return writeTo.set(requireShard(body).box);
+    }
+
+    @Override
+    public void forceUpdate(Body body, float goalX, float goalY, float width, float height) {
+        Shard<Body> shard = requireShard(body);
+        Rectangle box = shard.box;
+        if(goalX == box.x && goalY == box.y && width == box.width && height == box.height)return;
+        box.set(goalX, goalY, width, height);
+        handoff(shard);
+    }
+
+    @Override
+    public void forceUpdate(Body body, float goalX, float goalY) {
+        Rectangle box = requireShard(body).box;
+        forceUpdate(body, goalX, goalY, box.width, box.height);
+    }
+
+    @Override
+    public CollisionResponse update(Body body, Vector2 displacement, float width, float height, CollisionResponse writeTo) {
+        CollisionResponse response = simulate(body, displacement, width, height, writeTo);
+        forceUpdate(body, response.bestGoalX, response.bestGoalY, width, height);
+        return response;
+    }
+
+    @Override
+    public CollisionResponse update(Body body, Vector2 displacement, CollisionResponse response) {
+        Rectangle box = requireShard(body).box;
+        return update(body, displacement, box.width, box.height, response);
+    }
+
+    @Override
+    public CollisionResponse simulate(Body body, Vector2 displacement, float width, float height, CollisionResponse writeTo) {
+        Shard<Body> shard = requireShard(body);
+        Region owner = shard.owner;
+        Rectangle box = shard.box;
+        float moveX = displacement == null ? 0 : displacement.x, moveY = displacement == null ? 0 : displacement.y;
+        _area.set(box.x + moveX, box.y + moveY, width, height).merge(box);
+        if(owner.covers(_area))return adopt(owner.world, owner.world.simulate(body, displacement, width, height, writeTo));
+        //the move leaves the region, so the bodies it might reach are borrowed from the neighbouring regions
+        int minX = regionFloor(_area.x), maxX = regionFloor(_area.x + _area.width);
+        int minY = regionFloor(_area.y), maxY = regionFloor(_area.y + _area.height);
+        for(int x = minX; x <= maxX; x++){
+            for(int y = minY; y <= maxY; y++){
+                Region region = regions.get(KleeHelper.pairLong(x, y));
+                if(region != null && region != owner)region.world.collectEntries(_area, _found);
+            }
+        }
+        try{
+            for(BodyEntry<Body> entry : _found){
+                if(owner.world.contains(entry.body))continue;
+                Rectangle other = entry.box;
+                owner.world.addExternal(entry.body, entry.slot, other.x, other.y, other.width, other.height);
+                _borrowed.add(entry.body);
+            }
+            return adopt(owner.world, owner.world.simulate(body, displacement, width, height, writeTo));
+        }finally{
+            for(Body borrowed : _borrowed)owner.world.removeExternal(borrowed);
+            _borrowed.clear();
+            _found.clear();
+        }
+    }
+
+    @Override
+    public CollisionResponse simulate(Body body, Vector2 displacement, CollisionResponse writeTo) {
+        Rectangle box = requireShard(body).box;
+        return simulate(body, displacement, box.width, box.height, writeTo);
+    }
+
+    /**
+     * Queues a displacement for a body, which is executed on the next {@link #step()}.
+     * Queuing the same body multiple times moves it multiple times (in queue order). If the body is removed before the
+     * step, the move is skipped and its response stays empty.
+     * @param body The body to move.
+     * @param displacementX The x-displacement.
+     * @param displacementY The y-displacement.
+     */
+    public void move(Body body, float displacementX, float displacementY){
+        requireShard(body);
+        int index = queuedBodies.size;
+        if(index * 2 == queuedMoves.length)queuedMoves = Arrays.copyOf(queuedMoves, index * 4);
+        queuedBodies.add(body);
+        queuedMoves[index * 2] = displacementX;
+        queuedMoves[index * 2 + 1] = displacementY;
+    }
+    public void move(Body body, Vector2 displacement){
+        move(body, displacement.x, displacement.y);
+    }
+
+    /**
+     * Executes all queued moves, the regions are stepped in parallel. The responses of the previous step are freed.
+     * @return The amount of executed moves. Their responses can be retrieved with {@link #getResponse(int)}.
+     */
+    public int step(){
+        freeResponses();
+        int count = queuedBodies.size;
+        try{
+            //grouping the moves by the region owning the body
+            for(int q = 0; q < count; q++){
+                if(responses.size == q)responses.add(new CollisionResponse());
+                Shard<Body> shard = shards.get(queuedBodies.get(q));
+                //the body was removed after its move was queued
+                if(shard == null)continue;
+                Region owner = shard.owner;
+                if(owner.queue.size == 0)activeRegions.add(owner);
+                owner.queue.add(q);
+            }
+            runRegions();
+            //handing the results to the neighbouring regions and collecting the moves that couldn't be done in parallel
+            for(Region region : activeRegions){
+                for(int k = 0; k < region.queue.size; k++){
+                    int q = region.queue.get(k);
+                    if(k >= region.processed){
+                        deferred.add(q);
+                        continue;
+                    }
+                    adopt(region.world, responses.get(q));
+                    Body body = queuedBodies.get(q);
+                    region.world.getBoundingBox(body, _box);
+                    forceUpdate(body, _box.x, _box.y, _box.width, _box.height);
+                }
+            }
+            deferred.sort();
+            for(int i = 0; i < deferred.size; i++){
+                int q = deferred.get(i);
+                _move.set(queuedMoves[q * 2], queuedMoves[q * 2 + 1]);
+                update(queuedBodies.get(q), _move, responses.get(q));
+            }
+            responseCount = count;
+        }finally{
+            for(Region region : activeRegions){
+                region.queue.clear();
+                region.processed = 0;
+            }
+            activeRegions.clear();
+            deferred.clear();
+            queuedBodies.clear();
+        }
+        return count;
+    }
+
+    private void runRegions(){
+        if(activeRegions.size == 1){
+            activeRegions.first().call();
+            return;
+        }
+        tasks.clear();
+        for(Region region : activeRegions)tasks.add(region);
+        try{
+            for(Future<Void> future : executor.invokeAll(tasks))future.get();
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while stepping the regions!", e);
+        }catch (ExecutionException e){
+            Throwable cause = e.getCause();
+            if(cause instanceof RuntimeException)throw (RuntimeException) cause;
+            if(cause instanceof Error)throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }finally{
+            tasks.clear();
+        }
+    }
+
+    /**
+     * Retrieves the response of a move executed in the last step. Responses stay valid until the next step.
+     * @param index The index of the move (in queue order).
+     * @return The response of the move.
+     */
+    public CollisionResponse getResponse(int index){
+        if(index < 0 || index >= responseCount)throw new IndexOutOfBoundsException("index can't be >= size: " + index + " >= " + responseCount);
+        return responses.get(index);
+    }
+
+    /**
+     * @return The amount of moves executed in the last step.
+     */
+    public int size(){
+        return responseCount;
+    }
+
+    private void freeResponses(){
+        for(int i = 0; i < responseCount; i++)free(responses.get(i));
+        responseCount = 0;
+    }
+
+    /**
+     * Frees the given response object by freeing all collision objects and then clearing the response object.
+     * @param response The response object to free.
+     */
+    public void free(CollisionResponse response){
+        for(CollisionResponse.Collision collision : response.getCollisions())collisions.free(collision);
+        response.clear();
+    }
+
+    /**
+     * Replaces the collisions of a response calculated by a region with collisions of this world's pool and returns
+     * the originals to the pool of the region. The regions therefore keep their collisions, no matter which thread
+     * frees the response or whether the body is still contained in the world by then.
+     * Must not be called while the regions are stepped.
+     * @return The given response.
+     */
+    private CollisionResponse adopt(SimpleCollisionWorld<Body> world, CollisionResponse response){
+        List<CollisionResponse.Collision> list = response.getCollisions();
+        for(int i = 0; i < list.size(); i++){
+            CollisionResponse.Collision original = list.get(i);
+            list.set(i, collisions.obtain().set(original.target, original.isOverlapping, original.normalX, original.normalY, original.hitTime, original.resolved));
+            world.free(original);
+        }
+        return response;
+    }
+
+    /**
+     * Enables or disables sorting of collisions in all regions (see {@link SimpleCollisionWorld#setSort(boolean)}).
+     * @param enabled Whether sorting should be enabled.
+     */
+    public void setSort(boolean enabled){
+        this.sort = enabled;
+        for(Region region : regions.values())region.world.setSort(enabled);
+    }
+
+    /**
+     * @return The amount of regions that were created so far.
+     */
+    public int getRegionCount(){
+        return regions.size;
+    }
+
+    private Shard<Body> requireShard(Body body){
+        KleeHelper.paramRequireNonNull(body, "Body cannot be null!");
+        Shard<Body> shard = shards.get(body);
+        if(shard == null)throw new IllegalArgumentException("The specified Body is not contained in this world!");
+        return shard;
+    }
+
+    private int regionFloor(float value){
+        return KleeHelper.chunkFloor(value * invRegionSize);
+    }
+
+    /**
+     * Updates the regions a body is contained in after its bounding box changed: it is removed from the regions it
+     * left, updated in the ones it stays in and added to the ones it reached. Afterwards, the ownership is updated.
+     */
+    private void handoff(Shard<Body> shard){
+        Body body = shard.body;
+        Rectangle box = shard.box;
+        int minX = regionFloor(box.x - ghostMargin), maxX = regionFloor(box.x + box.width + ghostMargin);
+        int minY = regionFloor(box.y - ghostMargin), maxY = regionFloor(box.y + box.height + ghostMargin);
+        for(int x = shard.minRegionX; x <= shard.maxRegionX; x++){
+            for(int y = shard.minRegionY; y <= shard.maxRegionY; y++){
+                if(x >= minX && x <= maxX && y >= minY && y <= maxY)continue;
+                regions.get(KleeHelper.pairLong(x, y)).world.removeExternal(body);
+            }
+        }
+        for(int x = minX; x <= maxX; x++){
+            for(int y = minY; y <= maxY; y++){
+                SimpleCollisionWorld<Body> world = obtainRegion(x, y).world;
+                boolean stays = x >= shard.minRegionX && x <= shard.maxRegionX && y >= shard.minRegionY && y <= shard.maxRegionY;
+                if(stays)world.forceUpdate(body, box.x, box.y, box.width, box.height);
+                else world.addExternal(body, shard.slot, box.x, box.y, box.width, box.height);
+            }
+        }
+        shard.minRegionX = minX;
+        shard.maxRegionX = maxX;
+        shard.minRegionY = minY;
+        shard.maxRegionY = maxY;
+        shard.owner = regions.get(KleeHelper.pairLong(regionFloor(box.x), regionFloor(box.y)));
+    }
+
+    private Region obtainRegion(int x, int y){
+        long key = KleeHelper.pairLong(x, y);
+        Region region = regions.get(key);
+        if(region == null)regions.put(key, region = new Region(x, y));
+        return region;
+    }
+
+    //temporary fields which can be reused for less object heap.
+    private final Rectangle _area = new Rectangle();
+    private final Rectangle _box = new Rectangle();
+    private final Vector2 _move = new Vector2();
+    private final Array<BodyEntry<Body>> _found = new Array<>();
+    private final Array<Body> _borrowed = new Array<>();
+
+    /**
+     * The bookkeeping of a body in this world.
+     */
+    private static final class Shard<Body extends ISweptBody> {
+        final Body body;
+        final int slot;
+        final Rectangle box;
+        //the range of regions the body is contained in (empty at first)
+        int minRegionX = 1, maxRegionX = 0, minRegionY = 1, maxRegionY = 0;
+        ShardedCollisionWorld<Body>.Region owner;
+
+        Shard(Body body, int slot, Rectangle box) {
+            this.body = body;
+            this.slot = slot;
+            this.box = box;
+        }
+    }
+
+    /**
+     * A region with its own world. During a step, a region only touches its own world and temporary fields.
+     */
+    private final class Region implements Callable<Void> {
+        final SimpleCollisionWorld<Body> world = new SimpleCollisionWorld<>(chunkSize);
+        //the bounds of the region expanded by the ghost margin
+        final float minX, minY, maxX, maxY;
+        final IntArray queue = new IntArray();
+        int processed;
+
+        //temporary fields which can be reused for less object heap.
+        private final Rectangle _box = new Rectangle();
+        private final Rectangle _area = new Rectangle();
+        private final Vector2 _move = new Vector2();
+
+        Region(int x, int y) {
+            this.minX = (float) x * regionSize - ghostMargin;
+            this.minY = (float) y * regionSize - ghostMargin;
+            this.maxX = (float) (x + 1) * regionSize + ghostMargin;
+            this.maxY = (float) (y + 1) * regionSize + ghostMargin;
+            world.setSort(sort);
+        }
+
+        /**
+         * Checks whether an area lies strictly inside the expanded bounds, as only then every body that might
+         * overlap the area is known to this region.
+         */
+        boolean covers(Rectangle area){
+            return area.x > minX && area.y > minY && area.x + area.width < maxX && area.y + area.height < maxY;
+        }
+
+        @Override
+        public Void call() {
+            for(int k = 0; k < queue.size; k++){
+                int q = queue.get(k);
+                Body body = queuedBodies.get(q);
+                world.getBoundingBox(body, _box);
+                _move.set(queuedMoves[q * 2], queuedMoves[q * 2 + 1]);
+                _area.set(_box.x + _move.x, _box.y + _move.y, _box.width, _box.height).merge(_box);
+                //this and all following moves are left to the serial part of the step
+                if(!covers(_area))break;
+                world.update(body, _move, responses.get(q));
+                processed++;
+            }
+            return null;
+        }
+    }
+
+}
@@ -1,19 +1,25 @@
 package com.github.kleesup.kleeswept.world;
 
-import com.badlogic.gdx.math.Polygon;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
 import com.github.kleesup.kleeswept.KleeHelper;
 import com.github.kleesup.kleeswept.KleeSweptDetection;
-import com.github.kleesup.kleeswept.util.BytePair;
 import com.github.kleesup.kleeswept.util.CollisionSorter;
-import com.github.kleesup.kleeswept.util.FloatWrap;
 import com.github.kleesup.kleeswept.world.body.ISweptBody;
 import com.github.kleesup.kleeswept.world.chunk.AbstractChunkCollisionWorld;
+import com.github.kleesup.kleeswept.world.chunk.ChunkOccupancy;
 import com.github.kleesup.kleeswept.world.chunk.EfficientChunkManager;
+import com.github.kleesup.kleeswept.world.chunk.IChunkManager;
+import com.github.kleesup.kleeswept.world.chunk.MortonChunkManager;
+import com.github.kleesup.kleeswept.world.chunk.SweptCorridor;
+import com.github.kleesup.kleeswept.world.layer.CompactBodyLayer;
+import com.github.kleesup.kleeswept.world.layer.IBodyLayer;
 
 import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * A simple implementation of {@link AbstractChunkCollisionWorld} which handles simple collision detection on a chunked basis.
@@ -21,28 +27,44 @@ import java.util.*;
  * If this is not wanted a custom implementation is required. The class is NOT Thread-Safe!
  * <br>Created on 13.09.2023</br>
  * @author KleeSup
- * @version 1.6
+ * @version 1.23
  * @since 1.0.1
  */
 public class SimpleCollisionWorld<Body extends ISweptBody> extends AbstractChunkCollisionWorld<Body> {
 
-    private final IdentityHashMap<Body, Rectangle> boundingBoxes = new IdentityHashMap<>();
-    private final Pool<CollisionResponse.Collision> poolCollisions;
+    //marks the hit ids of bodies of the layer, the slots of the world's bodies always stay below
+    private static final int LAYER_ID = 1 << 29;
+
+    private final IdentityHashMap<Body, BodyEntry<Body>> entries = new IdentityHashMap<>();
+    private final IntArray freeSlots = new IntArray();
+    private int nextSlot;
+    private final WorldJournal<Body> journal = new WorldJournal<>();
+    private final SensorTracker<Body> sensors = new SensorTracker<>(this);
+    private int sensorCount;
+    private SimulationContext ownContext, boundContext;
+    private CollisionArena arena;
+    private ChunkBounds chunkBounds;
+    private float chunkMargin;
+    private int queryEpoch;
+    private IBodyLayer<Body> layer;
+    private SimulateCache simulateCache;
+    private ChangeFeed<Body> changeFeed;
     private CollisionSorter<Body> sorter;
     private boolean sort = true;
 
-    public SimpleCollisionWorld(int chunkSize) {
-        super(chunkSize, new EfficientChunkManager<>());
+    /**
+     * @param chunkSize The size of the chunks.
+     * @param chunkManager The chunk manager to store the chunks in, e.g. {@link MortonChunkManager} for a spatially
+     *                     ordered layout.
+     */
+    public SimpleCollisionWorld(int chunkSize, IChunkManager<Body> chunkManager) {
+        super(chunkSize, chunkManager);
+        KleeHelper.paramRequireNonNull(chunkManager, "Chunk manager cannot be null!");
         //sorting collisions for smallest collision time, if it is the same -> sort for highest velocity axis
         setDefaultSorter();
-        //build pool
-        this.poolCollisions = new Pool<CollisionResponse.Collision>() {
-            @Override
-            protected CollisionResponse.Collision newObject() {
-                return new CollisionResponse.Collision();
-            }
-        };
-        this.poolCollisions.fill(5);
+    }
+    public SimpleCollisionWorld(int chunkSize) {
+        this(chunkSize, new EfficientChunkManager<>());
     }
     public SimpleCollisionWorld(){
         this(32);
@@ -52,33 +74,92 @@ public class SimpleCollisionWorld<Body extends ISweptBody> extends AbstractChunk
     public void addBody(Body body, Rectangle boundingBox) {
         KleeHelper.paramRequireNonNull(body, "Body cannot be null!");
         KleeHelper.paramRequireNonNull(boundingBox, "Bounding box cannot be null!");
-        if(boundingBoxes.containsKey(body))return;
-        Rectangle bb = new Rectangle(boundingBox); //copy to own box to avoid errors.
-        boundingBoxes.put(body, bb);
-        addToContainedChunks(body, bb);
+        if(entries.containsKey(body))return;
+        insert(body, boundingBox.x, boundingBox.y, boundingBox.width, boundingBox.height);
     }
 
     @Override
     public void addBody(Body body, float bbX, float bbY, float bbWidth, float bbHeight) {
         KleeHelper.paramRequireNonNull(body, "Body cannot be null!");
-        if(boundingBoxes.containsKey(body))return;
-        Rectangle bb = new Rectangle(bbX,bbY,bbWidth,bbHeight);
-        boundingBoxes.put(body, bb);
-        addToContainedChunks(body, bb);
+        if(entries.containsKey(body))return;
+        insert(body, bbX, bbY, bbWidth, bbHeight);
     }
 
     @Override
     public Rectangle removeBody(Body body) {
         KleeHelper.paramRequireNonNull(body, "Body cannot be null!");
-        if(!contains(body))return null;
-        Rectangle boundingBox = getOriginalBoundingBox(body);
-        removeFromContainedChunks(body, boundingBox);
-        return boundingBox;
+        BodyEntry<Body> entry = entries.get(body);
+        if(entry == null)return null;
+        erase(entry);
+        freeSlots.add(entry.slot);
+        return entry.box;
+    }
+
+    /**
+     * Adds many bodies at once, e.g. when loading a level. Compared to calling
+     * {@link #addBody(ISweptBody, float, float, float, float)} for every body, the chunks are filled in a single pass:
+     * the bodies per chunk are counted first, so every chunk is sized for all of its bodies before it is filled.
+     * Bodies that are already contained in the world are skipped.
+     * @param bodies The bodies to add.
+     * @param boxes The packed bounding boxes of the bodies, four values per body: x, y, width, height.
+     * @return The amount of bodies that were added.
+     */
+    public int addBodies(Body[] bodies, float[] boxes){
+        KleeHelper.paramRequireNonNull(bodies, "Bodies cannot be null!");
+        KleeHelper.paramRequireNonNull(boxes, "Bounding boxes cannot be null!");
+        if(boxes.length < bodies.length * 4L)throw new IllegalArgumentException("Four values (x, y, width, height) are required per body!");
+        for(Body body : bodies)KleeHelper.paramRequireNonNull(body, "Body cannot be null!");
+        Array<BodyEntry<Body>> added = new Array<>(false, bodies.length);
+        Array<Body> addedBodies = new Array<>(false, bodies.length);
+        Array<Rectangle> addedBoxes = new Array<>(false, bodies.length, Rectangle.class);
+        for(int i = 0; i < bodies.length; i++){
+            Body body = bodies[i];
+            if(entries.containsKey(body))continue;
+            boolean freshSlot = freeSlots.size == 0;
+            int slot = freshSlot ? nextSlot++ : freeSlots.pop();
+            int offset = i * 4;
+            BodyEntry<Body> entry = new BodyEntry<>(body, slot, new Rectangle(boxes[offset], boxes[offset + 1], boxes[offset + 2], boxes[offset + 3]));
+            attach(entry, false);
+            if(journal.isRecording())journal.recordAdd(entry, freshSlot);
+            added.add(entry);
+            addedBodies.add(body);
+            addedBoxes.add(entry.chunkBox);
+        }
+        addToContainedChunks(addedBodies, addedBoxes);
+        //the contacts can only be found once all bodies are in their chunks
+        if(sensorCount > 0){
+            for(BodyEntry<Body> entry : added)sensors.update(entry, true);
+        }
+        return added.size;
+    }
+
+    /**
+     * Removes many bodies at once. Bodies that aren't contained in the world are skipped.
+     * The bodies are taken out of the world one by one, only their chunks are updated in a single pass afterwards
+     * (see {@link #addBodies(ISweptBody[], float[])}).
+     * @param bodies The bodies to remove.
+     * @return The amount of bodies that were removed.
+     */
+    public int removeBodies(Body[] bodies){
+        KleeHelper.paramRequireNonNull(bodies, "Bodies cannot be null!");
+        for(Body body : bodies)KleeHelper.paramRequireNonNull(body, "Body cannot be null!");
+        Array<Body> removedBodies = new Array<>(false, bodies.length);
+        Array<Rectangle> removedBoxes = new Array<>(false, bodies.length, Rectangle.class);
+        for(Body body : bodies){
+            BodyEntry<Body> entry = entries.get(body);
+            if(entry == null)continue;
+            erase(entry, false);
+            freeSlots.add(entry.slot);
+            removedBodies.add(body);
+            removedBoxes.add(entry.chunkBox);
+        }
+        removeFromContainedChunks(removedBodies, removedBoxes);
+        return removedBodies.size;
     }
 
     @Override
     public boolean contains(Body body) {
-        return boundingBoxes.containsKey(body);
+        return entries.containsKey(body);
     }
 
     /**
@@ -98,13 +179,24 @@ public class SimpleCollisionWorld<Body extends ISweptBody> extends AbstractChunk
         return copyTo.set(getOriginalBoundingBox(body));
     }
 
+    /**
+     * Retrieves the handle of a body, which is unique among all bodies that are currently contained in the world.
+     * Handles of removed bodies are reused for bodies added later on.
+     * @param body The body to get the handle for.
+     * @return The handle of the body.
+     */
+    public int getHandle(Body body){
+        validateAABB(body);
+        return entries.get(body).slot;
+    }
+
     /**
      * Doesn't make a copy of the actual bounding box.
      * @param body The AABB to get the original bounding box for.
      * @return The original bounding box.
      */
     private Rectangle getOriginalBoundingBox(Body body){
-        return boundingBoxes.get(body);
+        return entries.get(body).box;
     }
 
     private void validateAABB(Body body){
@@ -115,18 +207,12 @@ public class SimpleCollisionWorld<Body extends ISweptBody> extends AbstractChunk
     @Override
     public void forceUpdate(Body body, float goalX, float goalY, float width, float height){
         validateAABB(body);
-        Rectangle boundingBox = getOriginalBoundingBox(body);
+        BodyEntry<Body> entry = entries.get(body);
+        Rectangle boundingBox = entry.box;
         //return if the AABB didn't move or change size
         if(goalX == boundingBox.x && goalY == boundingBox.y && width == boundingBox.width && height == boundingBox.height)return;
-        _goalRect.set(goalX,goalY,width,height);
-        _moveArea.set(boundingBox).merge(_goalRect);
-        boolean needChunkChange = !containedInOneChunk(_moveArea); //only if moved out of chunk a change is necessary
-        //remove from all chunks
-        if(needChunkChange)removeFromContainedChunks(body, boundingBox);
-        //change size & location
-        boundingBox.set(goalX, goalY, width, height);
-        //add new to all chunks
-        if(needChunkChange)addToContainedChunks(body, boundingBox);
+        if(journal.isRecording())journal.recordMove(entry);
+        relocate(entry, goalX, goalY, width, height);
     }
     @Override
     public void forceUpdate(Body body, float goalX, float goalY){
@@ -135,25 +221,247 @@ public class SimpleCollisionWorld<Body extends ISweptBody> extends AbstractChunk
         forceUpdate(body,goalX,goalY,boundingBox.width,boundingBox.height);
     }
 
-    //temporary fields which can be reused for less object heap.
-    private final Rectangle _moveArea = new Rectangle();
-    private final Rectangle _goalRect = new Rectangle();
-    private final Vector2 _displacement = new Vector2();
-    private final BytePair _normal = new BytePair();
-    private final Rectangle _sum = new Rectangle();
-    private final FloatWrap _hitTime = new FloatWrap(0f);
-    private final Vector2 _rayHit = new Vector2();
-    private final HashSet<Body> _alreadyLooped = new HashSet<>(8);
-    private final ArrayList<CollisionResponse.Collision> copyList = new ArrayList<>();
-    private final Polygon _correctMoveArea = new Polygon(new float[6 * 2]);
-    private final Polygon _chunkPol = new Polygon(new float[4 * 2]);
+    /**
+     * Creates the entry of a new body, assigns it a slot and puts it into the world.
+     */
+    private BodyEntry<Body> insert(Body body, float x, float y, float width, float height){
+        boolean freshSlot = freeSlots.size == 0;
+        int slot = freshSlot ? nextSlot++ : freeSlots.pop();
+        BodyEntry<Body> entry = new BodyEntry<>(body, slot, new Rectangle(x, y, width, height));
+        attach(entry);
+        if(journal.isRecording())journal.recordAdd(entry, freshSlot);
+        return entry;
+    }
+
+    /**
+     * Takes the entry of a body out of the world.
+     * Note: The slot of the entry is not released by this method.
+     */
+    private void erase(BodyEntry<Body> entry){
+        erase(entry, true);
+    }
+
+    /**
+     * @param fromChunks Whether the entry is removed from its chunks, otherwise the caller has to do it.
+     */
+    private void erase(BodyEntry<Body> entry, boolean fromChunks){
+        if(journal.isRecording())journal.recordRemove(entry);
+        detach(entry, fromChunks);
+    }
+
+    /**
+     * Puts an entry into the world and adds it to all chunks it takes space in.
+     */
+    private void attach(BodyEntry<Body> entry){
+        attach(entry, true);
+    }
+
+    /**
+     * @param intoChunks Whether the entry is added to its chunks, otherwise the caller has to do it and has to update
+     *                   the sensor contacts of the entry afterwards.
+     */
+    private void attach(BodyEntry<Body> entry, boolean intoChunks){
+        entries.put(entry.body, entry);
+        if(chunkMargin > 0)entry.chunkBox = fatten(entry.box, new Rectangle());
+        if(intoChunks)addToContainedChunks(entry.body, entry.chunkBox);
+        if(chunkBounds != null)chunkBounds.add(entry.box);
+        if(simulateCache != null)simulateCache.mark(entry.chunkBox);
+        if(changeFeed != null)changeFeed.record(ChangeFeed.ADDED, entry.body, entry.slot, entry.box);
+        if(entry.sensor)sensorCount++;
+        if(intoChunks && sensorCount > 0)sensors.update(entry);
+    }
+
+    /**
+     * Removes an entry from the world and from all chunks it takes space in.
+     */
+    private void detach(BodyEntry<Body> entry){
+        detach(entry, true);
+    }
+
+    /**
+     * @param fromChunks Whether the entry is removed from its chunks, otherwise the caller has to do it.
+     */
+    private void detach(BodyEntry<Body> entry, boolean fromChunks){
+        sensors.clear(entry);
+        if(entry.sensor)sensorCount--;
+        entries.remove(entry.body);
+        if(fromChunks)removeFromContainedChunks(entry.body, entry.chunkBox);
+        if(chunkBounds != null)chunkBounds.remove(entry.box);
+        if(simulateCache != null)simulateCache.mark(entry.chunkBox);
+        if(changeFeed != null)changeFeed.record(ChangeFeed.REMOVED, entry.body, entry.slot, entry.box);
+    }
+
+    /**
+     * Moves and/or resizes the bounding box of an entry and updates the chunks it is contained in.
+     */
+    private void relocate(BodyEntry<Body> entry, float goalX, float goalY, float width, float height){
+        SimulationContext ctx = context();
+        Rectangle boundingBox = entry.box;
+        Rectangle chunkBox = entry.chunkBox;
+        float chunkFromX = chunkBox.x, chunkFromY = chunkBox.y, chunkFromWidth = chunkBox.width, chunkFromHeight = chunkBox.height;
+        ctx.goalRect.set(goalX,goalY,width,height);
+        boolean needChunkChange;
+        Rectangle chunkGoal;
+        if(chunkMargin == 0){
+            ctx.moveArea.set(boundingBox).merge(ctx.goalRect);
+            needChunkChange = !containedInOneChunk(ctx.moveArea); //only if moved out of chunk a change is necessary
+            chunkGoal = ctx.goalRect;
+        }else{
+            //the chunks are only changed once the box escapes the enlarged box they are based on
+            needChunkChange = !entry.chunkBox.contains(ctx.goalRect);
+            chunkGoal = fatten(ctx.goalRect, ctx.moveArea);
+        }
+        ctx.chunkChanged |= needChunkChange;
+        if(needChunkChange){
+            Object event = WorldEvents.CHUNK_CHANGE.begin();
+            long oldChunks = event != null ? countChunks(entry.chunkBox) : 0;
+            //only the chunks that are left or entered are changed
+            int changed = moveBetweenChunks(entry.body, entry.chunkBox, chunkGoal);
+            if(event != null)WorldEvents.CHUNK_CHANGE.commit(event, oldChunks, countChunks(chunkGoal), changed);
+            if(entry.chunkBox != boundingBox)entry.chunkBox.set(chunkGoal);
+        }
+        if(chunkBounds != null)chunkBounds.move(boundingBox, ctx.goalRect);
+        float fromX = boundingBox.x, fromY = boundingBox.y, fromWidth = boundingBox.width, fromHeight = boundingBox.height;
+        boolean resized = width != fromWidth || height != fromHeight;
+        //change size & location
+        boundingBox.set(goalX, goalY, width, height);
+        //the chunks before and after the change are marked at once, so chunks in both are only visited once
+        if(simulateCache != null)simulateCache.mark(chunkFromX, chunkFromY, chunkFromWidth, chunkFromHeight, chunkBox);
+        if(changeFeed != null)changeFeed.record(resized ? ChangeFeed.RESIZED : ChangeFeed.MOVED, entry.body, entry.slot, fromX, fromY, fromWidth, fromHeight, boundingBox);
+        if(sensorCount > 0)sensors.update(entry);
+    }
+
+    private Rectangle fatten(Rectangle box, Rectangle writeTo){
+        return writeTo.set(box.x - chunkMargin, box.y - chunkMargin, box.width + chunkMargin * 2, box.height + chunkMargin * 2);
+    }
+
+    private long countChunks(Rectangle rectangle){
+        long columns = KleeHelper.chunkFloor((rectangle.x + rectangle.width) * invChunkSize) - KleeHelper.chunkFloor(rectangle.x * invChunkSize) + 1L;
+        long rows = KleeHelper.chunkFloor((rectangle.y + rectangle.height) * invChunkSize) - KleeHelper.chunkFloor(rectangle.y * invChunkSize) + 1L;
+        return columns * rows;
+    }
+
+    /**
+     * Opens a new checkpoint. While at least one checkpoint is open, the world records every change done to it
+     * so that it can be restored with {@link #rollback(int)}. The cost of a rollback only depends on the number of
+     * bodies that were added, removed or changed since the checkpoint, not on the size of the world.
+     * Checkpoints that are no longer needed should be released with {@link #releaseCheckpoint(int)}.
+     * @return The id of the checkpoint.
+     */
+    public int checkpoint(){
+        return journal.checkpoint();
+    }
+
+    /**
+     * Restores the state the world had when the specified checkpoint was created. All bodies get back their exact
+     * bounding boxes and slots, therefore re-simulating from there yields bit-identical results.
+     * The checkpoint stays open (so it can be rolled back to again), all newer checkpoints are discarded.
+     * @param checkpoint The id of the checkpoint to roll back to.
+     * @throws IllegalArgumentException If the checkpoint is not open.
+     */
+    public void rollback(int checkpoint){
+        int mark = journal.requireMark(checkpoint);
+        for(int i = journal.size() - 1; i >= mark; i--){
+            BodyEntry<Body> entry = journal.entry(i);
+            //a body that was removed and restored in between has a new entry, so the live one is used
+            BodyEntry<Body> live = entries.get(entry.body);
+            switch (journal.op(i)){
+                case WorldJournal.OP_MOVE:
+                    relocate(live, journal.x(i), journal.y(i), journal.width(i), journal.height(i));
+                    restoreChunkBox(live, journal.chunkBox(i, context().moveArea));
+                    break;
+                case WorldJournal.OP_ADD:
+                case WorldJournal.OP_ADD_FRESH:
+                    detach(live);
+                    if(journal.op(i) == WorldJournal.OP_ADD)freeSlots.add(live.slot);
+                    else nextSlot--;
+                    break;
+                case WorldJournal.OP_REMOVE:
+                    //the removal pushed the slot onto the free stack, it is the top element again at this point
+                    if(freeSlots.peek() == entry.slot)freeSlots.pop();
+                    else freeSlots.removeValue(entry.slot);
+                    //the old box was handed out by removeBody(), so a new one is created
+                    BodyEntry<Body> restored = new BodyEntry<>(entry.body, entry.slot,
+                            new Rectangle(journal.x(i), journal.y(i), journal.width(i), journal.height(i)));
+                    attach(restored);
+                    restoreChunkBox(restored, journal.chunkBox(i, context().moveArea));
+                    break;
+            }
+        }
+        journal.truncate(checkpoint);
+    }
+
+    /**
+     * With a chunk margin, the chunks of a body depend on how it moved (see {@link #setChunkMargin(float)}), so the
+     * box the chunks were based on is restored as well after the bounding box was restored.
+     * @param recorded The recorded box, which is ignored if the margin was changed to 0 in between.
+     */
+    private void restoreChunkBox(BodyEntry<Body> entry, Rectangle recorded){
+        if(chunkMargin == 0 || entry.chunkBox.equals(recorded) || !recorded.contains(entry.box))return;
+        moveBetweenChunks(entry.body, entry.chunkBox, recorded);
+        entry.chunkBox.set(recorded);
+    }
+
+    /**
+     * Releases the specified checkpoint and all checkpoints that were created before it.
+     * If no checkpoint is open afterwards, the world stops recording changes.
+     * @param checkpoint The id of the newest checkpoint to release.
+     */
+    public void releaseCheckpoint(int checkpoint){
+        journal.release(checkpoint);
+    }
+
+    /**
+     * @return Whether the world currently records changes because at least one checkpoint is open.
+     */
+    public boolean hasOpenCheckpoint(){
+        return journal.isRecording();
+    }
+
+    /**
+     * Retrieves the buffer of sensor events (see {@link ISweptBody#isSensor()}). Sensor contacts are only updated
+     * when a body is added, removed or actually moved/resized, and only if the world contains any sensor.
+     * The buffer keeps growing until it is cleared, either by {@link SensorEvents#clear()} or
+     * {@link #dispatchSensorEvents(SensorListener)}.
+     * @return The reusable event buffer of this world.
+     */
+    public SensorEvents<Body> getSensorEvents(){
+        return sensors.events;
+    }
+
+    /**
+     * Passes all buffered sensor events to a listener (in the order they happened) and clears the buffer.
+     * @param listener The listener to notify.
+     */
+    public void dispatchSensorEvents(SensorListener<Body> listener){
+        KleeHelper.paramRequireNonNull(listener, "Listener cannot be null!");
+        sensors.events.dispatch(listener);
+    }
+
+    /**
+     * Retrieves all bodies that currently overlap the specified body, if either of them is a sensor.
+     * @param body The sensor (or body) to get the contacts for.
+     * @param out The array to add the contacts to.
+     * @return The given array.
+     */
+    public Array<Body> getSensorContacts(Body body, Array<Body> out){
+        validateAABB(body);
+        BodyEntry<Body> entry = entries.get(body);
+        if(entry.contacts != null){
+            for(BodyEntry<Body> contact : entry.contacts)out.add(contact.body);
+        }
+        return out;
+    }
 
     @Override
     public CollisionResponse update(Body body, Vector2 displacement, float width, float height, CollisionResponse writeTo) {
+        Object event = WorldEvents.UPDATE.begin();
         //simulate collision to find the best possible spot
         CollisionResponse response = simulate(body,displacement,width,height,writeTo);
         //update the AABB in the world
+        context().chunkChanged = false;
         forceUpdate(body, response.bestGoalX, response.bestGoalY, width, height);
+        if(event != null)WorldEvents.UPDATE.commit(event, response.getCollisions().size(), context().chunkChanged ? 1 : 0);
         return response;
     }
 
@@ -167,107 +475,375 @@ public class SimpleCollisionWorld<Body extends ISweptBody> extends AbstractChunk
     @Override
     public CollisionResponse simulate(Body body, Vector2 displacement, float width, float height, CollisionResponse writeTo) {
         validateAABB(body);
-        if(writeTo == null)writeTo = new CollisionResponse();
+        if(writeTo == null)writeTo = arena != null ? arena.obtainResponse() : new CollisionResponse();
         else writeTo.clear();
         writeTo.body = body;
+        //layers have no modification stamps, so their results can't be cached
+        boolean cached = simulateCache != null && layer == null;
+        float displacementX = displacement == null ? 0 : displacement.x, displacementY = displacement == null ? 0 : displacement.y;
+        if(cached && readCache(body, displacementX, displacementY, width, height, writeTo))return writeTo;
+        long stamp = cached ? simulateCache.getModifications() : 0;
+        SimulationContext ctx = simulate(body, displacement, width, height, writeTo, null);
+        //finally, write the best goal position into the response
+        Rectangle rectangle = getOriginalBoundingBox(body);
+        writeTo.bestGoalX = rectangle.x + ctx.displacement.x;
+        writeTo.bestGoalY = rectangle.y + ctx.displacement.y;
+        writeTo.updatedDisplacementX = ctx.displacement.x;
+        writeTo.updatedDisplacementY = ctx.displacement.y;
+        if(cached){
+            SimulateCache.Entry entry = simulateCache.store(body, displacementX, displacementY, width, height, rectangle, ctx.corridor, stamp);
+            if(entry == null)return writeTo; //the world changed during the simulation
+            entry.bestGoalX = writeTo.bestGoalX;
+            entry.bestGoalY = writeTo.bestGoalY;
+            entry.updatedDisplacementX = writeTo.updatedDisplacementX;
+            entry.updatedDisplacementY = writeTo.updatedDisplacementY;
+            for(CollisionResponse.Collision collision : writeTo.getCollisions())entry.addCollision(collision);
+        }
+        return writeTo;
+    }
+
+    /**
+     * Writes a valid cached result into a response.
+     * @return Whether a valid result was found.
+     */
+    private boolean readCache(Body body, float displacementX, float displacementY, float width, float height, CollisionResponse writeTo){
+        SimulateCache.Entry entry = simulateCache.find(body, displacementX, displacementY, width, height, getOriginalBoundingBox(body));
+        if(entry == null)return false;
+        writeTo.bestGoalX = entry.bestGoalX;
+        writeTo.bestGoalY = entry.bestGoalY;
+        writeTo.updatedDisplacementX = entry.updatedDisplacementX;
+        writeTo.updatedDisplacementY = entry.updatedDisplacementY;
+        for(int i = 0; i < entry.collisionCount; i++){
+            CollisionResponse.Collision collision = entry.collisions.get(i);
+            writeTo.getCollisions().add(obtainCollision().set(collision.target, collision.isOverlapping, collision.normalX,
+                    collision.normalY, collision.hitTime, collision.resolved));
+        }
+        return true;
+    }
+
+    /**
+     * Calculates collisions like {@link #simulate(ISweptBody, Vector2, float, float, CollisionResponse)}, but writes
+     * them into the primitive arrays of a {@link PackedCollisionResponse}. No collision object is pooled, the
+     * collision passed to {@link ISweptBody#resolveCollision(ISweptBody, CollisionResponse.Collision, Vector2)} is a
+     * temporary one which is only valid during the call.
+     * @param body The AABB to simulate for.
+     * @param displacement The displacement of the AABB.
+     * @param width The new simulated width.
+     * @param height The new simulated height.
+     * @param writeTo The response to write into, it is cleared first.
+     * @return The given response.
+     */
+    public PackedCollisionResponse simulatePacked(Body body, Vector2 displacement, float width, float height, PackedCollisionResponse writeTo){
+        validateAABB(body);
+        KleeHelper.paramRequireNonNull(writeTo, "Response cannot be null!");
+        writeTo.clear();
+        writeTo.body = body;
+        SimulationContext ctx = simulate(body, displacement, width, height, null, writeTo);
+        Rectangle rectangle = getOriginalBoundingBox(body);
+        writeTo.bestGoalX = rectangle.x + ctx.displacement.x;
+        writeTo.bestGoalY = rectangle.y + ctx.displacement.y;
+        writeTo.updatedDisplacementX = ctx.displacement.x;
+        writeTo.updatedDisplacementY = ctx.displacement.y;
+        return writeTo;
+    }
+    public PackedCollisionResponse simulatePacked(Body body, Vector2 displacement, PackedCollisionResponse writeTo){
+        validateAABB(body);
+        Rectangle rectangle = getOriginalBoundingBox(body);
+        return simulatePacked(body, displacement, rectangle.width, rectangle.height, writeTo);
+    }
+
+    /**
+     * Like {@link #update(ISweptBody, Vector2, float, float, CollisionResponse)}, but the collisions are written into
+     * a {@link PackedCollisionResponse} (see {@link #simulatePacked(ISweptBody, Vector2, float, float, PackedCollisionResponse)}).
+     */
+    public PackedCollisionResponse updatePacked(Body body, Vector2 displacement, float width, float height, PackedCollisionResponse writeTo){
+        Object event = WorldEvents.UPDATE.begin();
+        PackedCollisionResponse response = simulatePacked(body, displacement, width, height, writeTo);
+        context().chunkChanged = false;
+        forceUpdate(body, response.bestGoalX, response.bestGoalY, width, height);
+        if(event != null)WorldEvents.UPDATE.commit(event, response.size(), context().chunkChanged ? 1 : 0);
+        return response;
+    }
+    public PackedCollisionResponse updatePacked(Body body, Vector2 displacement, PackedCollisionResponse writeTo){
+        validateAABB(body);
+        Rectangle rectangle = getOriginalBoundingBox(body);
+        return updatePacked(body, displacement, rectangle.width, rectangle.height, writeTo);
+    }
+
+    /**
+     * The actual simulation, which writes the collisions either into a response or into a packed response.
+     * @return The context holding the final displacement.
+     */
+    private SimulationContext simulate(Body body, Vector2 displacement, float width, float height,
+                                       CollisionResponse writeTo, PackedCollisionResponse packedWriteTo) {
+        Object event = WorldEvents.SIMULATE.begin();
+        SimulationContext ctx = context();
+        ctx.visitedChunks = ctx.candidates = ctx.retests = 0;
         Rectangle rectangle = getOriginalBoundingBox(body);
         //set the displacement
         if(displacement == null){
-            _displacement.set(0,0);
+            ctx.displacement.set(0,0);
         }else{
-            _displacement.set(displacement);
+            ctx.displacement.set(displacement);
         }
-        Rectangle goalRect = _goalRect.set(rectangle.x + _displacement.x, rectangle.y + _displacement.y,  width, height);
+        Rectangle goalRect = ctx.goalRect.set(rectangle.x + ctx.displacement.x, rectangle.y + ctx.displacement.y,  width, height);
 
         //define the area the rectangle will move in
-        Rectangle holeMovementArea = _moveArea.set(rectangle).merge(goalRect);
-
-        _alreadyLooped.clear();
-        //making the response object final, so it can be used in the lambda statement
-        final CollisionResponse finalizedResponse = writeTo;
-
-        //if we have a diagonal movement and the hole movement isn't only one chunk, find the polygon area.
-        /*
-        Currently, due to a lot of testing issues the polygon part is removed. Maybe it is implemented later
-        when I have more time testing here. This is currently just not worth the benefit. Also, the method
-        Intersector#overlapsConvexPolygon() can be considered relatively expensive and if the library is used
-        correctly (with the correct chunkSize in comparison with shape sizes), this might be more expensive than
-        usefully. The check if a body overlaps the hole movement rectangle should be enough and relatively fast
-        for now.
-        */
-        //boolean needPolygon = (_displacement.x != 0 && _displacement.y != 0) && !containedInOneChunk(holeMovementArea);
-        //if(needPolygon)KleeHelper.createMovementPolygon(rectangle, goalRect, _correctMoveArea);
-
-        //loop chunks in the area from start to goal position
-        forContainingChunk(holeMovementArea, (chunkX, chunkY) -> {
-            Set<Body> bodies = chunkManager.getBodies(chunkX,chunkY);
-            //if chunk is empty or only body is the own, skip the chunk.
-            if(bodies == null || bodies.isEmpty() || (bodies.size() == 1 && bodies.contains(body)))return;
-            /*
-            if(needPolygon){
-                //check if polygon intersect with chunk
-                int minX = chunkX * chunkSize, minY = chunkY * chunkSize;
-                int maxX = minX + chunkSize, maxY = minY + chunkSize;
-                KleeHelper.setPolygonRect(_chunkPol,
-                        minX, minY,
-                        maxX, minY,
-                        maxX, maxY,
-                        minX, maxY);
-                //if the polygon movement area doesn't intersect chunk, skip.
-                if(!Intersector.overlapConvexPolygons(_correctMoveArea, _chunkPol))return;
-            }*/
-            //for all AABBs in the chunk
-            for(Body target : bodies){
-                if(target.equals(body))continue;
-                if(!_alreadyLooped.add(target))continue; //skip if the AABB was already been tested
-                if(!body.checkCollision(target))continue; //skip if calculation isn't wanted
-                Rectangle other = getOriginalBoundingBox(target);
-                if(!_moveArea.overlaps(other))continue; //if the hole area containing the movement doesn't touch the
-                                                        //body, no checks are required -> out of collision range.
-                //now collision gets checked
-                boolean hit = KleeSweptDetection.checkDynamicVsStatic(rectangle, other, _displacement, _normal.setZero(), _sum, _rayHit.setZero(), _hitTime);
-                if(hit)finalizedResponse.getCollisions().add(poolCollisions.obtain().set(target, goalRect.overlaps(other), _normal.x, _normal.y,_hitTime.get(), false));
+        ctx.moveArea.set(rectangle).merge(goalRect);
+
+        int epoch = nextQueryEpoch();
+
+        //loop only the chunks the swept area actually touches, row by row, instead of the hole movement area.
+        //this replaces the former polygon approach (Intersector#overlapsConvexPolygon() per chunk), as the chunk
+        //spans are calculated analytically. Hits are only possible with bodies touching the area the (not resized)
+        //rectangle sweeps over.
+        ctx.sweepGoal.set(rectangle.x + ctx.displacement.x, rectangle.y + ctx.displacement.y, rectangle.width, rectangle.height);
+        SweptCorridor corridor = ctx.corridor.set(rectangle, ctx.sweepGoal, chunkSize);
+        for(int row = 0; row < corridor.getRowCount(); row++){
+            int chunkY = corridor.getChunkY(row);
+            int maxChunkX = corridor.getMaxChunkX(row);
+            //empty chunks are skipped right away if the occupied chunks are tracked
+            for(int chunkX = nextOccupiedChunk(corridor.getMinChunkX(row), chunkY, maxChunkX); chunkX <= maxChunkX;
+                chunkX = nextOccupiedChunk(chunkX + 1, chunkY, maxChunkX)){
+                //a chunk whose members are all outside the movement area is skipped as a whole
+                if(chunkBounds != null && !overlapsChunk(chunkX, chunkY, ctx.moveArea))continue;
+                gatherHits(ctx, epoch, body, rectangle, goalRect, chunkX, chunkY);
             }
-        });
+        }
+        if(layer != null)gatherLayerHits(ctx, body, rectangle, goalRect);
 
-        //sorting collisions if sorting is enabled and there collisions is more than 1
-        if(sort && finalizedResponse.getCollisions().size() > 1){
-            if(sorter.needFullInfo())sorter.set(this,body,_displacement,width,height);
-            finalizedResponse.getCollisions().sort(sorter);
+        //ordering the hits by their primitive sort key; the slot breaks ties, so the outcome doesn't depend on the
+        //iteration order of the chunks (which might differ after a rollback)
+        if(sort && ctx.hits.size() > 1){
+            if(sorter.needFullInfo())sorter.set(this,body,ctx.displacement,width,height);
+            if(!ctx.hits.sortByRank(sorter))ctx.hits.sort(sorter);
+        }else if(journal.isRecording()){
+            ctx.hits.sortById();
         }
 
-        //copy to separate to avoid ConcurrentModificationException
-        if(!finalizedResponse.getCollisions().isEmpty())
-            copyList.addAll(finalizedResponse.getCollisions());
-        //resolving collisions
-        for(CollisionResponse.Collision collision : copyList){
-            Rectangle other = getOriginalBoundingBox((Body) collision.target);
-            boolean isHit = KleeSweptDetection.checkDynamicVsStatic(rectangle, other, _displacement, _normal.setZero(), _sum, _rayHit.setZero(), _hitTime);
-            if(!isHit){ //through ordering there might be collisions that are already "resolved", if so remove them.
-                finalizedResponse.getCollisions().remove(collision);
-                continue;
+        //resolving collisions, hits are only re-tested once the displacement was changed by a resolution
+        float testedX = ctx.displacement.x, testedY = ctx.displacement.y;
+        int resolved = 0;
+        for(int p = 0; p < ctx.hits.size(); p++){
+            int i = ctx.hits.index(p);
+            @SuppressWarnings("unchecked")
+            Body target = (Body) ctx.hits.getTarget(i);
+            byte normalX = ctx.hits.getNormalX(i), normalY = ctx.hits.getNormalY(i);
+            float hitTime = ctx.hits.getHitTime(i);
+            if(ctx.displacement.x != testedX || ctx.displacement.y != testedY){
+                Rectangle other = isLayerHit(ctx.hits.getId(i)) ? layerBox(ctx, ctx.hits.getId(i)) : getOriginalBoundingBox(target);
+                ctx.retests++;
+                boolean isHit = KleeSweptDetection.checkDynamicVsStatic(rectangle, other, ctx.displacement, ctx.normal.setZero(), ctx.sum, ctx.rayHit.setZero(), ctx.hitTime);
+                //through ordering there might be collisions that are already "resolved", these are dropped.
+                if(!isHit)continue;
+                normalX = ctx.normal.x;
+                normalY = ctx.normal.y;
+                hitTime = ctx.hitTime.get();
             }
-            collision.normalX = _normal.x;
-            collision.normalY = _normal.y;
-            collision.hitTime = _hitTime.get();
-            if(body.resolveCollision(collision.target, collision, _displacement)){
-                _displacement.x += collision.normalX * Math.abs(_displacement.x) * (1-collision.hitTime);
-                _displacement.y += collision.normalY * Math.abs(_displacement.y) * (1-collision.hitTime);
+            //only hits that are still valid are written into the response
+            CollisionResponse.Collision collision = writeTo != null ? obtainCollision() : ctx.collision;
+            collision.set(target, ctx.hits.isOverlapping(i), normalX, normalY, hitTime, false);
+            if(writeTo != null)writeTo.getCollisions().add(collision);
+            if(body.resolveCollision(collision.target, collision, ctx.displacement)){
+                ctx.displacement.x += collision.normalX * Math.abs(ctx.displacement.x) * (1-collision.hitTime);
+                ctx.displacement.y += collision.normalY * Math.abs(ctx.displacement.y) * (1-collision.hitTime);
                 //int casting velocity, added for testing but might keep it in a future update
                 //float epsilon = KleeSweptDetection.DELTA;
-                //if(Math.abs(_displacement.x - (int)_displacement.x) < epsilon)_displacement.x = (int)_displacement.x;
-                //if(Math.abs(_displacement.y - (int)_displacement.y) < epsilon)_displacement.y = (int)_displacement.y;
+                //if(Math.abs(ctx.displacement.x - (int)ctx.displacement.x) < epsilon)ctx.displacement.x = (int)ctx.displacement.x;
+                //if(Math.abs(ctx.displacement.y - (int)ctx.displacement.y) < epsilon)ctx.displacement.y = (int)ctx.displacement.y;
                 collision.resolved = true;
+                resolved++;
+            }
+            if(packedWriteTo != null){
+                int handle = isLayerHit(ctx.hits.getId(i)) ? -1 : ctx.hits.getId(i);
+                packedWriteTo.add(target, handle, collision.isOverlapping, collision.normalX, collision.normalY,
+                        collision.hitTime, collision.resolved);
             }
         }
-        if(!copyList.isEmpty())copyList.clear();
+        if(event != null)WorldEvents.SIMULATE.commit(event, ctx.visitedChunks, ctx.candidates, ctx.hits.size(), ctx.retests, resolved);
+        ctx.hits.clear();
+        ctx.collision.reset();
+        if(layer != null){
+            ctx.layerBodies.clear();
+            ctx.layerBoxes.clear();
+        }
+        return ctx;
+    }
 
-        //finally, write the best goal position into the response
-        finalizedResponse.bestGoalX = rectangle.x + _displacement.x;
-        finalizedResponse.bestGoalY = rectangle.y + _displacement.y;
-        finalizedResponse.updatedDisplacementX = _displacement.x;
-        finalizedResponse.updatedDisplacementY = _displacement.y;
-        return finalizedResponse;
+    /**
+     * Tests all bodies of a chunk against the current movement and adds the hits to the hit buffer.
+     */
+    private void gatherHits(SimulationContext ctx, int epoch, Body body, Rectangle rectangle, Rectangle goalRect, int chunkX, int chunkY){
+        Set<Body> bodies = chunkManager.getBodies(chunkX,chunkY);
+        ctx.visitedChunks++;
+        //if chunk is empty or only body is the own, skip the chunk.
+        if(bodies == null || bodies.isEmpty() || (bodies.size() == 1 && bodies.contains(body)))return;
+        //for all AABBs in the chunk
+        for(Body target : bodies){
+            if(target == body)continue;
+            BodyEntry<Body> entry = entries.get(target);
+            if(entry.queryEpoch == epoch)continue; //skip if the AABB was already been tested
+            entry.queryEpoch = epoch;
+            ctx.candidates++;
+            if(entry.sensor)continue; //sensors never block any movement
+            if(!body.checkCollision(target))continue; //skip if calculation isn't wanted
+            Rectangle other = entry.box;
+            if(!ctx.moveArea.overlaps(other))continue; //if the hole area containing the movement doesn't touch the
+                                                    //body, no checks are required -> out of collision range.
+            //now collision gets checked
+            boolean hit = KleeSweptDetection.checkDynamicVsStatic(rectangle, other, ctx.displacement, ctx.normal.setZero(), ctx.sum, ctx.rayHit.setZero(), ctx.hitTime);
+            if(hit)ctx.hits.add(target, entry.slot, goalRect.overlaps(other), ctx.normal.x, ctx.normal.y, ctx.hitTime.get());
+        }
+    }
+
+    /**
+     * Tests all bodies of the layer overlapping the movement area and adds the hits to the hit buffer. The ids of
+     * these hits are the index of the body in the query result combined with {@link #LAYER_ID}, so they never collide
+     * with the slots of the world's bodies and the decoded bounding box can be found again for re-tests.
+     */
+    private void gatherLayerHits(SimulationContext ctx, Body body, Rectangle rectangle, Rectangle goalRect){
+        int count = layer.query(ctx.moveArea, ctx.layerBodies, ctx.layerBoxes);
+        ctx.candidates += count;
+        for(int i = 0; i < count; i++){
+            ISweptBody target = ctx.layerBodies.get(i);
+            if(target == body || !body.checkCollision(target))continue;
+            Rectangle other = layerBox(ctx, LAYER_ID | i);
+            boolean hit = KleeSweptDetection.checkDynamicVsStatic(rectangle, other, ctx.displacement, ctx.normal.setZero(), ctx.sum, ctx.rayHit.setZero(), ctx.hitTime);
+            if(hit)ctx.hits.add(target, LAYER_ID | i, goalRect.overlaps(other), ctx.normal.x, ctx.normal.y, ctx.hitTime.get());
+        }
+    }
+
+    private static boolean isLayerHit(int id){
+        return (id & LAYER_ID) != 0;
+    }
+
+    private static Rectangle layerBox(SimulationContext ctx, int id){
+        int index = (id & ~LAYER_ID) * 4;
+        float[] boxes = ctx.layerBoxes.items;
+        return ctx.layerBox.set(boxes[index], boxes[index + 1], boxes[index + 2], boxes[index + 3]);
+    }
+
+    /**
+     * Finds the body closest to a point, see {@link #kNearest(float, float, float, int, Predicate, Array, FloatArray)}.
+     * @param x The x of the point.
+     * @param y The y of the point.
+     * @param radius The maximum distance between the point and the bounding box of the body.
+     * @param filter Decides which bodies can be found, {@code null} to find all.
+     * @return The closest body, {@code null} if there is none within the radius.
+     */
+    public Body nearest(float x, float y, float radius, Predicate<? super Body> filter){
+        SimulationContext ctx = context();
+        if(searchNearest(ctx.nearest, x, y, radius, 1, filter) == 0)return null;
+        @SuppressWarnings("unchecked")
+        Body nearest = (Body) ctx.nearest.body(0);
+        ctx.nearest.reset(0);
+        return nearest;
+    }
+    public Body nearest(float x, float y, float radius){
+        return nearest(x, y, radius, null);
+    }
+
+    /**
+     * Finds the {@code k} bodies closest to a point. The distance of a body is the distance between the point and the
+     * closest point of its bounding box, so it is {@code 0} for bodies containing the point. Equal distances are ordered
+     * by the handles of the bodies (see {@link #getHandle(ISweptBody)}).
+     * The chunks are searched in rings around the chunk of the point, the search stops as soon as no chunk of the
+     * next ring can contain a body that is closer than the k-th closest one found so far. Apart from growing the
+     * reusable buffers, the query doesn't allocate.
+     * @param x The x of the point.
+     * @param y The y of the point.
+     * @param radius The maximum distance between the point and the bounding box of a body.
+     * @param k The maximum amount of bodies to find.
+     * @param filter Decides which bodies can be found (e.g. to exclude the body searching), {@code null} to find all.
+     * @param out The array the bodies are written into, ordered from the closest to the farthest. It is cleared first.
+     * @param distances The array the distances of the bodies are written into (in the same order), can be {@code null}.
+     *                  It is cleared first.
+     * @return The amount of bodies found.
+     */
+    public int kNearest(float x, float y, float radius, int k, Predicate<? super Body> filter, Array<Body> out, FloatArray distances){
+        KleeHelper.paramRequireNonNull(out, "Output array cannot be null!");
+        SimulationContext ctx = context();
+        int found = searchNearest(ctx.nearest, x, y, radius, k, filter);
+        out.clear();
+        if(distances != null)distances.clear();
+        for(int i = 0; i < found; i++){
+            @SuppressWarnings("unchecked")
+            Body body = (Body) ctx.nearest.body(i);
+            out.add(body);
+            if(distances != null)distances.add((float) Math.sqrt(ctx.nearest.distance(i)));
+        }
+        ctx.nearest.reset(0);
+        return found;
+    }
+    public int kNearest(float x, float y, float radius, int k, Array<Body> out){
+        return kNearest(x, y, radius, k, null, out, null);
+    }
+
+    /**
+     * Fills the heap with the k closest bodies and sorts them.
+     * @return The amount of bodies found.
+     */
+    private int searchNearest(NearestHeap heap, float x, float y, float radius, int k, Predicate<? super Body> filter){
+        if(!(radius >= 0))throw new IllegalArgumentException("The radius has to be >= 0!");
+        if(k < 1)throw new IllegalArgumentException("k cannot be smaller than 1!");
+        //no more bodies than the world contains can be found, so a huge k doesn't size the heap for it
+        heap.reset(Math.min(k, entries.size()));
+        int epoch = nextQueryEpoch();
+        float radiusSquared = radius * radius;
+        int centerX = KleeHelper.chunkFloor(x * invChunkSize), centerY = KleeHelper.chunkFloor(y * invChunkSize);
+        int total = entries.size(), visited = 0;
+        for(int ring = 0; visited < total; ring++){
+            if(ring > 0){
+                //the smallest distance between the point and any chunk of the ring: the distance to the border of
+                //the square formed by the previous rings
+                float ringDistance = Math.min(Math.min(x - (float) (centerX - ring + 1) * chunkSize, (float) (centerX + ring) * chunkSize - x),
+                        Math.min(y - (float) (centerY - ring + 1) * chunkSize, (float) (centerY + ring) * chunkSize - y));
+                ringDistance = Math.max(ringDistance, 0);
+                if(ringDistance > radius)break;
+                if(heap.isFull() && ringDistance * ringDistance > heap.farthest())break;
+            }
+            if(ring == 0){
+                visited += visitNearest(heap, epoch, x, y, radiusSquared, filter, centerX, centerY);
+                continue;
+            }
+            //the bottom and top row of the ring
+            int minX = centerX - ring, maxX = centerX + ring;
+            for(int side = -ring; side <= ring; side += ring << 1){
+                int chunkY = centerY + side;
+                for(int chunkX = nextOccupiedChunk(minX, chunkY, maxX); chunkX <= maxX; chunkX = nextOccupiedChunk(chunkX + 1, chunkY, maxX)){
+                    visited += visitNearest(heap, epoch, x, y, radiusSquared, filter, chunkX, chunkY);
+                }
+            }
+            //the left and right column of the ring, without the corners
+            for(int chunkY = centerY - ring + 1; chunkY < centerY + ring; chunkY++){
+                visited += visitNearest(heap, epoch, x, y, radiusSquared, filter, minX, chunkY);
+                visited += visitNearest(heap, epoch, x, y, radiusSquared, filter, maxX, chunkY);
+            }
+        }
+        return heap.sort();
+    }
+
+    /**
+     * Offers all bodies of a chunk that weren't visited by the query yet to the heap.
+     * @return The amount of bodies that weren't visited before.
+     */
+    private int visitNearest(NearestHeap heap, int epoch, float x, float y, float radiusSquared, Predicate<? super Body> filter,
+                             int chunkX, int chunkY){
+        if(occupancy != null && !occupancy.isOccupied(chunkX, chunkY))return 0;
+        int visited = 0;
+        for(Body target : chunkManager.getBodies(chunkX, chunkY)){
+            BodyEntry<Body> entry = entries.get(target);
+            if(entry.queryEpoch == epoch)continue;
+            entry.queryEpoch = epoch;
+            visited++;
+            if(filter != null && !filter.test(target))continue;
+            Rectangle box = entry.box;
+            float dx = Math.max(Math.max(box.x - x, x - (box.x + box.width)), 0);
+            float dy = Math.max(Math.max(box.y - y, y - (box.y + box.height)), 0);
+            float distanceSquared = dx * dx + dy * dy;
+            if(distanceSquared <= radiusSquared)heap.offer(target, entry.slot, distanceSquared);
+        }
+        return visited;
     }
 
     @Override
@@ -283,6 +859,7 @@ public class SimpleCollisionWorld<Body extends ISweptBody> extends AbstractChunk
      */
     public void setSorter(CollisionSorter<Body> sorter) {
         this.sorter = sorter;
+        clearSimulateCache();
     }
 
     /**
@@ -292,6 +869,7 @@ public class SimpleCollisionWorld<Body extends ISweptBody> extends AbstractChunk
      */
     public void setSort(boolean enabled) {
         this.sort = enabled;
+        clearSimulateCache();
     }
 
     /**
@@ -299,11 +877,187 @@ public class SimpleCollisionWorld<Body extends ISweptBody> extends AbstractChunk
      */
     public void setDefaultSorter() {
         this.sorter = CollisionSorter.buildSmallestTimeOrVelocity();
+        clearSimulateCache();
+    }
+
+    /**
+     * Enables or disables the arena mode. In arena mode, all responses (if no response object is passed) and all
+     * collisions created by this world come from an arena and are released all at once by {@link #endTick()}.
+     * Freeing them is therefore not necessary (and ignored), but they must not be used after the tick ended.
+     * Disabling the arena mode ends the current tick.
+     * @param enabled Whether the arena mode should be enabled.
+     */
+    public void setArenaMode(boolean enabled){
+        if(enabled == (arena != null))return;
+        if(enabled){
+            arena = new CollisionArena();
+        }else{
+            arena.reset();
+            arena = null;
+        }
+    }
+
+    public boolean isArenaMode(){
+        return arena != null;
+    }
+
+    /**
+     * Enables or disables the chunk bounds. With chunk bounds, the world keeps an aggregate bounding box and the member
+     * count of every chunk, so queries can skip chunks whose members are all outside the searched area without
+     * iterating them. This pays off most with large chunk sizes, where many bodies share a chunk but only a few are
+     * near a movement. Keeping the bounds costs a little on every add, remove and move.
+     * @param enabled Whether the chunk bounds should be kept.
+     */
+    public void setChunkBoundsEnabled(boolean enabled){
+        if(enabled == (chunkBounds != null))return;
+        if(enabled){
+            chunkBounds = new ChunkBounds(invChunkSize);
+            for(BodyEntry<Body> entry : entries.values())chunkBounds.add(entry.box);
+        }else{
+            chunkBounds = null;
+        }
+    }
+
+    public boolean isChunkBoundsEnabled(){
+        return chunkBounds != null;
+    }
+
+    /**
+     * Enables or disables tracking the occupied chunks. The world then keeps a hierarchical bitmap of all chunks that
+     * contain bodies (see {@link ChunkOccupancy}), so simulations and area queries skip empty chunks with bit scans
+     * instead of looking up every chunk in the chunk manager. This pays off in sparse worlds and for long movements,
+     * keeping the bitmap costs an additional chunk lookup whenever a body leaves a chunk.
+     * @param enabled Whether the occupied chunks should be tracked.
+     */
+    public void setOccupancyEnabled(boolean enabled){
+        if(enabled == (occupancy != null))return;
+        if(enabled){
+            ChunkOccupancy occupancy = new ChunkOccupancy();
+            for(BodyEntry<Body> entry : entries.values())forContainingChunk(entry.chunkBox, occupancy::set);
+            this.occupancy = occupancy;
+        }else{
+            occupancy = null;
+        }
+    }
+
+    public boolean isOccupancyEnabled(){
+        return occupancy != null;
+    }
+
+    /**
+     * Sets the chunk margin. With a margin, the chunks of a body are based on its bounding box enlarged by the margin
+     * on every side, and are only changed once the actual bounding box leaves that enlarged box. Bodies that move back
+     * and forth around a chunk border (e.g. idle jittering) therefore stop changing their chunks all the time.
+     * All collision tests still use the actual bounding boxes, a body is only part of some more chunks.
+     * Changing the margin changes the chunks of all bodies.
+     * @param margin The margin, {@code 0} (default) to base the chunks on the actual bounding boxes.
+     */
+    public void setChunkMargin(float margin){
+        if(!(margin >= 0) || Float.isInfinite(margin))throw new IllegalArgumentException("The chunk margin has to be a finite number >= 0!");
+        if(margin == chunkMargin)return;
+        chunkMargin = margin;
+        for(BodyEntry<Body> entry : entries.values()){
+            Rectangle chunkBox = margin > 0 ? fatten(entry.box, new Rectangle()) : entry.box;
+            moveBetweenChunks(entry.body, entry.chunkBox, chunkBox);
+            entry.chunkBox = chunkBox;
+        }
+        clearSimulateCache();
+    }
+
+    public float getChunkMargin(){
+        return chunkMargin;
+    }
+
+    /**
+     * Attaches a layer of static bodies (e.g. a {@link CompactBodyLayer}). Simulations collide with the bodies of the
+     * layer like with static bodies of the world, other queries (e.g. {@link #nearest(float, float, float)}), the
+     * sensors and the solvers only see the bodies of the world. The layer is not part of checkpoints.
+     * A body must never be part of the world and the layer at the same time.
+     * @param layer The layer, {@code null} to detach the current one.
+     */
+    public void setLayer(IBodyLayer<Body> layer){
+        this.layer = layer;
+        //results calculated before the layer was changed would miss its bodies (or still contain the old ones)
+        clearSimulateCache();
+    }
+
+    public IBodyLayer<Body> getLayer(){
+        return layer;
+    }
+
+    /**
+     * Sets the size of the simulate cache. With a cache, the results of
+     * {@link #simulate(ISweptBody, Vector2, float, float, CollisionResponse)} (and therefore of the updates) are kept
+     * per body, displacement and simulated size, so asking for the same movement again (e.g. once per system that
+     * needs it) only copies the result. A result is valid as long as no body was added, removed, moved or resized in
+     * any chunk the movement went through and the body itself didn't move. Once the cache is full, the least
+     * recently used result is replaced.
+     * Note: For a cached result, {@link ISweptBody#checkCollision(ISweptBody)} and
+     * {@link ISweptBody#resolveCollision(ISweptBody, CollisionResponse.Collision, Vector2)} are not called again, so
+     * they must not depend on anything else than the bodies involved, otherwise the cache has to be cleared when
+     * their outcome changes (see {@link #clearSimulateCache()}). Results are never cached while a layer is attached.
+     * @param size The maximum amount of cached results, {@code 0} (default) to disable the cache.
+     */
+    public void setSimulateCacheSize(int size){
+        if(size < 0)throw new IllegalArgumentException("The size of the simulate cache cannot be negative!");
+        if(size == getSimulateCacheSize())return;
+        simulateCache = size > 0 ? new SimulateCache(invChunkSize, size) : null;
+    }
+
+    public int getSimulateCacheSize(){
+        return simulateCache != null ? simulateCache.getCapacity() : 0;
+    }
+
+    /**
+     * Removes all results from the simulate cache, see {@link #setSimulateCacheSize(int)}.
+     */
+    public void clearSimulateCache(){
+        if(simulateCache != null)simulateCache.clear();
+    }
+
+    /**
+     * Sets the capacity of the change feed, which records every body that is added, removed, moved or resized (see
+     * {@link ChangeFeed}), e.g. to only send the changes since the last network update instead of every body.
+     * Changing the capacity creates a new feed, so all consumers have to resynchronise.
+     * @param capacity The amount of changes the feed keeps (rounded up to a power of two), {@code 0} (default) to
+     *                 disable the feed.
+     */
+    public void setChangeFeedCapacity(int capacity){
+        if(capacity < 0 || capacity > 1 << 28)throw new IllegalArgumentException("The capacity of the change feed has to be between 0 and " + (1 << 28) + "!");
+        changeFeed = capacity > 0 ? new ChangeFeed<>(invChunkSize, capacity) : null;
+    }
+
+    /**
+     * @return The change feed, {@code null} if it is disabled (see {@link #setChangeFeedCapacity(int)}).
+     */
+    public ChangeFeed<Body> getChangeFeed(){
+        return changeFeed;
+    }
+
+    /**
+     * Tests whether any member of a chunk can overlap an area, recalculating the bounds of the chunk if necessary.
+     */
+    private boolean overlapsChunk(int chunkX, int chunkY, Rectangle area){
+        ChunkBounds.Bounds bounds = chunkBounds.get(chunkX, chunkY);
+        if(bounds == null)return false;
+        if(bounds.isDirty()){
+            bounds.reset();
+            for(Body member : chunkManager.getBodies(chunkX, chunkY))bounds.merge(entries.get(member).box);
+        }
+        return bounds.overlaps(area);
+    }
+
+    /**
+     * Releases all responses and collisions that were created since the last call in arena mode, so they can be
+     * reused for the next tick. Does nothing if the arena mode is disabled.
+     */
+    public void endTick(){
+        if(arena != null)arena.reset();
     }
 
     /**
      * Frees the given response object by freeing all collision objects and then clearing the response object.
-     * This method should be called after any collision checks have been done.
+     * This method should be called after any collision checks have been done (unless the arena mode is enabled).
      * @param response The response object to free.
      */
     public void free(CollisionResponse response){
@@ -318,7 +1072,100 @@ public class SimpleCollisionWorld<Body extends ISweptBody> extends AbstractChunk
      * @param collision The collision to free.
      */
     public void free(CollisionResponse.Collision collision){
-        poolCollisions.free(collision);
+        if(arena != null)return; //released by endTick()
+        context().collisions.free(collision);
+    }
+
+    /*
+    Package-private access for the solvers working on top of this world.
+    */
+
+    BodyEntry<Body> requireEntry(Body body){
+        validateAABB(body);
+        return entries.get(body);
+    }
+
+    CollisionResponse.Collision obtainCollision(){
+        return arena != null ? arena.obtainCollision() : context().collisions.obtain();
+    }
+
+    /**
+     * Binds a context from outside which is used instead of the own one, until it is unbound with {@code null}.
+     */
+    void bindContext(SimulationContext context){
+        this.boundContext = context;
+    }
+
+    /**
+     * @return The bound context or the own one, which is created the first time it is needed. The own context is
+     * never shared, so callbacks of a simulation (e.g. {@link ISweptBody#resolveCollision}) can safely query other
+     * worlds.
+     */
+    private SimulationContext context(){
+        if(boundContext != null)return boundContext;
+        if(ownContext == null)ownContext = new SimulationContext();
+        return ownContext;
+    }
+
+    /**
+     * Adds a body with a slot that is managed from outside (see {@link ShardedCollisionWorld}).
+     * The change is not recorded by open checkpoints.
+     */
+    void addExternal(Body body, int slot, float x, float y, float width, float height){
+        attach(new BodyEntry<>(body, slot, new Rectangle(x, y, width, height)));
+    }
+
+    /**
+     * Removes a body that was added by {@link #addExternal(ISweptBody, int, float, float, float, float)}.
+     */
+    void removeExternal(Body body){
+        BodyEntry<Body> entry = entries.get(body);
+        if(entry != null)detach(entry);
+    }
+
+    /**
+     * Collects the entries of all bodies whose bounding box overlaps the given area (each entry only once).
+     * @param area The area to search in.
+     * @param out The array the entries are added to.
+     */
+    void collectEntries(Rectangle area, Array<BodyEntry<Body>> out){
+        int epoch = nextQueryEpoch();
+        if(occupancy == null){
+            forContainingChunk(area, (chunkX, chunkY) -> collectEntries(epoch, area, chunkX, chunkY, out));
+            return;
+        }
+        //the occupied chunks can only be searched row by row
+        int minX = KleeHelper.chunkFloor(area.x * invChunkSize), maxX = KleeHelper.chunkFloor((area.x + area.width) * invChunkSize);
+        int minY = KleeHelper.chunkFloor(area.y * invChunkSize), maxY = KleeHelper.chunkFloor((area.y + area.height) * invChunkSize);
+        for(int chunkY = minY; chunkY <= maxY; chunkY++){
+            for(int chunkX = nextOccupiedChunk(minX, chunkY, maxX); chunkX <= maxX; chunkX = nextOccupiedChunk(chunkX + 1, chunkY, maxX)){
+                collectEntries(epoch, area, chunkX, chunkY, out);
+            }
+        }
+    }
+
+    private void collectEntries(int epoch, Rectangle area, int chunkX, int chunkY, Array<BodyEntry<Body>> out){
+        if(chunkBounds != null && !overlapsChunk(chunkX, chunkY, area))return;
+        for(Body target : chunkManager.getBodies(chunkX, chunkY)){
+            BodyEntry<Body> entry = entries.get(target);
+            if(entry.queryEpoch == epoch)continue;
+            entry.queryEpoch = epoch;
+            if(area.overlaps(entry.box))out.add(entry);
+        }
+    }
+
+    /**
+     * Starts a new query. Every query that visits bodies of several chunks stamps the entries it visited with its
+     * epoch, so a body contained in several chunks is only visited once, without any set of visited bodies.
+     * @return The epoch of the new query.
+     */
+    private int nextQueryEpoch(){
+        if(++queryEpoch == 0){
+            //the epochs wrapped around, old stamps could be mistaken for new ones
+            for(BodyEntry<Body> entry : entries.values())entry.queryEpoch = 0;
+            queryEpoch = 1;
+        }
+        return queryEpoch;
     }
 
 
@@ -0,0 +1,294 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.LongMap;
+import com.github.kleesup.kleeswept.KleeHelper;
+import com.github.kleesup.kleeswept.world.chunk.SweptCorridor;
+
+/**
+ * A bounded cache of simulation results of a {@link SimpleCollisionWorld} (see
+ * {@link SimpleCollisionWorld#setSimulateCacheSize(int)}), keyed on the body, the displacement and the simulated size.
+ * <p>
+ * Every result is registered in all chunks of its swept corridor. A change of a body drops all results registered in
+ * the chunks it takes space in, so the cache only holds valid results and only keeps track of the chunks these
+ * results went through (and no removed body stays referenced). A result that was calculated while the world changed
+ * (e.g. by a body resolving a collision) is not stored at all, which is detected through a running modification
+ * counter. The least recently used result is replaced once the cache is full.
+ * </p>
+ * The class is NOT Thread-Safe!
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.1
+ * @since 1.2
+ */
+final class SimulateCache {
+
+    private final float invChunkSize;
+    private final int capacity;
+    private final Entry[] buckets;
+    //the results registered per chunk
+    private final LongMap<Array<Entry>> chunks = new LongMap<>();
+    private long modifications;
+    private int size;
+    //most recently used entry first
+    private Entry head, tail;
+
+    SimulateCache(float invChunkSize, int capacity) {
+        this.invChunkSize = invChunkSize;
+        this.capacity = capacity;
+        this.buckets = new Entry[Integer.highestOneBit(Math.max(capacity, 1) * 2 - 1) << 1];
+    }
+
+    /**
+     * Drops all results registered in the chunks a box takes space in.
+     */
+    void mark(Rectangle box){
+        modifications++;
+        if(chunks.size == 0)return;
+        int minX = chunkOf(box.x), maxX = chunkOf(box.x + box.width);
+        int minY = chunkOf(box.y), maxY = chunkOf(box.y + box.height);
+        dropRange(minX, maxX, minY, maxY, 1, 0, 1, 0);
+    }
+
+    /**
+     * Drops all results registered in the chunks a box took space in before or takes space in after a change,
+     * chunks covered by both are only visited once.
+     * @param to The box after the change.
+     */
+    void mark(float fromX, float fromY, float fromWidth, float fromHeight, Rectangle to){
+        modifications++;
+        if(chunks.size == 0)return;
+        int fromMinX = chunkOf(fromX), fromMaxX = chunkOf(fromX + fromWidth);
+        int fromMinY = chunkOf(fromY), fromMaxY = chunkOf(fromY + fromHeight);
+        dropRange(fromMinX, fromMaxX, fromMinY, fromMaxY, 1, 0, 1, 0);
+        dropRange(chunkOf(to.x), chunkOf(to.x + to.width), chunkOf(to.y), chunkOf(to.y + to.height),
+                fromMinX, fromMaxX, fromMinY, fromMaxY);
+    }
+
+    /**
+     * Drops the results of all chunks of a range, except the ones inside an excluded range.
+     */
+    private void dropRange(int minX, int maxX, int minY, int maxY, int excludedMinX, int excludedMaxX, int excludedMinY, int excludedMaxY){
+        if((long) (maxX - minX + 1) * (maxY - minY + 1) > chunks.size){
+            //a huge box contains more chunk coordinates than there are chunks with results
+            _keys.clear();
+            for(LongMap.Entry<Array<Entry>> chunk : chunks.entries())_keys.add(chunk.key);
+            for(int i = 0; i < _keys.size; i++){
+                long key = _keys.get(i);
+                int x = (int) key, y = (int) (key >>> 32);
+                if(x < minX || x > maxX || y < minY || y > maxY)continue;
+                if(x >= excludedMinX && x <= excludedMaxX && y >= excludedMinY && y <= excludedMaxY)continue;
+                drop(key);
+            }
+            return;
+        }
+        for(int x = minX; x <= maxX; x++){
+            for(int y = minY; y <= maxY; y++){
+                if(x >= excludedMinX && x <= excludedMaxX && y >= excludedMinY && y <= excludedMaxY)continue;
+                drop(KleeHelper.pairLong(x, y));
+            }
+        }
+    }
+
+    private void drop(long key){
+        Array<Entry> registered = chunks.get(key);
+        //removing an entry unregisters it, the array is removed together with the last one
+        while(registered != null && registered.size > 0)remove(registered.peek());
+    }
+
+    private int chunkOf(float value){
+        return KleeHelper.chunkFloor(value * invChunkSize);
+    }
+
+    /**
+     * Looks up a result.
+     * @param box The current bounding box of the body.
+     * @return The result, {@code null} if there is none.
+     */
+    Entry find(Object body, float displacementX, float displacementY, float width, float height, Rectangle box){
+        int hash = hash(body, displacementX, displacementY, width, height);
+        Entry entry = buckets[hash & (buckets.length - 1)];
+        while(entry != null && !entry.matches(hash, body, displacementX, displacementY, width, height))entry = entry.nextInBucket;
+        if(entry == null)return null;
+        //the chunks of the body are part of the corridor, so a moved body has no results anymore
+        if(box.x != entry.boxX || box.y != entry.boxY || box.width != entry.boxWidth || box.height != entry.boxHeight){
+            remove(entry);
+            return null;
+        }
+        unlink(entry);
+        linkFirst(entry);
+        return entry;
+    }
+
+    /**
+     * Creates a new entry for a result that was just calculated, replacing the least recently used one if the cache
+     * is full. The result has to be written into the entry by the caller.
+     * Note: Results that were calculated while the world changed are not stored.
+     * @param box The bounding box of the body the result was calculated with.
+     * @param corridor The corridor of chunks the simulation went through.
+     * @param stamp The modification counter from before the simulation (see {@link #getModifications()}), so changes
+     *              done during the simulation (e.g. by a body resolving a collision) are detected.
+     * @return The entry, {@code null} if the result cannot be stored.
+     */
+    Entry store(Object body, float displacementX, float displacementY, float width, float height, Rectangle box,
+                SweptCorridor corridor, long stamp){
+        if(stamp != modifications)return null;
+        int hash = hash(body, displacementX, displacementY, width, height);
+        Entry entry = buckets[hash & (buckets.length - 1)];
+        while(entry != null && !entry.matches(hash, body, displacementX, displacementY, width, height))entry = entry.nextInBucket;
+        if(entry != null)remove(entry);
+        if(size == capacity){
+            entry = tail;
+            remove(entry);
+        }else{
+            entry = new Entry();
+        }
+        entry.hash = hash;
+        entry.body = body;
+        entry.displacementX = displacementX;
+        entry.displacementY = displacementY;
+        entry.width = width;
+        entry.height = height;
+        entry.boxX = box.x;
+        entry.boxY = box.y;
+        entry.boxWidth = box.width;
+        entry.boxHeight = box.height;
+        for(int row = 0; row < corridor.getRowCount(); row++){
+            int chunkY = corridor.getChunkY(row), maxChunkX = corridor.getMaxChunkX(row);
+            entry.rows.add(chunkY, corridor.getMinChunkX(row), maxChunkX);
+            for(int chunkX = corridor.getMinChunkX(row); chunkX <= maxChunkX; chunkX++){
+                long key = KleeHelper.pairLong(chunkX, chunkY);
+                Array<Entry> registered = chunks.get(key);
+                if(registered == null)chunks.put(key, registered = new Array<>(false, 4));
+                registered.add(entry);
+            }
+        }
+        int bucket = hash & (buckets.length - 1);
+        entry.nextInBucket = buckets[bucket];
+        buckets[bucket] = entry;
+        linkFirst(entry);
+        size++;
+        return entry;
+    }
+
+    /**
+     * Removes all results.
+     */
+    void clear(){
+        while(head != null)remove(head);
+    }
+
+    private void remove(Entry entry){
+        int bucket = entry.hash & (buckets.length - 1);
+        if(buckets[bucket] == entry){
+            buckets[bucket] = entry.nextInBucket;
+        }else{
+            Entry previous = buckets[bucket];
+            while(previous.nextInBucket != entry)previous = previous.nextInBucket;
+            previous.nextInBucket = entry.nextInBucket;
+        }
+        unlink(entry);
+        //unregistering the entry from the chunks of its corridor
+        IntArray rows = entry.rows;
+        for(int r = 0; r < rows.size; r += 3){
+            int chunkY = rows.items[r];
+            for(int chunkX = rows.items[r + 1]; chunkX <= rows.items[r + 2]; chunkX++){
+                long key = KleeHelper.pairLong(chunkX, chunkY);
+                Array<Entry> registered = chunks.get(key);
+                registered.removeValue(entry, true);
+                if(registered.size == 0)chunks.remove(key);
+            }
+        }
+        entry.reset();
+        size--;
+    }
+
+    private void linkFirst(Entry entry){
+        entry.next = head;
+        if(head != null)head.previous = entry;
+        head = entry;
+        if(tail == null)tail = entry;
+    }
+
+    private void unlink(Entry entry){
+        if(entry.previous != null)entry.previous.next = entry.next;
+        else head = entry.next;
+        if(entry.next != null)entry.next.previous = entry.previous;
+        else tail = entry.previous;
+        entry.previous = entry.next = null;
+    }
+
+    private static int hash(Object body, float displacementX, float displacementY, float width, float height){
+        int hash = System.identityHashCode(body);
+        hash = hash * 31 + Float.floatToIntBits(displacementX);
+        hash = hash * 31 + Float.floatToIntBits(displacementY);
+        hash = hash * 31 + Float.floatToIntBits(width);
+        hash = hash * 31 + Float.floatToIntBits(height);
+        return hash ^ hash >>> 16;
+    }
+
+    int size(){
+        return size;
+    }
+
+    long getModifications(){
+        return modifications;
+    }
+
+    int getCapacity(){
+        return capacity;
+    }
+
+    /**
+     * @return The amount of chunks results are registered in.
+     */
+    int getChunkCount(){
+        return chunks.size;
+    }
+
+    //temporary fields which can be reused for less object heap.
+    private final LongArray _keys = new LongArray();
+
+    /**
+     * A cached result. The collisions are owned by the entry and have to be copied when the result is used.
+     */
+    static final class Entry {
+        private int hash;
+        private Object body;
+        private float displacementX, displacementY, width, height;
+        private float boxX, boxY, boxWidth, boxHeight;
+        //the rows of the corridor: chunk-y, min chunk-x, max chunk-x
+        private final IntArray rows = new IntArray();
+        private Entry nextInBucket, previous, next;
+
+        float bestGoalX, bestGoalY, updatedDisplacementX, updatedDisplacementY;
+        final Array<CollisionResponse.Collision> collisions = new Array<>();
+        int collisionCount;
+
+        private boolean matches(int hash, Object body, float displacementX, float displacementY, float width, float height){
+            return this.hash == hash && this.body == body && this.displacementX == displacementX
+                    && this.displacementY == displacementY && this.width == width && this.height == height;
+        }
+
+        /**
+         * Stores a copy of a collision.
+         */
+        void addCollision(CollisionResponse.Collision collision){
+            if(collisionCount == collisions.size)collisions.add(new CollisionResponse.Collision());
+            collisions.get(collisionCount++).set(collision.target, collision.isOverlapping, collision.normalX,
+                    collision.normalY, collision.hitTime, collision.resolved);
+        }
+
+        private void reset(){
+            body = null;
+            rows.clear();
+            for(int i = 0; i < collisionCount; i++)collisions.get(i).reset();
+            collisionCount = 0;
+            nextInBucket = null;
+        }
+    }
+
+}
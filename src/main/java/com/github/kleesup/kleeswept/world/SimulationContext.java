@@ -0,0 +1,60 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.Pool;
+import com.github.kleesup.kleeswept.util.BytePair;
+import com.github.kleesup.kleeswept.util.FloatWrap;
+import com.github.kleesup.kleeswept.util.HitBuffer;
+import com.github.kleesup.kleeswept.world.body.ISweptBody;
+import com.github.kleesup.kleeswept.world.chunk.SweptCorridor;
+
+/**
+ * The temporary fields and the collision pool a {@link SimpleCollisionWorld} needs while simulating.
+ * A world creates its own context the first time it needs one, unless a context is bound to it from outside
+ * (see {@link WorldScheduler}). As a context only holds state during a single call, one context can be shared by
+ * any amount of worlds, as long as they are not used by different threads at the same time and none of them is
+ * used from within a call of another one (e.g. by a collision callback).
+ * The class is NOT Thread-Safe!
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.6
+ * @since 1.2
+ */
+public final class SimulationContext {
+
+    final Pool<CollisionResponse.Collision> collisions = new Pool<CollisionResponse.Collision>() {
+        @Override
+        protected CollisionResponse.Collision newObject() {
+            return new CollisionResponse.Collision();
+        }
+    };
+
+    //temporary fields which can be reused for less object heap.
+    final Rectangle moveArea = new Rectangle();
+    final Rectangle goalRect = new Rectangle();
+    final Vector2 displacement = new Vector2();
+    final BytePair normal = new BytePair();
+    final Rectangle sum = new Rectangle();
+    final FloatWrap hitTime = new FloatWrap(0f);
+    final Vector2 rayHit = new Vector2();
+    final HitBuffer hits = new HitBuffer();
+    final Rectangle sweepGoal = new Rectangle();
+    final SweptCorridor corridor = new SweptCorridor();
+    final CollisionResponse.Collision collision = new CollisionResponse.Collision();
+    final NearestHeap nearest = new NearestHeap();
+    final Array<ISweptBody> layerBodies = new Array<>();
+    final FloatArray layerBoxes = new FloatArray();
+    final Rectangle layerBox = new Rectangle();
+
+    //counters of the current call, reported to the flight recorder (see WorldEvents)
+    int visitedChunks, candidates, retests;
+    boolean chunkChanged;
+
+    public SimulationContext() {
+        collisions.fill(5);
+    }
+
+}
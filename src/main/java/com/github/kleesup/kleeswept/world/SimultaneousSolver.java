@@ -0,0 +1,671 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.github.kleesup.kleeswept.KleeHelper;
+import com.github.kleesup.kleeswept.KleeSweptDetection;
+import com.github.kleesup.kleeswept.util.BytePair;
+import com.github.kleesup.kleeswept.util.FloatWrap;
+import com.github.kleesup.kleeswept.world.body.ISweptBody;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * A step mode for {@link SimpleCollisionWorld} which moves all queued bodies at the same time instead of one after
+ * another. Unlike {@link SimpleCollisionWorld#update(ISweptBody, Vector2)}, moving bodies are not treated as static:
+ * the time of impact between two moving bodies is calculated with their relative displacement.
+ * <p>
+ * All times of impact are put into an event queue and processed in time order. When a body resolves a collision,
+ * its displacement along the hit normal is cut back to the contact (or to the displacement of the body it runs into,
+ * if that one moves away in the same direction) while the tangential part is kept, just like the world does it.
+ * Every event of a body whose displacement changed is recomputed, until the queue is empty.
+ * The outcome doesn't depend on the order in which the bodies were queued.
+ * </p>
+ * The broadphase only considers bodies overlapping the swept area (start and goal box merged) of a moving body,
+ * pairs of moving bodies are found by sweeping over these areas along the x-axis.
+ * <p>
+ * The pairs partition the movers into islands (using union-find): bodies of different islands can't touch each other
+ * in this step, so every island has its own event queue. If an executor is set (see
+ * {@link #setExecutor(ExecutorService, int)}), the islands are resolved in parallel, in that case
+ * {@link ISweptBody#resolveCollision} may be called from multiple threads at once, but never for two bodies of the same
+ * island. The world itself is only accessed by the calling thread. As an island never sees the events of another one,
+ * the outcome is the same for any amount of threads.
+ * </p>
+ * The class is NOT Thread-Safe!
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.3
+ * @since 1.2
+ */
+public class SimultaneousSolver<Body extends ISweptBody> {
+
+    private final SimpleCollisionWorld<Body> world;
+
+    //queued moves
+    private final Array<Body> queuedBodies = new Array<>();
+    private float[] queuedMoves = new float[32];
+
+    //state of the current step, all indexed by mover
+    private final Array<BodyEntry<Body>> movers = new Array<>();
+    private float[] boxes = new float[64];       //start box (x, y, width, height)
+    private float[] moves = new float[32];       //current displacement (x, y)
+    private float[] originalMoves = new float[32];
+    private int[] versions = new int[16];
+    private final Array<CollisionResponse> responses = new Array<>();
+
+    //broadphase results
+    private final Array<BodyEntry<Body>> statics = new Array<>();
+    private int[] staticStart = new int[17];
+    private int[] pairs = new int[32];           //pairs of mover indices (a, b)
+    private int pairCount;
+    private int[] adjacency = new int[32];       //pair indices per mover
+    private int[] adjacencyStart = new int[17];
+    private int[] adjacencyFill = new int[16];
+    private long[] sweepKeys = new long[16];
+
+    //islands, the movers of every island are stored in ascending order
+    private int[] parents = new int[16];
+    private int[] islandOf = new int[16];
+    private int[] islandFill = new int[16];
+    private int[] islandMembers = new int[16];
+    private int[] islandStart = new int[17];
+    private int islandCount;
+
+    //workers resolving the islands, the first one is used if the islands are resolved on the calling thread
+    private final Array<IslandWorker> workers = new Array<>();
+    private final List<IslandWorker> tasks = new ArrayList<>();
+    private ExecutorService executor;
+    private int parallelism = 1;
+
+    /**
+     * The maximum amount of events that are processed per moving body in one step. Outdated events (computed with a
+     * displacement that changed in the meantime) are skipped without counting. If the limit is reached, the
+     * remaining events of the island are dropped and its bodies keep the displacement they have at that point.
+     */
+    private int maxEventsPerBody = 32;
+
+    //temporary fields which can be reused for less object heap.
+    private final Array<BodyEntry<Body>> _found = new Array<>();
+    private final Rectangle _area = new Rectangle();
+    private final Rectangle _first = new Rectangle();
+    private final Rectangle _second = new Rectangle();
+
+    public SimultaneousSolver(SimpleCollisionWorld<Body> world) {
+        KleeHelper.paramRequireNonNull(world, "World cannot be null!");
+        this.world = world;
+    }
+
+    /**
+     * Queues a displacement for a body. Queuing the same body multiple times adds the displacements up.
+     * @param body The body to move.
+     * @param displacementX The x-displacement.
+     * @param displacementY The y-displacement.
+     */
+    public void move(Body body, float displacementX, float displacementY){
+        KleeHelper.paramRequireNonNull(body, "Body cannot be null!");
+        int index = queuedBodies.size;
+        if(index * 2 == queuedMoves.length)queuedMoves = Arrays.copyOf(queuedMoves, index * 4);
+        queuedBodies.add(body);
+        queuedMoves[index * 2] = displacementX;
+        queuedMoves[index * 2 + 1] = displacementY;
+    }
+    public void move(Body body, Vector2 displacement){
+        move(body, displacement.x, displacement.y);
+    }
+
+    /**
+     * Moves all queued bodies simultaneously and clears the queue.
+     * The responses of the previous step are freed into the world.
+     * @return The amount of bodies that were moved. Their responses can be retrieved with {@link #getResponse(int)}.
+     */
+    public int step(){
+        freeResponses();
+        boolean applied = false;
+        try{
+            prepare();
+            broadphase();
+            buildIslands();
+            resolveIslands();
+            apply();
+            applied = true;
+        }finally{
+            //collisions of the stock must never be freed into the world
+            if(!applied)for(int i = 0; i < movers.size; i++)responses.get(i).getCollisions().clear();
+            releaseStock();
+            for(BodyEntry<Body> entry : movers)entry.solverIndex = -1;
+            queuedBodies.clear();
+            statics.clear();
+            pairCount = 0;
+        }
+        return movers.size;
+    }
+
+    /**
+     * Retrieves the response of a body moved in the last step. Responses stay valid until the next step.
+     * @param index The index of the body (in order of the first time it was queued).
+     * @return The response of the body.
+     */
+    public CollisionResponse getResponse(int index){
+        return responses.get(index);
+    }
+
+    /**
+     * @return The amount of bodies moved in the last step.
+     */
+    public int size(){
+        return movers.size;
+    }
+
+    /**
+     * @return The amount of islands the bodies of the last step were split into.
+     */
+    public int getIslandCount() {
+        return islandCount;
+    }
+
+    /**
+     * Sets the executor the islands of a step are resolved on. The result of a step doesn't depend on the executor or
+     * the parallelism.
+     * @param executor The executor, {@code null} to resolve all islands on the calling thread.
+     * @param parallelism The amount of threads of the executor, the islands are split into this many tasks.
+     */
+    public void setExecutor(ExecutorService executor, int parallelism) {
+        if(parallelism < 1)throw new IllegalArgumentException("The parallelism cannot be smaller than 1!");
+        this.executor = executor;
+        this.parallelism = executor != null ? parallelism : 1;
+    }
+
+    public void setMaxEventsPerBody(int maxEventsPerBody) {
+        if(maxEventsPerBody < 1)throw new IllegalArgumentException("The maximum amount of events cannot be smaller than 1!");
+        this.maxEventsPerBody = maxEventsPerBody;
+    }
+
+    private void freeResponses(){
+        for(int i = 0; i < movers.size; i++)world.free(responses.get(i));
+        movers.clear();
+    }
+
+    /**
+     * Looks up the entries of all queued bodies and merges displacements of bodies that were queued multiple times.
+     */
+    private void prepare(){
+        for(int q = 0; q < queuedBodies.size; q++){
+            BodyEntry<Body> entry = world.requireEntry(queuedBodies.get(q));
+            float x = queuedMoves[q * 2], y = queuedMoves[q * 2 + 1];
+            if(entry.solverIndex >= 0){
+                moves[entry.solverIndex * 2] += x;
+                moves[entry.solverIndex * 2 + 1] += y;
+                continue;
+            }
+            int i = movers.size;
+            ensureMoverCapacity(i + 1);
+            entry.solverIndex = i;
+            movers.add(entry);
+            Rectangle box = entry.box;
+            boxes[i * 4] = box.x;
+            boxes[i * 4 + 1] = box.y;
+            boxes[i * 4 + 2] = box.width;
+            boxes[i * 4 + 3] = box.height;
+            moves[i * 2] = x;
+            moves[i * 2 + 1] = y;
+            versions[i] = 0;
+            if(responses.size == i)responses.add(new CollisionResponse());
+            responses.get(i).body = entry.body;
+        }
+        System.arraycopy(moves, 0, originalMoves, 0, movers.size * 2);
+    }
+
+    private void ensureMoverCapacity(int count){
+        if(count <= versions.length)return;
+        int capacity = Math.max(count, versions.length << 1);
+        boxes = Arrays.copyOf(boxes, capacity * 4);
+        moves = Arrays.copyOf(moves, capacity * 2);
+        originalMoves = Arrays.copyOf(originalMoves, capacity * 2);
+        versions = Arrays.copyOf(versions, capacity);
+        sweepKeys = Arrays.copyOf(sweepKeys, capacity);
+        staticStart = Arrays.copyOf(staticStart, capacity + 1);
+        adjacencyStart = Arrays.copyOf(adjacencyStart, capacity + 1);
+        adjacencyFill = Arrays.copyOf(adjacencyFill, capacity);
+        parents = Arrays.copyOf(parents, capacity);
+        islandOf = Arrays.copyOf(islandOf, capacity);
+        islandFill = Arrays.copyOf(islandFill, capacity);
+        islandMembers = Arrays.copyOf(islandMembers, capacity);
+        islandStart = Arrays.copyOf(islandStart, capacity + 1);
+    }
+
+    private Rectangle box(int i, Rectangle out){
+        return out.set(boxes[i * 4], boxes[i * 4 + 1], boxes[i * 4 + 2], boxes[i * 4 + 3]);
+    }
+
+    private Rectangle sweptArea(int i, Rectangle out){
+        float x = boxes[i * 4], y = boxes[i * 4 + 1], w = boxes[i * 4 + 2], h = boxes[i * 4 + 3];
+        float dx = moves[i * 2], dy = moves[i * 2 + 1];
+        return out.set(Math.min(x, x + dx), Math.min(y, y + dy), w + Math.abs(dx), h + Math.abs(dy));
+    }
+
+    /**
+     * Finds the static candidates of every mover through the chunks of the world and all pairs of movers whose swept
+     * areas overlap. As displacements only shrink during a step, these candidates stay a superset.
+     */
+    private void broadphase(){
+        int n = movers.size;
+        //static candidates
+        for(int i = 0; i < n; i++){
+            staticStart[i] = statics.size;
+            Body body = movers.get(i).body;
+            _found.clear();
+            world.collectEntries(sweptArea(i, _area), _found);
+            for(BodyEntry<Body> other : _found){
+                if(other.solverIndex >= 0)continue; //movers are handled as pairs
+                if(other.sensor)continue; //sensors never block any movement
+                if(!body.checkCollision(other.body))continue;
+                statics.add(other);
+            }
+        }
+        staticStart[n] = statics.size;
+        _found.clear();
+
+        //sweep and prune over the swept areas along the x-axis
+        for(int i = 0; i < n; i++){
+            int bits = Float.floatToIntBits(sweptArea(i, _area).x);
+            bits ^= (bits >> 31) & 0x7FFFFFFF;
+            sweepKeys[i] = ((long) bits << 32) | i;
+        }
+        Arrays.sort(sweepKeys, 0, n);
+        pairCount = 0;
+        for(int s = 0; s < n; s++){
+            int a = (int) sweepKeys[s];
+            sweptArea(a, _first);
+            float maxX = _first.x + _first.width;
+            for(int t = s + 1; t < n; t++){
+                int b = (int) sweepKeys[t];
+                sweptArea(b, _second);
+                if(_second.x > maxX)break;
+                if(!_first.overlaps(_second))continue;
+                if(!blocks(movers.get(a), movers.get(b)) && !blocks(movers.get(b), movers.get(a)))continue;
+                if(pairCount * 2 == pairs.length)pairs = Arrays.copyOf(pairs, pairs.length << 1);
+                //pairs are ordered by slot instead of by mover, so the queue order can't change how they are tested
+                boolean ordered = movers.get(a).slot < movers.get(b).slot;
+                pairs[pairCount * 2] = ordered ? a : b;
+                pairs[pairCount * 2 + 1] = ordered ? b : a;
+                pairCount++;
+            }
+        }
+
+        //pairs per mover
+        Arrays.fill(adjacencyStart, 0, n + 1, 0);
+        for(int p = 0; p < pairCount * 2; p++)adjacencyStart[pairs[p] + 1]++;
+        for(int i = 0; i < n; i++){
+            adjacencyStart[i + 1] += adjacencyStart[i];
+            adjacencyFill[i] = adjacencyStart[i];
+        }
+        if(adjacency.length < pairCount * 2)adjacency = new int[pairCount * 2];
+        for(int p = 0; p < pairCount; p++){
+            adjacency[adjacencyFill[pairs[p * 2]]++] = p;
+            adjacency[adjacencyFill[pairs[p * 2 + 1]]++] = p;
+        }
+    }
+
+    /**
+     * @return Whether the movement of a mover can be blocked by another mover.
+     */
+    private boolean blocks(BodyEntry<Body> mover, BodyEntry<Body> other){
+        return !other.sensor && mover.body.checkCollision(other.body);
+    }
+
+    /**
+     * Joins all movers connected by pairs into islands. The roots are always the smallest mover of their island, so
+     * the islands are ordered by their first mover.
+     */
+    private void buildIslands(){
+        int n = movers.size;
+        for(int i = 0; i < n; i++)parents[i] = i;
+        for(int p = 0; p < pairCount; p++){
+            int rootA = find(pairs[p * 2]), rootB = find(pairs[p * 2 + 1]);
+            if(rootA < rootB)parents[rootB] = rootA;
+            else if(rootB < rootA)parents[rootA] = rootB;
+        }
+        islandCount = 0;
+        Arrays.fill(islandStart, 0, n + 1, 0);
+        for(int i = 0; i < n; i++){
+            int root = find(i);
+            //roots are never bigger than their members, so the island of the root is already known
+            islandOf[i] = root == i ? islandCount++ : islandOf[root];
+            islandStart[islandOf[i] + 1]++;
+        }
+        for(int k = 0; k < islandCount; k++){
+            islandStart[k + 1] += islandStart[k];
+            islandFill[k] = islandStart[k];
+        }
+        for(int i = 0; i < n; i++)islandMembers[islandFill[islandOf[i]]++] = i;
+    }
+
+    private int find(int i){
+        while(parents[i] != i){
+            parents[i] = parents[parents[i]]; //path halving
+            i = parents[i];
+        }
+        return i;
+    }
+
+    /**
+     * Splits the islands into consecutive ranges of about the same amount of movers and resolves them.
+     */
+    private void resolveIslands(){
+        int taskCount = Math.min(islandCount, parallelism);
+        while(workers.size < Math.max(taskCount, 1))workers.add(new IslandWorker());
+        int target = Math.max(1, movers.size / Math.max(taskCount, 1));
+        int used = 0, start = 0;
+        for(int k = 0; k < islandCount; k++){
+            boolean last = k == islandCount - 1;
+            //the last worker takes all remaining islands
+            if(!last && (islandStart[k + 1] - islandStart[start] < target || used == taskCount - 1))continue;
+            IslandWorker worker = workers.get(used++);
+            worker.firstIsland = start;
+            worker.lastIsland = k + 1;
+            start = k + 1;
+        }
+        try{
+            if(used <= 1 || executor == null){
+                for(int w = 0; w < used; w++)workers.get(w).call();
+                return;
+            }
+            for(int w = 0; w < used; w++)tasks.add(workers.get(w));
+            for(Future<Void> future : executor.invokeAll(tasks))future.get();
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while resolving the islands!", e);
+        }catch (ExecutionException e){
+            Throwable cause = e.getCause();
+            if(cause instanceof RuntimeException)throw (RuntimeException) cause;
+            if(cause instanceof Error)throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }finally{
+            tasks.clear();
+        }
+    }
+
+    /**
+     * Moves all bodies in the world to their final positions and fills the responses.
+     */
+    private void apply(){
+        for(int i = 0; i < movers.size; i++){
+            BodyEntry<Body> entry = movers.get(i);
+            CollisionResponse response = responses.get(i);
+            response.updatedDisplacementX = moves[i * 2];
+            response.updatedDisplacementY = moves[i * 2 + 1];
+            response.bestGoalX = boxes[i * 4] + moves[i * 2];
+            response.bestGoalY = boxes[i * 4 + 1] + moves[i * 2 + 1];
+            List<CollisionResponse.Collision> collisions = response.getCollisions();
+            for(int c = 0; c < collisions.size(); c++){
+                CollisionResponse.Collision own = collisions.get(c);
+                collisions.set(c, world.obtainCollision().set(own.target, own.isOverlapping, own.normalX, own.normalY, own.hitTime, own.resolved));
+            }
+            world.forceUpdate(entry.body, response.bestGoalX, response.bestGoalY);
+        }
+    }
+
+    private void releaseStock(){
+        for(IslandWorker worker : workers){
+            for(int c = 0; c < worker.usedStock; c++)worker.stock.get(c).reset();
+            worker.usedStock = 0;
+        }
+    }
+
+    /**
+     * Cuts the displacement back along the hit normal if the body is moving towards the other one. If the other body
+     * moves away in the same direction, it is followed after the contact.
+     */
+    private static void contact(Vector2 move, float otherX, float otherY, byte normalX, byte normalY, float time){
+        if(normalX != 0 && move.x * -normalX > 0){
+            move.x = move.x * time + (otherX * -normalX > 0 ? otherX * (1 - time) : 0);
+        }
+        if(normalY != 0 && move.y * -normalY > 0){
+            move.y = move.y * time + (otherY * -normalY > 0 ? otherY * (1 - time) : 0);
+        }
+    }
+
+    /**
+     * Resolves a range of islands with its own event queue. Collisions are taken from an own stock, as the pool of
+     * the world can only be used by the calling thread, and are replaced by pooled ones in {@link #apply()}.
+     */
+    private final class IslandWorker implements Callable<Void> {
+        int firstIsland, lastIsland;
+
+        //event queue (binary min-heap)
+        private float[] eventTimes = new float[64];
+        private int[] eventA = new int[64], eventB = new int[64];
+        private int[] eventVersionA = new int[64], eventVersionB = new int[64];
+        private byte[] eventNormals = new byte[128];
+        private int eventCount;
+
+        private final Array<CollisionResponse.Collision> stock = new Array<>();
+        private int usedStock;
+
+        //temporary fields which can be reused for less object heap.
+        private final Rectangle _first = new Rectangle();
+        private final Rectangle _second = new Rectangle();
+        private final Rectangle _sum = new Rectangle();
+        private final Vector2 _move = new Vector2();
+        private final Vector2 _rayHit = new Vector2();
+        private final BytePair _normal = new BytePair();
+        private final FloatWrap _hitTime = new FloatWrap(0f);
+
+        @Override
+        public Void call() {
+            for(int island = firstIsland; island < lastIsland; island++)resolve(island);
+            return null;
+        }
+
+        private CollisionResponse.Collision obtainCollision(){
+            if(usedStock == stock.size)stock.add(new CollisionResponse.Collision());
+            return stock.get(usedStock++);
+        }
+
+        /**
+         * Computes the events of a mover against its static candidates and pushes them into the queue.
+         */
+        private void pushStaticEvents(int i){
+            box(i, _first);
+            _move.set(moves[i * 2], moves[i * 2 + 1]);
+            for(int s = staticStart[i]; s < staticStart[i + 1]; s++){
+                if(!KleeSweptDetection.checkDynamicVsStatic(_first, statics.get(s).box, _move, _normal.setZero(), _sum, _rayHit.setZero(), _hitTime))continue;
+                push(_hitTime.get(), i, -1 - s, _normal);
+            }
+        }
+
+        /**
+         * Computes the event of a pair of movers with their relative displacement and pushes it into the queue.
+         * The pair is always tested from the body with the lower slot, so the normal belongs to the other one.
+         */
+        private void pushPairEvent(int p){
+            int a = pairs[p * 2], b = pairs[p * 2 + 1];
+            box(a, _first);
+            box(b, _second);
+            _move.set(moves[a * 2] - moves[b * 2], moves[a * 2 + 1] - moves[b * 2 + 1]);
+            if(!KleeSweptDetection.checkDynamicVsStatic(_first, _second, _move, _normal.setZero(), _sum, _rayHit.setZero(), _hitTime))return;
+            push(_hitTime.get(), a, b, _normal);
+        }
+
+        /**
+         * Pushes all events of an island and processes them in time order.
+         */
+        private void resolve(int island){
+            int start = islandStart[island], end = islandStart[island + 1];
+            for(int m = start; m < end; m++){
+                int i = islandMembers[m];
+                pushStaticEvents(i);
+                //every pair is pushed once, from its first mover
+                for(int k = adjacencyStart[i]; k < adjacencyStart[i + 1]; k++){
+                    if(pairs[adjacency[k] * 2] == i)pushPairEvent(adjacency[k]);
+                }
+            }
+            int budget = maxEventsPerBody * (end - start);
+            while (eventCount > 0 && budget > 0){
+                float time = eventTimes[0];
+                int a = eventA[0], b = eventB[0];
+                int versionA = eventVersionA[0], versionB = eventVersionB[0];
+                byte normalX = eventNormals[0], normalY = eventNormals[1];
+                pop();
+                //skip events that were computed with a displacement that changed in the meantime
+                if(versions[a] != versionA || (b >= 0 && versions[b] != versionB))continue;
+                budget--;
+                if(b < 0){
+                    resolveStatic(a, statics.get(-1 - b), normalX, normalY, time);
+                }else{
+                    resolvePair(a, b, normalX, normalY, time);
+                }
+            }
+            eventCount = 0;
+        }
+
+        private void resolveStatic(int i, BodyEntry<Body> target, byte normalX, byte normalY, float time){
+            BodyEntry<Body> mover = movers.get(i);
+            box(i, _first).setPosition(_first.x + originalMoves[i * 2], _first.y + originalMoves[i * 2 + 1]);
+            CollisionResponse.Collision collision = record(i, target.body, _first.overlaps(target.box), normalX, normalY, time);
+            _move.set(moves[i * 2], moves[i * 2 + 1]);
+            if(!mover.body.resolveCollision(target.body, collision, _move))return;
+            collision.resolved = true;
+            _move.x += normalX * Math.abs(_move.x) * (1 - time);
+            _move.y += normalY * Math.abs(_move.y) * (1 - time);
+            changeMove(i, _move.x, _move.y);
+        }
+
+        private void resolvePair(int a, int b, byte normalX, byte normalY, float time){
+            BodyEntry<Body> first = movers.get(a), second = movers.get(b);
+            box(a, _first).setPosition(_first.x + originalMoves[a * 2], _first.y + originalMoves[a * 2 + 1]);
+            box(b, _second).setPosition(_second.x + originalMoves[b * 2], _second.y + originalMoves[b * 2 + 1]);
+            boolean overlap = _first.overlaps(_second);
+            float ax = moves[a * 2], ay = moves[a * 2 + 1];
+            float bx = moves[b * 2], by = moves[b * 2 + 1];
+            //both sides are calculated from the displacements before the event
+            if(blocks(first, second)){
+                CollisionResponse.Collision collision = record(a, second.body, overlap, normalX, normalY, time);
+                _move.set(ax, ay);
+                if(first.body.resolveCollision(second.body, collision, _move)){
+                    collision.resolved = true;
+                    contact(_move, bx, by, normalX, normalY, time);
+                    changeMove(a, _move.x, _move.y);
+                }
+            }
+            if(blocks(second, first)){
+                byte reversedX = (byte) -normalX, reversedY = (byte) -normalY;
+                CollisionResponse.Collision collision = record(b, first.body, overlap, reversedX, reversedY, time);
+                _move.set(bx, by);
+                if(second.body.resolveCollision(first.body, collision, _move)){
+                    collision.resolved = true;
+                    contact(_move, ax, ay, reversedX, reversedY, time);
+                    changeMove(b, _move.x, _move.y);
+                }
+            }
+        }
+
+        private void changeMove(int i, float x, float y){
+            if(moves[i * 2] == x && moves[i * 2 + 1] == y)return;
+            moves[i * 2] = x;
+            moves[i * 2 + 1] = y;
+            versions[i]++;
+            pushStaticEvents(i);
+            for(int k = adjacencyStart[i]; k < adjacencyStart[i + 1]; k++)pushPairEvent(adjacency[k]);
+        }
+
+        /**
+         * Writes a collision into the response of a mover. If the mover already has a collision with the target,
+         * that one is updated instead.
+         */
+        private CollisionResponse.Collision record(int i, ISweptBody target, boolean overlap, byte normalX, byte normalY, float time){
+            for(CollisionResponse.Collision collision : responses.get(i).getCollisions()){
+                if(collision.target == target)return collision.set(target, overlap, normalX, normalY, time, false);
+            }
+            CollisionResponse.Collision collision = obtainCollision().set(target, overlap, normalX, normalY, time, false);
+            responses.get(i).getCollisions().add(collision);
+            return collision;
+        }
+
+        /*
+        Event queue
+        */
+
+        private void push(float time, int a, int b, BytePair normal){
+            if(eventCount == eventTimes.length){
+                int capacity = eventCount << 1;
+                eventTimes = Arrays.copyOf(eventTimes, capacity);
+                eventA = Arrays.copyOf(eventA, capacity);
+                eventB = Arrays.copyOf(eventB, capacity);
+                eventVersionA = Arrays.copyOf(eventVersionA, capacity);
+                eventVersionB = Arrays.copyOf(eventVersionB, capacity);
+                eventNormals = Arrays.copyOf(eventNormals, capacity * 2);
+            }
+            int i = eventCount++;
+            eventTimes[i] = time;
+            eventA[i] = a;
+            eventB[i] = b;
+            eventVersionA[i] = versions[a];
+            eventVersionB[i] = b >= 0 ? versions[b] : 0;
+            eventNormals[i * 2] = normal.x;
+            eventNormals[i * 2 + 1] = normal.y;
+            //sift up
+            while (i > 0){
+                int parent = (i - 1) >>> 1;
+                if(!before(i, parent))break;
+                swapEvents(i, parent);
+                i = parent;
+            }
+        }
+
+        private void pop(){
+            eventCount--;
+            if(eventCount == 0)return;
+            swapEvents(0, eventCount);
+            int i = 0;
+            while (true){
+                int child = (i << 1) + 1;
+                if(child >= eventCount)return;
+                if(child + 1 < eventCount && before(child + 1, child))child++;
+                if(!before(child, i))return;
+                swapEvents(i, child);
+                i = child;
+            }
+        }
+
+        /**
+         * Orders events by time, ties are broken by the slots of the involved bodies so that the order doesn't depend on
+         * the order the bodies were queued in.
+         */
+        private boolean before(int i, int j){
+            int compare = Float.compare(eventTimes[i], eventTimes[j]);
+            if(compare != 0)return compare < 0;
+            int slotA = slotOf(eventA[i]), otherSlotA = slotOf(eventA[j]);
+            if(slotA != otherSlotA)return slotA < otherSlotA;
+            int slotB = slotOf(eventB[i]), otherSlotB = slotOf(eventB[j]);
+            if(slotB != otherSlotB)return slotB < otherSlotB;
+            //both events belong to the same bodies (static candidates have other slots than the movers), so they were
+            //computed with different displacements and at most one of them is still valid
+            if(eventVersionA[i] != eventVersionA[j])return eventVersionA[i] < eventVersionA[j];
+            return eventVersionB[i] < eventVersionB[j];
+        }
+
+        private int slotOf(int participant){
+            return participant >= 0 ? movers.get(participant).slot : statics.get(-1 - participant).slot;
+        }
+
+        private void swapEvents(int i, int j){
+            float time = eventTimes[i]; eventTimes[i] = eventTimes[j]; eventTimes[j] = time;
+            int a = eventA[i]; eventA[i] = eventA[j]; eventA[j] = a;
+            int b = eventB[i]; eventB[i] = eventB[j]; eventB[j] = b;
+            int va = eventVersionA[i]; eventVersionA[i] = eventVersionA[j]; eventVersionA[j] = va;
+            int vb = eventVersionB[i]; eventVersionB[i] = eventVersionB[j]; eventVersionB[j] = vb;
+            byte nx = eventNormals[i * 2]; eventNormals[i * 2] = eventNormals[j * 2]; eventNormals[j * 2] = nx;
+            byte ny = eventNormals[i * 2 + 1]; eventNormals[i * 2 + 1] = eventNormals[j * 2 + 1]; eventNormals[j * 2 + 1] = ny;
+        }
+
+    }
+
+}
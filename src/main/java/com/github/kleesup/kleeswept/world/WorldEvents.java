@@ -0,0 +1,33 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.github.kleesup.kleeswept.util.FlightEvent;
+
+/**
+ * The flight recorder events emitted by {@link SimpleCollisionWorld}.
+ * The duration events have default thresholds, so they can stay enabled in production recordings and only the
+ * outliers are written. The thresholds can be changed by the settings of the recording.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+final class WorldEvents {
+
+    private WorldEvents(){}
+
+    /** A simulation, fields: visited chunks, tested candidates, hits, re-tested hits, resolved hits. **/
+    static final FlightEvent SIMULATE = FlightEvent.create("kleeswept.Simulate", "Simulate",
+            "A body was simulated in a collision world", "1 ms",
+            "chunks", "candidates", "hits", "retests", "resolved");
+
+    /** An update (simulation and move), fields: collisions, whether the chunks of the body changed. **/
+    static final FlightEvent UPDATE = FlightEvent.create("kleeswept.Update", "Update",
+            "A body was simulated and moved in a collision world", "1 ms",
+            "collisions", "chunkChange");
+
+    /** A move that changed the chunks of a body, fields: chunks before, chunks after, actually changed chunks. **/
+    static final FlightEvent CHUNK_CHANGE = FlightEvent.create("kleeswept.ChunkChange", "Chunk Change",
+            "A body was moved into other chunks", "100 us",
+            "oldChunks", "newChunks", "changedChunks");
+
+}
@@ -0,0 +1,180 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+import com.github.kleesup.kleeswept.world.body.ISweptBody;
+
+import java.util.Arrays;
+
+/**
+ * An undo journal which records the changes done to a {@link SimpleCollisionWorld} while at least one checkpoint
+ * is open. Every entry holds the state a body had before it was changed, so rolling back only touches the bodies
+ * that actually changed since the checkpoint was created.
+ * A moved body is only recorded once per checkpoint segment, no matter how often it moves inside that segment.
+ * Next to the bounding box, the box the chunks of the body are based on is recorded (see
+ * {@link SimpleCollisionWorld#setChunkMargin(float)}), as it depends on how the body moved.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.1
+ * @since 1.2
+ */
+final class WorldJournal<Body extends ISweptBody> {
+
+    /** The body was moved and/or resized, the recorded box is the previous one. */
+    static final byte OP_MOVE = 0;
+    /** The body was added and took a slot from the free slot stack. */
+    static final byte OP_ADD = 1;
+    /** The body was added and took a newly created slot. */
+    static final byte OP_ADD_FRESH = 2;
+    /** The body was removed, the recorded box is the one it had when it was removed. */
+    static final byte OP_REMOVE = 3;
+
+    private byte[] ops = new byte[32];
+    private Object[] entries = new Object[32];
+    private float[] boxes = new float[32 * 4];
+    private float[] chunkBoxes = new float[32 * 4];
+    private int size;
+
+    //journal sizes at which the open checkpoints were created
+    private final IntArray marks = new IntArray();
+    //the id of the oldest open checkpoint
+    private int firstCheckpoint;
+    //increased every time a new segment starts, used to record a moved body only once per segment
+    private int segment;
+
+    /**
+     * @return Whether changes are currently recorded (only the case if at least one checkpoint is open).
+     */
+    boolean isRecording(){
+        return marks.size > 0;
+    }
+
+    int checkpoint(){
+        marks.add(size);
+        segment++;
+        return firstCheckpoint + marks.size - 1;
+    }
+
+    /**
+     * Checks whether the given checkpoint is currently open.
+     * @param checkpoint The id of the checkpoint.
+     * @return The position of the journal where the checkpoint starts.
+     * @throws IllegalArgumentException If the checkpoint is not (or no longer) open.
+     */
+    int requireMark(int checkpoint){
+        int index = checkpoint - firstCheckpoint;
+        if(index < 0 || index >= marks.size)
+            throw new IllegalArgumentException("The checkpoint " + checkpoint + " is not open!");
+        return marks.get(index);
+    }
+
+    /**
+     * Truncates the journal after a rollback to the given checkpoint. The checkpoint stays open and starts a new
+     * segment, all newer checkpoints are discarded.
+     * @param checkpoint The checkpoint that was rolled back to.
+     */
+    void truncate(int checkpoint){
+        int index = checkpoint - firstCheckpoint;
+        size = marks.get(index);
+        marks.size = index + 1;
+        Arrays.fill(entries, size, entries.length, null);
+        segment++;
+    }
+
+    /**
+     * Releases the given checkpoint and all older ones. The entries that are no longer reachable are dropped.
+     * @param checkpoint The newest checkpoint to release.
+     */
+    void release(int checkpoint){
+        int count = Math.min(checkpoint - firstCheckpoint + 1, marks.size);
+        if(count <= 0)return;
+        firstCheckpoint += count;
+        marks.removeRange(0, count - 1);
+        int drop = marks.size == 0 ? size : marks.get(0);
+        if(drop > 0){
+            System.arraycopy(ops, drop, ops, 0, size - drop);
+            System.arraycopy(entries, drop, entries, 0, size - drop);
+            System.arraycopy(boxes, drop * 4, boxes, 0, (size - drop) * 4);
+            System.arraycopy(chunkBoxes, drop * 4, chunkBoxes, 0, (size - drop) * 4);
+            Arrays.fill(entries, size - drop, size, null);
+            size -= drop;
+            for(int i = 0; i < marks.size; i++)marks.items[i] -= drop;
+        }
+        segment++;
+    }
+
+    /**
+     * Records the state of an entry before it is moved, if it wasn't already recorded in the current segment.
+     * @param entry The entry that is about to change.
+     */
+    void recordMove(BodyEntry<Body> entry){
+        if(entry.journalSegment == segment)return;
+        entry.journalSegment = segment;
+        push(OP_MOVE, entry);
+    }
+
+    void recordAdd(BodyEntry<Body> entry, boolean freshSlot){
+        push(freshSlot ? OP_ADD_FRESH : OP_ADD, entry);
+    }
+
+    void recordRemove(BodyEntry<Body> entry){
+        push(OP_REMOVE, entry);
+    }
+
+    private void push(byte op, BodyEntry<Body> entry){
+        if(size == ops.length){
+            int capacity = size << 1;
+            ops = Arrays.copyOf(ops, capacity);
+            entries = Arrays.copyOf(entries, capacity);
+            boxes = Arrays.copyOf(boxes, capacity * 4);
+            chunkBoxes = Arrays.copyOf(chunkBoxes, capacity * 4);
+        }
+        ops[size] = op;
+        entries[size] = entry;
+        int b = size * 4;
+        boxes[b] = entry.box.x;
+        boxes[b + 1] = entry.box.y;
+        boxes[b + 2] = entry.box.width;
+        boxes[b + 3] = entry.box.height;
+        chunkBoxes[b] = entry.chunkBox.x;
+        chunkBoxes[b + 1] = entry.chunkBox.y;
+        chunkBoxes[b + 2] = entry.chunkBox.width;
+        chunkBoxes[b + 3] = entry.chunkBox.height;
+        size++;
+    }
+
+    int size(){
+        return size;
+    }
+
+    byte op(int index){
+        return ops[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    BodyEntry<Body> entry(int index){
+        return (BodyEntry<Body>) entries[index];
+    }
+
+    float x(int index){
+        return boxes[index * 4];
+    }
+    float y(int index){
+        return boxes[index * 4 + 1];
+    }
+    float width(int index){
+        return boxes[index * 4 + 2];
+    }
+    float height(int index){
+        return boxes[index * 4 + 3];
+    }
+
+    /**
+     * Writes the recorded box the chunks of the body were based on into a rectangle.
+     */
+    Rectangle chunkBox(int index, Rectangle writeTo){
+        int b = index * 4;
+        return writeTo.set(chunkBoxes[b], chunkBoxes[b + 1], chunkBoxes[b + 2], chunkBoxes[b + 3]);
+    }
+
+}
@@ -0,0 +1,279 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.badlogic.gdx.utils.Array;
+import com.github.kleesup.kleeswept.KleeHelper;
+import com.github.kleesup.kleeswept.world.body.ISweptBody;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ticks a lot of small, independent {@link SimpleCollisionWorld}s in parallel.
+ * <p>
+ * Worlds that are ticked by a scheduler don't need temporary fields or collision pools of their own: while a world is
+ * ticked, a {@link SimulationContext} from a shared pool is bound to it. Only as many contexts are created as worlds
+ * are ticked at the same time (usually the amount of threads).
+ * </p>
+ * <p>
+ * The cost of every tick is measured and averaged per world. Each tick, the worlds are ordered by their average cost
+ * and packed into batches of roughly the same cost, expensive worlds first. The batches are submitted to the
+ * executor, by default the work-stealing {@link ForkJoinPool#commonPool()}. On newer JDKs an executor with virtual
+ * threads can be passed instead. Idle worlds (see {@link ScheduledWorld#setIdle(boolean)}) are skipped and cost
+ * nothing.
+ * </p>
+ * A world must not be used outside the scheduler while a tick is running. The class is NOT Thread-Safe!
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+public class WorldScheduler<Body extends ISweptBody> {
+
+    /**
+     * The amount of batches per thread the worlds are split into, more batches balance better.
+     */
+    private static final int BATCHES_PER_THREAD = 4;
+
+    private static final Comparator<ScheduledWorld<?>> MOST_EXPENSIVE_FIRST =
+            (a, b) -> Long.compare(b.estimatedNanos, a.estimatedNanos);
+
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final Array<ScheduledWorld<Body>> worlds = new Array<>(false, 16);
+    private final ConcurrentLinkedQueue<SimulationContext> contexts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger contextCount = new AtomicInteger();
+
+    //state of the current tick
+    private final Array<ScheduledWorld<Body>> active = new Array<>();
+    private final Array<Batch> batches = new Array<>();
+    private final ArrayList<Batch> tasks = new ArrayList<>();
+    private float delta;
+
+    /**
+     * @param executor The executor the worlds are ticked on, it is not shut down by the scheduler.
+     * @param parallelism The amount of threads the executor runs the ticks on.
+     */
+    public WorldScheduler(ExecutorService executor, int parallelism) {
+        KleeHelper.paramRequireNonNull(executor, "Executor cannot be null!");
+        if(parallelism < 1)throw new IllegalArgumentException("The parallelism cannot be smaller than 1!");
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+    public WorldScheduler(ForkJoinPool pool){
+        this(pool, pool.getParallelism());
+    }
+    public WorldScheduler(){
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Adds a world to the scheduler.
+     * @param world The world to tick.
+     * @param ticker The action that is performed on the world every tick.
+     * @return The handle of the world in this scheduler.
+     */
+    public ScheduledWorld<Body> schedule(SimpleCollisionWorld<Body> world, Ticker<Body> ticker){
+        KleeHelper.paramRequireNonNull(world, "World cannot be null!");
+        KleeHelper.paramRequireNonNull(ticker, "Ticker cannot be null!");
+        ScheduledWorld<Body> scheduled = new ScheduledWorld<>(world, ticker);
+        worlds.add(scheduled);
+        return scheduled;
+    }
+
+    /**
+     * Removes a world from the scheduler.
+     * @param world The handle of the world.
+     * @return Whether the world was scheduled.
+     */
+    public boolean unschedule(ScheduledWorld<Body> world){
+        return worlds.removeValue(world, true);
+    }
+
+    /**
+     * Ticks all worlds that are not idle and waits until all of them are done.
+     * @param delta The delta passed to the tickers.
+     * @return The amount of worlds that were ticked.
+     */
+    public int tick(float delta){
+        this.delta = delta;
+        long measuredNanos = 0;
+        int measured = 0;
+        for(ScheduledWorld<Body> world : worlds){
+            if(world.idle)continue;
+            active.add(world);
+            if(world.averageTickNanos == 0)continue;
+            measuredNanos += world.averageTickNanos;
+            measured++;
+        }
+        //worlds that weren't ticked yet are estimated with the average cost of the others
+        long unmeasuredNanos = measured == 0 ? 1 : measuredNanos / measured;
+        long totalNanos = 0;
+        for(ScheduledWorld<Body> world : active){
+            world.estimatedNanos = world.averageTickNanos == 0 ? unmeasuredNanos : world.averageTickNanos;
+            totalNanos += world.estimatedNanos;
+        }
+        int count = active.size;
+        try{
+            if(count == 0)return 0;
+            active.sort(MOST_EXPENSIVE_FIRST);
+            packBatches(totalNanos);
+            runBatches();
+        }finally{
+            active.clear();
+        }
+        return count;
+    }
+
+    /**
+     * Packs the active worlds (ordered by cost) into consecutive batches of roughly the same cost.
+     * Expensive worlds end up in batches of their own, cheap ones are grouped together.
+     */
+    private void packBatches(long totalNanos){
+        int batchCount = Math.min(active.size, parallelism * BATCHES_PER_THREAD);
+        long target = Math.max(1, totalNanos / batchCount);
+        int used = 0, start = 0;
+        long cost = 0;
+        for(int i = 0; i < active.size; i++){
+            cost += active.get(i).estimatedNanos;
+            if(cost < target && i < active.size - 1)continue;
+            if(used == batches.size)batches.add(new Batch());
+            Batch batch = batches.get(used++);
+            batch.start = start;
+            batch.end = i + 1;
+            start = i + 1;
+            cost = 0;
+        }
+        tasks.clear();
+        for(int i = 0; i < used; i++)tasks.add(batches.get(i));
+    }
+
+    private void runBatches(){
+        try{
+            if(tasks.size() == 1){
+                tasks.get(0).call();
+                return;
+            }
+            for(Future<Void> future : executor.invokeAll(tasks))future.get();
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while ticking the worlds!", e);
+        }catch (ExecutionException e){
+            Throwable cause = e.getCause();
+            if(cause instanceof RuntimeException)throw (RuntimeException) cause;
+            if(cause instanceof Error)throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }finally{
+            tasks.clear();
+        }
+    }
+
+    private SimulationContext acquireContext(){
+        SimulationContext context = contexts.poll();
+        if(context != null)return context;
+        contextCount.incrementAndGet();
+        return new SimulationContext();
+    }
+
+    /**
+     * @return The amount of scheduled worlds.
+     */
+    public int size(){
+        return worlds.size;
+    }
+
+    /**
+     * @return The amount of contexts that were created to tick the worlds.
+     */
+    public int getContextCount(){
+        return contextCount.get();
+    }
+
+    /**
+     * A consecutive range of active worlds that is ticked by one thread with one context.
+     */
+    private final class Batch implements Callable<Void> {
+        int start, end;
+
+        @Override
+        public Void call() {
+            SimulationContext context = acquireContext();
+            try{
+                for(int i = start; i < end; i++)active.get(i).tick(context, delta);
+            }finally{
+                contexts.offer(context);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * The action that is performed on a world every tick.
+     */
+    @FunctionalInterface
+    public interface Ticker<Body extends ISweptBody> {
+        void tick(SimpleCollisionWorld<Body> world, float delta);
+    }
+
+    /**
+     * The handle of a world in a {@link WorldScheduler}, which reports the cost of its ticks.
+     */
+    public static final class ScheduledWorld<Body extends ISweptBody> {
+
+        private final SimpleCollisionWorld<Body> world;
+        private final Ticker<Body> ticker;
+        private boolean idle;
+        private long lastTickNanos, averageTickNanos;
+        private long estimatedNanos;
+
+        private ScheduledWorld(SimpleCollisionWorld<Body> world, Ticker<Body> ticker) {
+            this.world = world;
+            this.ticker = ticker;
+        }
+
+        private void tick(SimulationContext context, float delta){
+            world.bindContext(context);
+            long start = System.nanoTime();
+            try{
+                ticker.tick(world, delta);
+            }finally{
+                world.bindContext(null);
+                lastTickNanos = System.nanoTime() - start;
+                //exponential moving average over roughly the last 8 ticks
+                averageTickNanos = averageTickNanos == 0 ? lastTickNanos : averageTickNanos + ((lastTickNanos - averageTickNanos) >> 3);
+            }
+        }
+
+        public SimpleCollisionWorld<Body> getWorld() {
+            return world;
+        }
+
+        /**
+         * Sets whether the world is idle. Idle worlds are not ticked until they are woken up again.
+         * @param idle Whether the world is idle.
+         */
+        public void setIdle(boolean idle) {
+            this.idle = idle;
+        }
+
+        public boolean isIdle() {
+            return idle;
+        }
+
+        /**
+         * @return The duration of the last tick in nanoseconds.
+         */
+        public long getLastTickNanos() {
+            return lastTickNanos;
+        }
+
+        /**
+         * @return The average duration of the recent ticks in nanoseconds, which is used to balance the load.
+         */
+        public long getAverageTickNanos() {
+            return averageTickNanos;
+        }
+    }
+
+}
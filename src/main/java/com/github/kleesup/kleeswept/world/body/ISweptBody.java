@@ -7,7 +7,7 @@ import com.github.kleesup.kleeswept.world.CollisionResponse;
  * A custom world body interface to implement freely.
  * <br>Created on 13.09.2023</br>
  * @author KleeSup
- * @version 1.4
+ * @version 1.5
  * @since 1.0.1
  */
 public interface ISweptBody {
@@ -42,4 +42,17 @@ public interface ISweptBody {
         return true;
     }
 
+    /**
+     * Sensors (or triggers) never block the movement of other bodies. Instead, the world keeps track of all bodies
+     * overlapping a sensor and reports when they enter or exit it
+     * (see {@link com.github.kleesup.kleeswept.world.SimpleCollisionWorld#getSensorEvents()}).
+     * A sensor only tracks bodies it wants to check a collision with (see {@link #checkCollision(ISweptBody)}),
+     * two sensors never track each other.
+     * Note: This is only read once when the body is added to a world.
+     * @return Whether this body is a sensor (default is {@code false}).
+     */
+    default boolean isSensor(){
+        return false;
+    }
+
 }
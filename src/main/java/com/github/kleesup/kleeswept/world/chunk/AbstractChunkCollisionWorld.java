@@ -1,6 +1,8 @@
 package com.github.kleesup.kleeswept.world.chunk;
 
 import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
 import com.github.kleesup.kleeswept.KleeHelper;
 import com.github.kleesup.kleeswept.world.CollisionWorld;
 import com.github.kleesup.kleeswept.world.body.ISweptBody;
@@ -11,7 +13,7 @@ import java.util.function.BiConsumer;
  * An implementation of {@link CollisionWorld} which offers a chunk cache {@link IChunkManager}.
  * <br>Created on 13.09.2023</br>
  * @author KleeSup
- * @version 1.2
+ * @version 1.6
  * @since 1.0.1
  */
 public abstract class AbstractChunkCollisionWorld<Body extends ISweptBody> implements CollisionWorld<Body> {
@@ -20,6 +22,8 @@ public abstract class AbstractChunkCollisionWorld<Body extends ISweptBody> imple
 
     protected final int chunkSize;
     protected final float invChunkSize;
+    /** The occupied chunks, {@code null} if not tracked. Kept up to date by all methods changing the chunks of a body. */
+    protected ChunkOccupancy occupancy;
     protected AbstractChunkCollisionWorld(int chunkSize, IChunkManager<Body> chunkManager){
         if(chunkSize < 1)throw new IllegalArgumentException("The chunk size cannot be smaller than 1!");
         this.chunkSize = chunkSize;
@@ -33,7 +37,7 @@ public abstract class AbstractChunkCollisionWorld<Body extends ISweptBody> imple
      * @param rectangle The bounding box of the AABB.
      */
     protected void addToContainedChunks(Body body, Rectangle rectangle){
-        forContainingChunk(rectangle, (chunkX, chunkY) -> chunkManager.addBody(chunkX, chunkY, body));
+        forContainingChunk(rectangle, (chunkX, chunkY) -> changeChunk(body, true, chunkX, chunkY));
     }
 
     /**
@@ -42,7 +46,163 @@ public abstract class AbstractChunkCollisionWorld<Body extends ISweptBody> imple
      * @param rectangle The bounding box of the AABB.
      */
     protected void removeFromContainedChunks(Body body, Rectangle rectangle){
-        forContainingChunk(rectangle, (chunkX, chunkY) -> chunkManager.removeBody(chunkX, chunkY, body));
+        forContainingChunk(rectangle, (chunkX, chunkY) -> changeChunk(body, false, chunkX, chunkY));
+    }
+
+    /**
+     * Adds several AABBs to all chunks containing their bounding boxes in one go. The occupancy of every touched chunk
+     * is counted first, so each chunk is looked up once and can be sized for all of its new bodies before it is filled
+     * (see {@link IChunkManager#addBodies(int, int, ISweptBody[], int)}).
+     * The chunks are handed to the chunk manager in Morton order.
+     * @param bodies The AABBs to add.
+     * @param boxes The bounding boxes of the AABBs, in the same order.
+     */
+    @SuppressWarnings("unchecked")
+    protected void addToContainedChunks(Array<Body> bodies, Array<Rectangle> boxes){
+        for(ChunkBatch batch : batchByChunk(bodies, boxes, true)){
+            chunkManager.addBodies(batch.chunkX, batch.chunkY, (Body[]) batch.bodies, batch.size);
+            if(occupancy != null)occupancy.set(batch.chunkX, batch.chunkY);
+        }
+    }
+
+    /**
+     * Removes several AABBs from all chunks containing their bounding boxes in one go. The bodies are grouped by chunk
+     * first, so every chunk is looked up once (see {@link IChunkManager#removeBodies(int, int, ISweptBody[], int)}) and
+     * its occupancy is only checked after all of its bodies were removed.
+     * @param bodies The AABBs to remove.
+     * @param boxes The bounding boxes of the AABBs, in the same order.
+     */
+    @SuppressWarnings("unchecked")
+    protected void removeFromContainedChunks(Array<Body> bodies, Array<Rectangle> boxes){
+        for(ChunkBatch batch : batchByChunk(bodies, boxes, false)){
+            chunkManager.removeBodies(batch.chunkX, batch.chunkY, (Body[]) batch.bodies, batch.size);
+            if(occupancy != null && chunkManager.getBodies(batch.chunkX, batch.chunkY).isEmpty())occupancy.clear(batch.chunkX, batch.chunkY);
+        }
+    }
+
+    /**
+     * Groups AABBs by the chunks their bounding boxes take space in. The bodies per chunk are counted first, so the
+     * batch of every chunk is allocated with its final size.
+     * @param ordered Whether the batches are ordered by the Morton code of their chunks.
+     * @return The batches of all touched chunks.
+     */
+    private Array<ChunkBatch> batchByChunk(Array<Body> bodies, Array<Rectangle> boxes, boolean ordered){
+        if(bodies.size != boxes.size)throw new IllegalArgumentException("Every body needs exactly one bounding box!");
+        LongMap<ChunkBatch> batches = new LongMap<>();
+        //first pass: counting the bodies per chunk
+        for(int i = 0; i < bodies.size; i++){
+            Rectangle box = boxes.get(i);
+            int maxX = KleeHelper.chunkFloor((box.x + box.width) * invChunkSize), maxY = KleeHelper.chunkFloor((box.y + box.height) * invChunkSize);
+            for(int x = KleeHelper.chunkFloor(box.x * invChunkSize); x <= maxX; x++){
+                for(int y = KleeHelper.chunkFloor(box.y * invChunkSize); y <= maxY; y++){
+                    long key = KleeHelper.pairLong(x, y);
+                    ChunkBatch batch = batches.get(key);
+                    if(batch == null)batches.put(key, batch = new ChunkBatch(x, y));
+                    batch.size++;
+                }
+            }
+        }
+        Array<ChunkBatch> result = new Array<>(false, batches.size, ChunkBatch.class);
+        for(ChunkBatch batch : batches.values()){
+            batch.bodies = new ISweptBody[batch.size];
+            batch.size = 0;
+            result.add(batch);
+        }
+        //second pass: filling the batches
+        for(int i = 0; i < bodies.size; i++){
+            Rectangle box = boxes.get(i);
+            int maxX = KleeHelper.chunkFloor((box.x + box.width) * invChunkSize), maxY = KleeHelper.chunkFloor((box.y + box.height) * invChunkSize);
+            for(int x = KleeHelper.chunkFloor(box.x * invChunkSize); x <= maxX; x++){
+                for(int y = KleeHelper.chunkFloor(box.y * invChunkSize); y <= maxY; y++){
+                    ChunkBatch batch = batches.get(KleeHelper.pairLong(x, y));
+                    batch.bodies[batch.size++] = bodies.get(i);
+                }
+            }
+        }
+        if(ordered)result.sort((a, b) -> Long.compare(a.morton, b.morton));
+        return result;
+    }
+
+    /**
+     * The bodies that are added to or removed from a single chunk by a bulk operation.
+     */
+    private static final class ChunkBatch {
+        final int chunkX, chunkY;
+        final long morton;
+        int size;
+        ISweptBody[] bodies;
+
+        ChunkBatch(int chunkX, int chunkY) {
+            this.chunkX = chunkX;
+            this.chunkY = chunkY;
+            this.morton = KleeHelper.mortonLong(chunkX, chunkY);
+        }
+    }
+
+    /**
+     * Moves an AABB from the chunks of its old bounding box into the chunks of its new bounding box.
+     * Only the symmetric difference of both chunk ranges is touched, chunks covered by both boxes keep the AABB.
+     * Therefore, the cost of a move depends on the edges of the box and not on its area.
+     * @param body The AABB to move.
+     * @param from The old bounding box of the AABB.
+     * @param to The new bounding box of the AABB.
+     * @return The amount of chunks the AABB was removed from or added to.
+     */
+    protected int moveBetweenChunks(Body body, Rectangle from, Rectangle to){
+        int fromMinX = KleeHelper.chunkFloor(from.x * invChunkSize), fromMaxX = KleeHelper.chunkFloor((from.x + from.width) * invChunkSize);
+        int fromMinY = KleeHelper.chunkFloor(from.y * invChunkSize), fromMaxY = KleeHelper.chunkFloor((from.y + from.height) * invChunkSize);
+        int toMinX = KleeHelper.chunkFloor(to.x * invChunkSize), toMaxX = KleeHelper.chunkFloor((to.x + to.width) * invChunkSize);
+        int toMinY = KleeHelper.chunkFloor(to.y * invChunkSize), toMaxY = KleeHelper.chunkFloor((to.y + to.height) * invChunkSize);
+        int changed = changeChunks(body, false, fromMinX, fromMaxX, fromMinY, fromMaxY, toMinX, toMaxX, toMinY, toMaxY);
+        changed += changeChunks(body, true, toMinX, toMaxX, toMinY, toMaxY, fromMinX, fromMaxX, fromMinY, fromMaxY);
+        return changed;
+    }
+
+    /**
+     * Adds an AABB to (or removes it from) all chunks of a range, except the ones inside an excluded range.
+     * The excluded chunks of a column are skipped as a whole interval, so they aren't iterated at all.
+     * @return The amount of changed chunks.
+     */
+    private int changeChunks(Body body, boolean add, int minX, int maxX, int minY, int maxY,
+                             int excludedMinX, int excludedMaxX, int excludedMinY, int excludedMaxY){
+        int changed = 0;
+        for(int x = minX; x <= maxX; x++){
+            boolean excludedColumn = x >= excludedMinX && x <= excludedMaxX;
+            //the chunks of the column below and above the excluded range
+            int lowerEnd = excludedColumn ? Math.min(maxY, excludedMinY - 1) : maxY;
+            int upperStart = excludedColumn ? Math.max(minY, excludedMaxY + 1) : lowerEnd + 1;
+            for(int y = minY; y <= lowerEnd; y++){
+                changeChunk(body, add, x, y);
+                changed++;
+            }
+            for(int y = Math.max(upperStart, lowerEnd + 1); y <= maxY; y++){
+                changeChunk(body, add, x, y);
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    private void changeChunk(Body body, boolean add, int chunkX, int chunkY){
+        if(add){
+            chunkManager.addBody(chunkX, chunkY, body);
+            if(occupancy != null)occupancy.set(chunkX, chunkY);
+        }else{
+            chunkManager.removeBody(chunkX, chunkY, body);
+            if(occupancy != null && chunkManager.getBodies(chunkX, chunkY).isEmpty())occupancy.clear(chunkX, chunkY);
+        }
+    }
+
+    /**
+     * Searches a row of chunks for the next chunk that might contain bodies.
+     * @param chunkX The chunk-x to start searching at (inclusive).
+     * @param chunkY The chunk-y of the row.
+     * @param maxChunkX The chunk-x to stop searching at (inclusive).
+     * @return The chunk-x of the next occupied chunk ({@code maxChunkX + 1} if there is none), or simply
+     * {@code chunkX} if the occupied chunks aren't tracked.
+     */
+    protected int nextOccupiedChunk(int chunkX, int chunkY, int maxChunkX){
+        return occupancy == null ? chunkX : occupancy.nextOccupied(chunkX, chunkY, maxChunkX);
     }
 
     /**
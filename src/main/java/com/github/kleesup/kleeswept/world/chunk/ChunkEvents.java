@@ -0,0 +1,24 @@
+package com.github.kleesup.kleeswept.world.chunk;
+
+import com.github.kleesup.kleeswept.util.FlightEvent;
+
+/**
+ * The flight recorder events emitted by the chunk managers.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+final class ChunkEvents {
+
+    private ChunkEvents(){}
+
+    /** A chunk was created, fields: chunkX, chunkY. **/
+    static final FlightEvent CREATED = FlightEvent.create("kleeswept.ChunkCreated", "Chunk Created",
+            "A chunk manager created a new chunk", null, "chunkX", "chunkY");
+
+    /** Empty chunks were dropped, fields: reclaimed chunks, remaining chunks. **/
+    static final FlightEvent RECLAIMED = FlightEvent.create("kleeswept.ChunksReclaimed", "Chunks Reclaimed",
+            "A chunk manager dropped its empty chunks", null, "reclaimed", "remaining");
+
+}
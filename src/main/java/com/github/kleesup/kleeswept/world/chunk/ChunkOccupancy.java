@@ -0,0 +1,137 @@
+package com.github.kleesup.kleeswept.world.chunk;
+
+import com.badlogic.gdx.utils.LongMap;
+import com.github.kleesup.kleeswept.KleeHelper;
+
+/**
+ * A hierarchical bitmap marking which chunks contain at least one body, so chunk ranges can be searched for occupied
+ * chunks with bit scans instead of looking up every single chunk in the {@link IChunkManager}.
+ * The chunks are grouped into tiles of 64x64 chunks, where every row of a tile is a single {@code long}.
+ * The tiles themselves are grouped the same way into summary tiles of 64x64 tiles, whose bits mark the non-empty
+ * tiles. Searching a row therefore skips 64 empty chunks per bit scan inside a tile and 4096 chunks per empty summary
+ * row, which makes long sweeps through open areas nearly free.
+ * Tiles are dropped as soon as their last chunk is cleared, so only the areas that currently contain bodies are kept.
+ * The class is NOT Thread-Safe!
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.1
+ * @since 1.2
+ */
+public final class ChunkOccupancy {
+
+    private static final int SHIFT = 6;
+    private static final int MASK = (1 << SHIFT) - 1;
+
+    private final LongMap<Tile> tiles = new LongMap<>();
+    private final LongMap<Tile> summaries = new LongMap<>();
+
+    /**
+     * Marks a chunk as occupied.
+     */
+    public void set(int chunkX, int chunkY){
+        int tileX = chunkX >> SHIFT, tileY = chunkY >> SHIFT;
+        if(tile(tiles, tileX, tileY).set(chunkX & MASK, chunkY & MASK)){
+            //the tile just became non-empty
+            tile(summaries, tileX >> SHIFT, tileY >> SHIFT).set(tileX & MASK, tileY & MASK);
+        }
+    }
+
+    /**
+     * Marks a chunk as empty.
+     */
+    public void clear(int chunkX, int chunkY){
+        int tileX = chunkX >> SHIFT, tileY = chunkY >> SHIFT;
+        long key = KleeHelper.pairLong(tileX, tileY);
+        Tile tile = tiles.get(key);
+        if(tile == null || !tile.clear(chunkX & MASK, chunkY & MASK))return;
+        //the tile just became empty
+        tiles.remove(key);
+        long summaryKey = KleeHelper.pairLong(tileX >> SHIFT, tileY >> SHIFT);
+        if(summaries.get(summaryKey).clear(tileX & MASK, tileY & MASK))summaries.remove(summaryKey);
+    }
+
+    public boolean isOccupied(int chunkX, int chunkY){
+        Tile tile = tiles.get(KleeHelper.pairLong(chunkX >> SHIFT, chunkY >> SHIFT));
+        return tile != null && (tile.rows[chunkY & MASK] & 1L << (chunkX & MASK)) != 0;
+    }
+
+    /**
+     * Searches a row of chunks for the next occupied chunk.
+     * @param chunkX The chunk-x to start searching at (inclusive).
+     * @param chunkY The chunk-y of the row.
+     * @param maxChunkX The chunk-x to stop searching at (inclusive).
+     * @return The chunk-x of the first occupied chunk in the range, {@code maxChunkX + 1} if there is none.
+     */
+    public int nextOccupied(int chunkX, int chunkY, int maxChunkX){
+        int tileY = chunkY >> SHIFT;
+        int summaryY = tileY >> SHIFT;
+        long x = chunkX;
+        while(x <= maxChunkX){
+            int tileX = (int) (x >> SHIFT);
+            int summaryX = tileX >> SHIFT;
+            Tile summary = summaries.get(KleeHelper.pairLong(summaryX, summaryY));
+            //the non-empty tiles of this summary row, starting at the current tile
+            long tileBits = summary == null ? 0 : summary.rows[tileY & MASK] >>> (tileX & MASK);
+            if(tileBits == 0){
+                x = (long) (summaryX + 1) << (SHIFT * 2);
+                continue;
+            }
+            int skipped = Long.numberOfTrailingZeros(tileBits);
+            if(skipped > 0){
+                tileX += skipped;
+                x = (long) tileX << SHIFT;
+                if(x > maxChunkX)break;
+            }
+            long chunkBits = tiles.get(KleeHelper.pairLong(tileX, tileY)).rows[chunkY & MASK] >>> (x & MASK);
+            if(chunkBits != 0){
+                long found = x + Long.numberOfTrailingZeros(chunkBits);
+                return found <= maxChunkX ? (int) found : maxChunkX + 1;
+            }
+            x = (long) (tileX + 1) << SHIFT;
+        }
+        return maxChunkX + 1;
+    }
+
+    /**
+     * @return The amount of tiles containing at least one occupied chunk.
+     */
+    public int getTileCount(){
+        return tiles.size;
+    }
+
+    private static Tile tile(LongMap<Tile> map, int x, int y){
+        long key = KleeHelper.pairLong(x, y);
+        Tile tile = map.get(key);
+        if(tile == null)map.put(key, tile = new Tile());
+        return tile;
+    }
+
+    /**
+     * 64x64 bits, one {@code long} per row.
+     */
+    private static final class Tile {
+        final long[] rows = new long[1 << SHIFT];
+        int count;
+
+        /**
+         * @return Whether the tile was empty before.
+         */
+        boolean set(int x, int y){
+            long bit = 1L << x;
+            if((rows[y] & bit) != 0)return false;
+            rows[y] |= bit;
+            return count++ == 0;
+        }
+
+        /**
+         * @return Whether the tile is empty now.
+         */
+        boolean clear(int x, int y){
+            long bit = 1L << x;
+            if((rows[y] & bit) == 0)return false;
+            rows[y] &= ~bit;
+            return --count == 0;
+        }
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.github.kleesup.kleeswept.world.chunk;
+
+import com.github.kleesup.kleeswept.KleeHelper;
+import com.github.kleesup.kleeswept.world.body.ISweptBody;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * An implementation of {@link IChunkManager} for worlds with known bounds. The chunks inside the bounds are stored in
+ * a flat array indexed by {@code (chunkY - minChunkY) * width + (chunkX - minChunkX)}, so accessing a chunk costs a
+ * single multiply-add instead of a hash lookup, and chunks of the same row lie next to each other.
+ * Chunks outside the bounds are still supported, they are stored in an {@link EfficientChunkManager}.
+ * The class is NOT Thread-Safe!
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.1
+ * @since 1.2
+ */
+public class DenseChunkManager<Body extends ISweptBody> implements IChunkManager<Body> {
+
+    private final int minChunkX, minChunkY, maxChunkX, maxChunkY;
+    private final int width;
+    private final Object[] chunks;
+    private final EfficientChunkManager<Body> outside = new EfficientChunkManager<>();
+
+    /**
+     * @param minChunkX The smallest chunk-x inside the bounds.
+     * @param minChunkY The smallest chunk-y inside the bounds.
+     * @param maxChunkX The biggest chunk-x inside the bounds (inclusive).
+     * @param maxChunkY The biggest chunk-y inside the bounds (inclusive).
+     */
+    public DenseChunkManager(int minChunkX, int minChunkY, int maxChunkX, int maxChunkY) {
+        if(maxChunkX < minChunkX || maxChunkY < minChunkY)throw new IllegalArgumentException("The max chunk coordinates cannot be smaller than the min ones!");
+        long width = (long) maxChunkX - minChunkX + 1, height = (long) maxChunkY - minChunkY + 1;
+        if(width * height > Integer.MAX_VALUE - 8)throw new IllegalArgumentException("The bounds contain too many chunks: " + width * height);
+        this.minChunkX = minChunkX;
+        this.minChunkY = minChunkY;
+        this.maxChunkX = maxChunkX;
+        this.maxChunkY = maxChunkY;
+        this.width = (int) width;
+        this.chunks = new Object[(int) (width * height)];
+    }
+
+    /**
+     * Creates a chunk manager covering the given world bounds.
+     * @param x The x of the world bounds.
+     * @param y The y of the world bounds.
+     * @param width The width of the world bounds.
+     * @param height The height of the world bounds.
+     * @param chunkSize The chunk size of the world the manager is used by.
+     * @return The chunk manager.
+     */
+    public static <Body extends ISweptBody> DenseChunkManager<Body> ofBounds(float x, float y, float width, float height, int chunkSize){
+        if(chunkSize < 1)throw new IllegalArgumentException("The chunk size cannot be smaller than 1!");
+        float invChunkSize = 1f / chunkSize;
+        return new DenseChunkManager<>(KleeHelper.chunkFloor(x * invChunkSize), KleeHelper.chunkFloor(y * invChunkSize),
+                KleeHelper.chunkFloor((x + width) * invChunkSize), KleeHelper.chunkFloor((y + height) * invChunkSize));
+    }
+
+    @Override
+    public Set<Body> getBodies(int chunkX, int chunkY) {
+        if(!inBounds(chunkX, chunkY))return outside.getBodies(chunkX, chunkY);
+        Set<Body> bodies = chunk(index(chunkX, chunkY));
+        return bodies != null ? bodies : Collections.emptySet();
+    }
+
+    @Override
+    public void addBody(int chunkX, int chunkY, Body body) {
+        KleeHelper.paramRequireNonNull(body, "Body cannot be null!");
+        if(!inBounds(chunkX, chunkY)){
+            outside.addBody(chunkX, chunkY, body);
+            return;
+        }
+        int index = index(chunkX, chunkY);
+        Set<Body> bodies = chunk(index);
+        if(bodies == null)bodies = createChunk(index, chunkX, chunkY, 0);
+        bodies.add(body);
+    }
+
+    @Override
+    public void removeBody(int chunkX, int chunkY, Body body) {
+        if(!inBounds(chunkX, chunkY)){
+            outside.removeBody(chunkX, chunkY, body);
+            return;
+        }
+        Set<Body> bodies = chunk(index(chunkX, chunkY));
+        if(bodies != null)bodies.remove(body);
+    }
+
+    @Override
+    public void addBodies(int chunkX, int chunkY, Body[] bodies, int count) {
+        if(!inBounds(chunkX, chunkY)){
+            outside.addBodies(chunkX, chunkY, bodies, count);
+            return;
+        }
+        int index = index(chunkX, chunkY);
+        Set<Body> chunk = chunk(index);
+        //a new chunk is sized for all bodies, so it never has to grow while being filled
+        if(chunk == null)chunk = createChunk(index, chunkX, chunkY, count);
+        for(int i = 0; i < count; i++)chunk.add(bodies[i]);
+    }
+
+    @Override
+    public void removeBodies(int chunkX, int chunkY, Body[] bodies, int count) {
+        if(!inBounds(chunkX, chunkY)){
+            outside.removeBodies(chunkX, chunkY, bodies, count);
+            return;
+        }
+        Set<Body> chunk = chunk(index(chunkX, chunkY));
+        if(chunk == null)return;
+        for(int i = 0; i < count; i++)chunk.remove(bodies[i]);
+    }
+
+    /**
+     * @return Whether the chunk is inside the bounds (and therefore stored in the array).
+     */
+    public boolean inBounds(int chunkX, int chunkY){
+        return chunkX >= minChunkX && chunkX <= maxChunkX && chunkY >= minChunkY && chunkY <= maxChunkY;
+    }
+
+    private int index(int chunkX, int chunkY){
+        return (chunkY - minChunkY) * width + (chunkX - minChunkX);
+    }
+
+    private Set<Body> createChunk(int index, int chunkX, int chunkY, int expectedSize){
+        Set<Body> bodies = Collections.newSetFromMap(expectedSize > 0 ? new IdentityHashMap<>(expectedSize) : new IdentityHashMap<>());
+        chunks[index] = bodies;
+        ChunkEvents.CREATED.emit(chunkX, chunkY);
+        return bodies;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Body> chunk(int index){
+        return (Set<Body>) chunks[index];
+    }
+
+    public int getMinChunkX() {
+        return minChunkX;
+    }
+
+    public int getMinChunkY() {
+        return minChunkY;
+    }
+
+    public int getMaxChunkX() {
+        return maxChunkX;
+    }
+
+    public int getMaxChunkY() {
+        return maxChunkY;
+    }
+
+}
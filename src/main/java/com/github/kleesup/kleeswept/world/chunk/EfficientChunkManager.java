@@ -14,7 +14,7 @@ import java.util.function.Function;
  * This method reduces object heap as it is not necessary to create a wrapper object for the chunk coordinates (e.g. {@link com.badlogic.gdx.math.Vector2}).
  * <br>Created on 13.09.2023</br>
  * @author KleeSup
- * @version 1.2
+ * @version 1.5
  * @since 1.0.1
  */
 public class EfficientChunkManager<Body extends ISweptBody> implements IChunkManager<Body> {
@@ -31,18 +31,34 @@ public class EfficientChunkManager<Body extends ISweptBody> implements IChunkMan
     public void addBody(int chunkX, int chunkY, Body aabb) {
         KleeHelper.paramRequireNonNull(aabb, "Body cannot be null!");
         long pair = KleeHelper.pairLong(chunkX,chunkY);
-        Set<Body> bodies = computeIfAbsent(pair);
+        Set<Body> bodies = chunks.get(pair);
+        if(bodies == null){
+            chunks.put(pair, bodies = Collections.newSetFromMap(new IdentityHashMap<>()));
+            ChunkEvents.CREATED.emit(chunkX, chunkY);
+        }
         bodies.add(aabb);
     }
 
-    private Set<Body> computeIfAbsent(long key){
-        Set<Body> bodies = chunks.get(key);
-        if(bodies == null)chunks.put(key, bodies = Collections.newSetFromMap(new IdentityHashMap<>()));
-        return bodies;
-    }
-
     @Override
     public void removeBody(int chunkX, int chunkY, Body aabb) {
         getBodies(chunkX,chunkY).remove(aabb);
     }
+
+    @Override
+    public void addBodies(int chunkX, int chunkY, Body[] aabbs, int count) {
+        long pair = KleeHelper.pairLong(chunkX,chunkY);
+        Set<Body> bodies = chunks.get(pair);
+        if(bodies == null){
+            //a new chunk is sized for all bodies, so it never has to grow while being filled
+            chunks.put(pair, bodies = Collections.newSetFromMap(new IdentityHashMap<>(count)));
+            ChunkEvents.CREATED.emit(chunkX, chunkY);
+        }
+        for(int i = 0; i < count; i++)bodies.add(aabbs[i]);
+    }
+
+    @Override
+    public void removeBodies(int chunkX, int chunkY, Body[] aabbs, int count) {
+        Set<Body> bodies = getBodies(chunkX, chunkY);
+        for(int i = 0; i < count; i++)bodies.remove(aabbs[i]);
+    }
 }
@@ -8,7 +8,7 @@ import java.util.Set;
  * An interface for basic chunk management.
  * <br>Created on 13.09.2023</br>
  * @author KleeSup
- * @version 1.0
+ * @version 1.2
  * @since 1.0.1
  */
 public interface IChunkManager<Body extends ISweptBody> {
@@ -19,4 +19,22 @@ public interface IChunkManager<Body extends ISweptBody> {
 
     void removeBody(int chunkX, int chunkY, Body body);
 
+    /**
+     * Adds several bodies to a chunk at once, so the chunk can be sized for all of them beforehand.
+     * @param bodies The bodies to add, only the first {@code count} ones are used.
+     * @param count The amount of bodies to add.
+     */
+    default void addBodies(int chunkX, int chunkY, Body[] bodies, int count){
+        for(int i = 0; i < count; i++)addBody(chunkX, chunkY, bodies[i]);
+    }
+
+    /**
+     * Removes several bodies from a chunk at once, so the chunk only has to be looked up once.
+     * @param bodies The bodies to remove, only the first {@code count} ones are used.
+     * @param count The amount of bodies to remove.
+     */
+    default void removeBodies(int chunkX, int chunkY, Body[] bodies, int count){
+        for(int i = 0; i < count; i++)removeBody(chunkX, chunkY, bodies[i]);
+    }
+
 }
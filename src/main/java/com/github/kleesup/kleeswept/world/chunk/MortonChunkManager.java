@@ -0,0 +1,165 @@
+package com.github.kleesup.kleeswept.world.chunk;
+
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.LongMap;
+import com.github.kleesup.kleeswept.KleeHelper;
+import com.github.kleesup.kleeswept.world.body.ISweptBody;
+
+import java.util.*;
+
+/**
+ * An implementation of {@link IChunkManager} that keys its chunks on their Morton code (Z-order curve, see
+ * {@link KleeHelper#mortonLong(int, int)}) in a {@link LongMap}, so creating a chunk never moves other chunks around.
+ * <br>
+ * The codes of the chunks that were changed are remembered. Every {@code relayoutInterval} modifications (or on
+ * {@link #relayout()}) these chunks are processed in Morton order: empty chunks are dropped and the other ones are
+ * re-created with a capacity fitting their current bodies. Chunks that weren't changed are kept, so a relayout only
+ * costs as much as the chunks that were changed since the last one.
+ * The class is NOT Thread-Safe!
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.4
+ * @since 1.2
+ */
+public class MortonChunkManager<Body extends ISweptBody> implements IChunkManager<Body> {
+
+    public static final int DEFAULT_RELAYOUT_INTERVAL = 1 << 14;
+
+    private final LongMap<Set<Body>> chunks = new LongMap<>();
+    //the codes of the chunks changed since the last relayout (might contain duplicates)
+    private final LongArray changed = new LongArray();
+    //whether more chunks were changed than are stored, so all of them are laid out again
+    private boolean allChanged;
+    private final int relayoutInterval;
+    private int modifications;
+
+    /**
+     * @param relayoutInterval The amount of modifications after which the changed chunks are laid out again,
+     *                         {@code 0} to only lay them out on {@link #relayout()}.
+     */
+    public MortonChunkManager(int relayoutInterval) {
+        if(relayoutInterval < 0)throw new IllegalArgumentException("The relayout interval cannot be negative!");
+        this.relayoutInterval = relayoutInterval;
+    }
+    public MortonChunkManager(){
+        this(DEFAULT_RELAYOUT_INTERVAL);
+    }
+
+    @Override
+    public Set<Body> getBodies(int chunkX, int chunkY) {
+        Set<Body> bodies = chunks.get(KleeHelper.mortonLong(chunkX, chunkY));
+        return bodies != null ? bodies : Collections.emptySet();
+    }
+
+    @Override
+    public void addBody(int chunkX, int chunkY, Body body) {
+        KleeHelper.paramRequireNonNull(body, "Body cannot be null!");
+        long key = KleeHelper.mortonLong(chunkX, chunkY);
+        Set<Body> bodies = chunks.get(key);
+        if(bodies == null){
+            chunks.put(key, bodies = newChunk());
+            ChunkEvents.CREATED.emit(chunkX, chunkY);
+        }
+        bodies.add(body);
+        modified(key);
+    }
+
+    @Override
+    public void removeBody(int chunkX, int chunkY, Body body) {
+        long key = KleeHelper.mortonLong(chunkX, chunkY);
+        Set<Body> bodies = chunks.get(key);
+        if(bodies == null)return;
+        bodies.remove(body);
+        modified(key);
+    }
+
+    @Override
+    public void addBodies(int chunkX, int chunkY, Body[] bodies, int count) {
+        long key = KleeHelper.mortonLong(chunkX, chunkY);
+        Set<Body> chunk = chunks.get(key);
+        if(chunk == null){
+            //a new chunk is sized for all bodies, so it never has to grow while being filled
+            chunks.put(key, chunk = newChunk(count));
+            ChunkEvents.CREATED.emit(chunkX, chunkY);
+        }
+        for(int i = 0; i < count; i++)chunk.add(bodies[i]);
+        //bulk additions are not counted as modifications: new chunks are already sized for their bodies
+    }
+
+    @Override
+    public void removeBodies(int chunkX, int chunkY, Body[] bodies, int count) {
+        long key = KleeHelper.mortonLong(chunkX, chunkY);
+        Set<Body> chunk = chunks.get(key);
+        if(chunk == null)return;
+        for(int i = 0; i < count; i++)chunk.remove(bodies[i]);
+        //only counted once all bodies are removed, a relayout replaces the set of the chunk
+        modified(key, count);
+    }
+
+    private void modified(long key){
+        modified(key, 1);
+    }
+
+    private void modified(long key, int amount){
+        if(!allChanged && (changed.size == 0 || changed.peek() != key)){
+            changed.add(key);
+            //once more changes are remembered than there are chunks, sorting all chunks is cheaper
+            if(changed.size > chunks.size){
+                allChanged = true;
+                changed.clear();
+            }
+        }
+        if(relayoutInterval <= 0)return;
+        modifications += amount;
+        if(modifications >= relayoutInterval)relayout();
+    }
+
+    /**
+     * Lays out the chunks that were changed since the last relayout again: empty chunks are dropped and the other
+     * chunk sets are re-created (in Morton order) with a capacity fitting their bodies.
+     */
+    public void relayout(){
+        Object event = ChunkEvents.RECLAIMED.begin();
+        modifications = 0;
+        int before = chunks.size;
+        if(allChanged){
+            changed.clear();
+            LongMap.Keys keys = chunks.keys();
+            while(keys.hasNext)changed.add(keys.next());
+        }
+        changed.sort();
+        long[] keys = changed.items;
+        for(int i = 0; i < changed.size; i++){
+            long key = keys[i];
+            if(i > 0 && key == keys[i - 1])continue;
+            Set<Body> bodies = chunks.get(key);
+            if(bodies == null)continue;
+            if(bodies.isEmpty()){
+                chunks.remove(key);
+                continue;
+            }
+            Set<Body> copy = newChunk(bodies.size());
+            copy.addAll(bodies);
+            chunks.put(key, copy);
+        }
+        changed.clear();
+        allChanged = false;
+        if(event != null)ChunkEvents.RECLAIMED.commit(event, before - chunks.size, chunks.size);
+    }
+
+    /**
+     * @return The amount of chunks currently stored (including empty ones that weren't dropped yet).
+     */
+    public int getChunkCount(){
+        return chunks.size;
+    }
+
+    private Set<Body> newChunk(){
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    private Set<Body> newChunk(int expectedSize){
+        return Collections.newSetFromMap(new IdentityHashMap<>(expectedSize));
+    }
+
+}
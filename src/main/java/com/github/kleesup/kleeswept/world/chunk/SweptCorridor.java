@@ -0,0 +1,114 @@
+package com.github.kleesup.kleeswept.world.chunk;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.github.kleesup.kleeswept.KleeHelper;
+
+import java.util.Arrays;
+
+/**
+ * Rasterises the area a rectangle sweeps over while moving (and resizing) from a start to a goal rectangle into
+ * chunk rows. The swept area is the convex hull of both rectangles, which is exactly the union of all rectangles
+ * linearly interpolated between them. For each chunk row the span of chunk columns touched by that hull is
+ * calculated analytically, so a long diagonal movement only visits O(length) chunks instead of the O(length²)
+ * chunks of its bounding rectangle. The spans are conservative, a chunk the hull only touches is still included.
+ * The class is reusable and NOT Thread-Safe!
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+public class SweptCorridor {
+
+    //the interval of interpolation values covering a row is widened by this amount to stay conservative
+    //against rounding errors at the row borders
+    private static final float T_EPSILON = 1e-5f;
+
+    private int firstRow, rowCount;
+    private int[] minColumns = new int[8], maxColumns = new int[8];
+
+    /**
+     * Calculates the chunk spans of the area swept from the start to the goal rectangle.
+     * @param start The rectangle at the start of the movement.
+     * @param goal The rectangle at the end of the movement.
+     * @param chunkSize The size of the chunks.
+     * @return This corridor for chaining.
+     */
+    public SweptCorridor set(Rectangle start, Rectangle goal, int chunkSize){
+        float invChunkSize = 1f / chunkSize;
+        float sx0 = start.x, sy0 = start.y, sx1 = start.x + start.width, sy1 = start.y + start.height;
+        float gx0 = goal.x, gy0 = goal.y, gx1 = goal.x + goal.width, gy1 = goal.y + goal.height;
+        //the rows are the same ones the bounding rectangle of both would be spread over
+        firstRow = KleeHelper.chunkFloor(Math.min(sy0, gy0) * invChunkSize);
+        int lastRow = KleeHelper.chunkFloor(Math.max(sy1, gy1) * invChunkSize);
+        rowCount = lastRow - firstRow + 1;
+        if(rowCount > minColumns.length){
+            int capacity = Math.max(rowCount, minColumns.length << 1);
+            minColumns = Arrays.copyOf(minColumns, capacity);
+            maxColumns = Arrays.copyOf(maxColumns, capacity);
+        }
+        for(int r = 0; r < rowCount; r++){
+            //the rows at the ends are bounded by the rectangles themselves
+            float rowMin = r == 0 ? Float.NEGATIVE_INFINITY : (firstRow + r) * chunkSize;
+            float rowMax = r == rowCount - 1 ? Float.POSITIVE_INFINITY : (firstRow + r + 1) * chunkSize;
+            //interpolation values t where bottom(t) <= rowMax and top(t) >= rowMin
+            float tMin = 0, tMax = 1;
+            float dBottom = gy0 - sy0, dTop = gy1 - sy1;
+            if(dBottom > 0)tMax = Math.min(tMax, (rowMax - sy0) / dBottom);
+            else if(dBottom < 0)tMin = Math.max(tMin, (rowMax - sy0) / dBottom);
+            if(dTop > 0)tMin = Math.max(tMin, (rowMin - sy1) / dTop);
+            else if(dTop < 0)tMax = Math.min(tMax, (rowMin - sy1) / dTop);
+            tMin = Math.max(0, tMin - T_EPSILON);
+            tMax = Math.min(1, tMax + T_EPSILON);
+            if(tMin > tMax){
+                //can only happen through rounding, the row is kept as a whole to stay conservative
+                tMin = 0;
+                tMax = 1;
+            }
+            //the horizontal edges are linear in t, so their extremes are reached at the interval borders
+            float left = Math.min(lerp(sx0, gx0, tMin), lerp(sx0, gx0, tMax));
+            float right = Math.max(lerp(sx1, gx1, tMin), lerp(sx1, gx1, tMax));
+            minColumns[r] = KleeHelper.chunkFloor(left * invChunkSize);
+            maxColumns[r] = KleeHelper.chunkFloor(right * invChunkSize);
+        }
+        return this;
+    }
+
+    private static float lerp(float from, float to, float t){
+        //keeping the exact values at the ends, so the first and last row match the rectangles
+        if(t <= 0)return from;
+        if(t >= 1)return to;
+        return from + (to - from) * t;
+    }
+
+    /**
+     * @return The amount of chunk rows the corridor is spread over.
+     */
+    public int getRowCount(){
+        return rowCount;
+    }
+
+    /**
+     * @param row The index of the row, from {@code 0} to {@link #getRowCount()} (exclusive).
+     * @return The chunkY of the row.
+     */
+    public int getChunkY(int row){
+        return firstRow + row;
+    }
+
+    /**
+     * @param row The index of the row.
+     * @return The smallest chunkX the corridor touches in the row.
+     */
+    public int getMinChunkX(int row){
+        return minColumns[row];
+    }
+
+    /**
+     * @param row The index of the row.
+     * @return The biggest chunkX the corridor touches in the row (inclusive).
+     */
+    public int getMaxChunkX(int row){
+        return maxColumns[row];
+    }
+
+}
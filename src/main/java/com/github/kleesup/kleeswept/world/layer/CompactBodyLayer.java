@@ -0,0 +1,237 @@
+package com.github.kleesup.kleeswept.world.layer;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.LongMap;
+import com.github.kleesup.kleeswept.KleeHelper;
+import com.github.kleesup.kleeswept.world.body.ISweptBody;
+
+import java.util.Arrays;
+
+/**
+ * A low-memory {@link IBodyLayer} for huge amounts of small static bodies (e.g. debris or particles).
+ * Every body is only stored in the chunk containing its position, as four unsigned 16-bit values next to the body
+ * reference: the position as an offset relative to the chunk origin and the size quantised to a grid. A body therefore
+ * costs 8 bytes for its bounding box (half of a float layout) plus its reference, instead of a {@link Rectangle},
+ * a map entry and a set entry per chunk in the world. The bounding boxes are decoded on the fly while querying.
+ * As every chunk has a small fixed overhead, the chunk size should be chosen so that the chunks hold many bodies.
+ * <p>
+ * Precision: the stored bounding box always contains the actual one. Its lower edges are at most
+ * {@code chunkSize / 65536} (see {@link #getPositionStep()}) and its upper edges at most one {@code sizeGrid} further
+ * out (plus the float rounding of the coordinates themselves). With a chunk size of 16 this is a position step of
+ * 1/4096. Bodies cannot be larger than {@code 65535 * sizeGrid} (see {@link #getMaxSize()}).
+ * </p>
+ * The class is NOT Thread-Safe!
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+public class CompactBodyLayer<Body extends ISweptBody> implements IBodyLayer<Body> {
+
+    private static final int MAX_VALUE = 0xFFFF;
+
+    private final int chunkSize;
+    private final float invChunkSize;
+    private final float positionStep;
+    private final float sizeGrid;
+    private final LongMap<Chunk> chunks = new LongMap<>();
+    //the biggest sizes ever added, bodies reach at most this far out of their chunk
+    private float maxWidth, maxHeight;
+    private int size;
+
+    /**
+     * @param chunkSize The size of the chunks, which also defines the precision of the positions.
+     * @param sizeGrid The grid the sizes of the bodies are rounded up to.
+     */
+    public CompactBodyLayer(int chunkSize, float sizeGrid) {
+        if(chunkSize < 1)throw new IllegalArgumentException("The chunk size cannot be smaller than 1!");
+        if(!(sizeGrid > 0) || Float.isInfinite(sizeGrid))throw new IllegalArgumentException("The size grid has to be a finite number > 0!");
+        this.chunkSize = chunkSize;
+        this.invChunkSize = 1f / chunkSize;
+        this.positionStep = chunkSize / (float) (MAX_VALUE + 1);
+        this.sizeGrid = sizeGrid;
+    }
+
+    @Override
+    public void add(Body body, float x, float y, float width, float height) {
+        KleeHelper.paramRequireNonNull(body, "Body cannot be null!");
+        if(!(width >= 0) || !(height >= 0))throw new IllegalArgumentException("The size of a body cannot be negative!");
+        int chunkX = chunkOf(x), chunkY = chunkOf(y);
+        int offsetX = encodeOffset(x, chunkX), offsetY = encodeOffset(y, chunkY);
+        int quantisedWidth = encodeSize(decode(chunkX, offsetX), x + width);
+        int quantisedHeight = encodeSize(decode(chunkY, offsetY), y + height);
+        long key = KleeHelper.pairLong(chunkX, chunkY);
+        Chunk chunk = chunks.get(key);
+        if(chunk == null)chunks.put(key, chunk = new Chunk(chunkX, chunkY));
+        chunk.add(body, offsetX, offsetY, quantisedWidth, quantisedHeight);
+        maxWidth = Math.max(maxWidth, quantisedWidth * sizeGrid);
+        maxHeight = Math.max(maxHeight, quantisedHeight * sizeGrid);
+        size++;
+    }
+
+    @Override
+    public boolean remove(Body body, float x, float y) {
+        long key = KleeHelper.pairLong(chunkOf(x), chunkOf(y));
+        Chunk chunk = chunks.get(key);
+        if(chunk == null || !chunk.remove(body))return false;
+        if(chunk.size == 0)chunks.remove(key);
+        size--;
+        return true;
+    }
+
+    @Override
+    public int query(Rectangle area, Array<? super Body> out, FloatArray boxes) {
+        int minChunkX = chunkOf(area.x - maxWidth), maxChunkX = chunkOf(area.x + area.width);
+        int minChunkY = chunkOf(area.y - maxHeight), maxChunkY = chunkOf(area.y + area.height);
+        int found = 0;
+        if((long) (maxChunkX - minChunkX + 1) * (maxChunkY - minChunkY + 1) > chunks.size){
+            //a huge area contains more chunk coordinates than there are chunks
+            for(Chunk chunk : chunks.values()){
+                if(chunk.x < minChunkX || chunk.x > maxChunkX || chunk.y < minChunkY || chunk.y > maxChunkY)continue;
+                found += query(chunk, area, out, boxes);
+            }
+            return found;
+        }
+        for(int chunkY = minChunkY; chunkY <= maxChunkY; chunkY++){
+            for(int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++){
+                Chunk chunk = chunks.get(KleeHelper.pairLong(chunkX, chunkY));
+                if(chunk != null)found += query(chunk, area, out, boxes);
+            }
+        }
+        return found;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int query(Chunk chunk, Rectangle area, Array<? super Body> out, FloatArray boxes){
+        float maxX = area.x + area.width, maxY = area.y + area.height;
+        float originX = origin(chunk.x), originY = origin(chunk.y);
+        short[] data = chunk.data;
+        int found = 0;
+        for(int i = 0; i < chunk.size; i++){
+            float x = originX + (data[i * 4] & MAX_VALUE) * positionStep;
+            if(x >= maxX)continue;
+            float y = originY + (data[i * 4 + 1] & MAX_VALUE) * positionStep;
+            if(y >= maxY)continue;
+            float width = (data[i * 4 + 2] & MAX_VALUE) * sizeGrid;
+            float height = (data[i * 4 + 3] & MAX_VALUE) * sizeGrid;
+            if(x + width <= area.x || y + height <= area.y)continue;
+            out.add((Body) chunk.bodies[i]);
+            boxes.add(x, y, width, height);
+            found++;
+        }
+        return found;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        chunks.clear();
+        maxWidth = maxHeight = 0;
+        size = 0;
+    }
+
+    private int chunkOf(float value){
+        int chunk = KleeHelper.chunkFloor(value * invChunkSize);
+        //the multiplication might round up to the next chunk
+        if(origin(chunk) > value)chunk--;
+        return chunk;
+    }
+
+    private float origin(int chunk){
+        return (float) chunk * chunkSize;
+    }
+
+    private float decode(int chunk, int offset){
+        return origin(chunk) + offset * positionStep;
+    }
+
+    /**
+     * @return The biggest offset whose decoded value isn't bigger than the given one.
+     */
+    private int encodeOffset(float value, int chunk){
+        int offset = Math.min((int) ((value - origin(chunk)) / positionStep), MAX_VALUE);
+        while(offset > 0 && decode(chunk, offset) > value)offset--;
+        return offset;
+    }
+
+    /**
+     * @return The smallest quantised size which reaches the given maximum from the decoded minimum.
+     */
+    private int encodeSize(float decodedMin, float max){
+        int quantised = (int) Math.ceil((max - decodedMin) / sizeGrid);
+        while(decodedMin + quantised * sizeGrid < max)quantised++;
+        if(quantised > MAX_VALUE)throw new IllegalArgumentException("The body is too big for the size grid, the maximum size is " + getMaxSize() + "!");
+        return quantised;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @return The resolution of the stored positions, {@code chunkSize / 65536}.
+     */
+    public float getPositionStep() {
+        return positionStep;
+    }
+
+    public float getSizeGrid() {
+        return sizeGrid;
+    }
+
+    /**
+     * @return The biggest width or height a body can have.
+     */
+    public float getMaxSize(){
+        return MAX_VALUE * sizeGrid;
+    }
+
+    /**
+     * The bodies whose position lies in a single chunk, with their quantised boxes stored as
+     * (offsetX, offsetY, width, height).
+     */
+    private static final class Chunk {
+        final int x, y;
+        short[] data = new short[16];
+        Object[] bodies = new Object[4];
+        int size;
+
+        Chunk(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        void add(Object body, int offsetX, int offsetY, int width, int height){
+            if(size == bodies.length){
+                bodies = Arrays.copyOf(bodies, size << 1);
+                data = Arrays.copyOf(data, size << 3);
+            }
+            bodies[size] = body;
+            data[size * 4] = (short) offsetX;
+            data[size * 4 + 1] = (short) offsetY;
+            data[size * 4 + 2] = (short) width;
+            data[size * 4 + 3] = (short) height;
+            size++;
+        }
+
+        boolean remove(Object body){
+            for(int i = 0; i < size; i++){
+                if(bodies[i] != body)continue;
+                //the last body takes the free place
+                int last = --size;
+                bodies[i] = bodies[last];
+                System.arraycopy(data, last * 4, data, i * 4, 4);
+                bodies[last] = null;
+                return true;
+            }
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.github.kleesup.kleeswept.world.layer;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.github.kleesup.kleeswept.world.body.ISweptBody;
+
+/**
+ * An interface for stores of static bodies which are kept outside the body map of a world, e.g. to hold millions
+ * of bodies with less memory. A layer can be attached to a world
+ * (see {@link com.github.kleesup.kleeswept.world.SimpleCollisionWorld#setLayer(IBodyLayer)}), whose simulations then
+ * collide with the bodies of the layer like with any other static body.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+public interface IBodyLayer<Body extends ISweptBody> {
+
+    /**
+     * Adds a body to the layer. A body may only be added once.
+     * @param body The body to add.
+     * @param x The x of the bounding box.
+     * @param y The y of the bounding box.
+     * @param width The width of the bounding box.
+     * @param height The height of the bounding box.
+     */
+    void add(Body body, float x, float y, float width, float height);
+
+    /**
+     * Removes a body from the layer.
+     * @param body The body to remove.
+     * @param x The x of the bounding box the body was added with.
+     * @param y The y of the bounding box the body was added with.
+     * @return Whether the body was found.
+     */
+    boolean remove(Body body, float x, float y);
+
+    /**
+     * Appends all bodies whose (stored) bounding boxes overlap an area, using the same test as
+     * {@link Rectangle#overlaps(Rectangle)}. Every body is only found once.
+     * @param area The area to search.
+     * @param out The array the bodies are appended to.
+     * @param boxes The array the bounding boxes of the bodies are appended to (x, y, width, height).
+     * @return The amount of appended bodies.
+     */
+    int query(Rectangle area, Array<? super Body> out, FloatArray boxes);
+
+    /**
+     * @return The amount of bodies in the layer.
+     */
+    int size();
+
+    /**
+     * Removes all bodies from the layer.
+     */
+    void clear();
+
+}
@@ -0,0 +1,317 @@
+package com.github.kleesup.kleeswept.world.layer;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.github.kleesup.kleeswept.KleeHelper;
+import com.github.kleesup.kleeswept.util.DirectMemory;
+import com.github.kleesup.kleeswept.world.body.ISweptBody;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * An {@link IBodyLayer} for tens of millions of static bodies, which keeps the bounding boxes and the chunk membership
+ * lists outside the Java heap in direct {@link ByteBuffer}s. The heap only holds the bodies themselves and a single
+ * array referencing them, so the garbage collector doesn't have to mark any per-body objects.
+ * <p>
+ * Every body is a record of its bounding box (4 floats, full precision) and the index of the next body in the same
+ * chunk. A body is only part of the chunk containing its position. The chunks are kept in an open-addressing hash
+ * table of (chunk key, first body, body count) entries, which is off-heap as well.
+ * </p>
+ * The memory is allocated when the layer grows and is only released by {@link #close()} (see
+ * {@link DirectMemory#free(ByteBuffer)}), after which the layer cannot be used anymore. Closing an attached layer
+ * should therefore only happen after it was detached from the world.
+ * The class is NOT Thread-Safe!
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+public class OffHeapBodyLayer<Body extends ISweptBody> implements IBodyLayer<Body>, AutoCloseable {
+
+    //body record: x, y, width, height, next
+    private static final int RECORD_BYTES = 20;
+    private static final int NEXT = 16;
+    //chunk entry: key, first body, body count (-1 if the entry is unused)
+    private static final int ENTRY_BYTES = 16;
+    private static final int HEAD = 8, COUNT = 12;
+    private static final int NONE = -1;
+    private static final int MAX_BODIES = Integer.MAX_VALUE / RECORD_BYTES;
+
+    private final int chunkSize;
+    private final float invChunkSize;
+
+    private ByteBuffer records;
+    private Object[] bodies;
+    private int usedRecords;
+    private int freeRecord = NONE; //free records are linked through their next index
+
+    private ByteBuffer table;
+    private int tableMask;
+    private int chunkCount; //used entries, including the ones of chunks that became empty
+
+    //the biggest sizes ever added, bodies reach at most this far out of their chunk
+    private float maxWidth, maxHeight;
+    private int size;
+
+    /**
+     * @param chunkSize The size of the chunks.
+     * @param initialCapacity The amount of bodies the layer can hold before it has to grow.
+     */
+    public OffHeapBodyLayer(int chunkSize, int initialCapacity) {
+        if(chunkSize < 1)throw new IllegalArgumentException("The chunk size cannot be smaller than 1!");
+        if(initialCapacity < 1 || initialCapacity > MAX_BODIES)throw new IllegalArgumentException("The initial capacity has to be between 1 and " + MAX_BODIES + "!");
+        this.chunkSize = chunkSize;
+        this.invChunkSize = 1f / chunkSize;
+        records = DirectMemory.allocate(initialCapacity * RECORD_BYTES);
+        bodies = new Object[initialCapacity];
+        allocateTable(64);
+    }
+    public OffHeapBodyLayer(int chunkSize) {
+        this(chunkSize, 1024);
+    }
+
+    @Override
+    public void add(Body body, float x, float y, float width, float height) {
+        KleeHelper.paramRequireNonNull(body, "Body cannot be null!");
+        if(!(width >= 0) || !(height >= 0))throw new IllegalArgumentException("The size of a body cannot be negative!");
+        ensureOpen();
+        int record = obtainRecord();
+        bodies[record] = body;
+        int base = record * RECORD_BYTES;
+        records.putFloat(base, x);
+        records.putFloat(base + 4, y);
+        records.putFloat(base + 8, width);
+        records.putFloat(base + 12, height);
+        int entry = obtainEntry(KleeHelper.pairLong(chunkOf(x), chunkOf(y)));
+        records.putInt(base + NEXT, table.getInt(entry + HEAD));
+        table.putInt(entry + HEAD, record);
+        table.putInt(entry + COUNT, table.getInt(entry + COUNT) + 1);
+        maxWidth = Math.max(maxWidth, width);
+        maxHeight = Math.max(maxHeight, height);
+        size++;
+    }
+
+    @Override
+    public boolean remove(Body body, float x, float y) {
+        ensureOpen();
+        int entry = findEntry(KleeHelper.pairLong(chunkOf(x), chunkOf(y)));
+        if(entry < 0)return false;
+        int previous = NONE;
+        for(int record = table.getInt(entry + HEAD); record != NONE; record = records.getInt(record * RECORD_BYTES + NEXT)){
+            if(bodies[record] != body){
+                previous = record;
+                continue;
+            }
+            int next = records.getInt(record * RECORD_BYTES + NEXT);
+            if(previous == NONE)table.putInt(entry + HEAD, next);
+            else records.putInt(previous * RECORD_BYTES + NEXT, next);
+            table.putInt(entry + COUNT, table.getInt(entry + COUNT) - 1);
+            bodies[record] = null;
+            records.putInt(record * RECORD_BYTES + NEXT, freeRecord);
+            freeRecord = record;
+            size--;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int query(Rectangle area, Array<? super Body> out, FloatArray boxes) {
+        ensureOpen();
+        int minChunkX = chunkOf(area.x - maxWidth), maxChunkX = chunkOf(area.x + area.width);
+        int minChunkY = chunkOf(area.y - maxHeight), maxChunkY = chunkOf(area.y + area.height);
+        int found = 0;
+        if((long) (maxChunkX - minChunkX + 1) * (maxChunkY - minChunkY + 1) > chunkCount){
+            //a huge area contains more chunk coordinates than there are chunks
+            for(int entry = 0; entry <= tableMask * ENTRY_BYTES; entry += ENTRY_BYTES){
+                if(table.getInt(entry + COUNT) <= 0)continue;
+                long key = table.getLong(entry);
+                int chunkX = (int) key, chunkY = (int) (key >>> 32);
+                if(chunkX < minChunkX || chunkX > maxChunkX || chunkY < minChunkY || chunkY > maxChunkY)continue;
+                found += query(entry, area, out, boxes);
+            }
+            return found;
+        }
+        for(int chunkY = minChunkY; chunkY <= maxChunkY; chunkY++){
+            for(int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++){
+                int entry = findEntry(KleeHelper.pairLong(chunkX, chunkY));
+                if(entry >= 0)found += query(entry, area, out, boxes);
+            }
+        }
+        return found;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int query(int entry, Rectangle area, Array<? super Body> out, FloatArray boxes){
+        float maxX = area.x + area.width, maxY = area.y + area.height;
+        int found = 0;
+        for(int record = table.getInt(entry + HEAD); record != NONE; record = records.getInt(record * RECORD_BYTES + NEXT)){
+            int base = record * RECORD_BYTES;
+            float x = records.getFloat(base), y = records.getFloat(base + 4);
+            if(x >= maxX || y >= maxY)continue;
+            float width = records.getFloat(base + 8), height = records.getFloat(base + 12);
+            if(x + width <= area.x || y + height <= area.y)continue;
+            out.add((Body) bodies[record]);
+            boxes.add(x, y, width, height);
+            found++;
+        }
+        return found;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        ensureOpen();
+        Arrays.fill(bodies, 0, usedRecords, null);
+        usedRecords = 0;
+        freeRecord = NONE;
+        clearTable();
+        maxWidth = maxHeight = 0;
+        size = 0;
+    }
+
+    /**
+     * Releases all memory of the layer. The layer cannot be used anymore afterwards, calling this method again
+     * does nothing.
+     */
+    @Override
+    public void close() {
+        if(records == null)return;
+        DirectMemory.free(records);
+        DirectMemory.free(table);
+        records = table = null;
+        bodies = null;
+        size = 0;
+    }
+
+    public boolean isClosed(){
+        return records == null;
+    }
+
+    /**
+     * @return The amount of bytes that are currently allocated outside the heap.
+     */
+    public long getOffHeapBytes(){
+        return isClosed() ? 0 : (long) records.capacity() + table.capacity();
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    private void ensureOpen(){
+        if(records == null)throw new IllegalStateException("The layer is closed!");
+    }
+
+    private int chunkOf(float value){
+        return KleeHelper.chunkFloor(value * invChunkSize);
+    }
+
+    /*
+    Records
+    */
+
+    private int obtainRecord(){
+        if(freeRecord != NONE){
+            int record = freeRecord;
+            freeRecord = records.getInt(record * RECORD_BYTES + NEXT);
+            return record;
+        }
+        if(usedRecords == bodies.length){
+            if(usedRecords == MAX_BODIES)throw new IllegalStateException("The layer cannot hold more than " + MAX_BODIES + " bodies!");
+            int capacity = (int) Math.min((long) usedRecords << 1, MAX_BODIES);
+            records = copy(records, capacity * RECORD_BYTES);
+            bodies = Arrays.copyOf(bodies, capacity);
+        }
+        return usedRecords++;
+    }
+
+    private static ByteBuffer copy(ByteBuffer from, int capacity){
+        ByteBuffer to = DirectMemory.allocate(capacity);
+        ByteBuffer source = from.duplicate();
+        source.clear();
+        to.put(source);
+        DirectMemory.free(from);
+        return to;
+    }
+
+    /*
+    Chunk table
+    */
+
+    private void allocateTable(int capacity){
+        table = DirectMemory.allocate(capacity * ENTRY_BYTES);
+        tableMask = capacity - 1;
+        clearTable();
+    }
+
+    private void clearTable(){
+        for(int entry = 0; entry <= tableMask * ENTRY_BYTES; entry += ENTRY_BYTES){
+            table.putInt(entry + HEAD, NONE);
+            table.putInt(entry + COUNT, -1);
+        }
+        chunkCount = 0;
+    }
+
+    private int slot(long key){
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ hash >>> 32) & tableMask;
+    }
+
+    /**
+     * @return The offset of the entry of a chunk, {@code -1} if the chunk never contained a body.
+     */
+    private int findEntry(long key){
+        for(int slot = slot(key); ; slot = (slot + 1) & tableMask){
+            int entry = slot * ENTRY_BYTES;
+            if(table.getInt(entry + COUNT) < 0)return -1;
+            if(table.getLong(entry) == key)return entry;
+        }
+    }
+
+    /**
+     * @return The offset of the entry of a chunk, which is created if necessary. Entries of empty chunks are kept,
+     * so bodies moving in and out of a chunk don't change the table.
+     */
+    private int obtainEntry(long key){
+        int entry = findEntry(key);
+        if(entry >= 0)return entry;
+        //keeping the load factor below 0.5
+        if((chunkCount + 1) * 2 > tableMask + 1)growTable();
+        int slot = slot(key);
+        while(table.getInt(slot * ENTRY_BYTES + COUNT) >= 0)slot = (slot + 1) & tableMask;
+        entry = slot * ENTRY_BYTES;
+        table.putLong(entry, key);
+        table.putInt(entry + HEAD, NONE);
+        table.putInt(entry + COUNT, 0);
+        chunkCount++;
+        return entry;
+    }
+
+    private void growTable(){
+        ByteBuffer old = table;
+        int oldCapacity = tableMask + 1;
+        if((long) oldCapacity * 2 * ENTRY_BYTES > Integer.MAX_VALUE)throw new IllegalStateException("The layer cannot hold more chunks!");
+        allocateTable(oldCapacity << 1);
+        for(int entry = 0; entry < oldCapacity * ENTRY_BYTES; entry += ENTRY_BYTES){
+            int count = old.getInt(entry + COUNT);
+            if(count <= 0)continue; //empty chunks are dropped while growing
+            long key = old.getLong(entry);
+            int slot = slot(key);
+            while(table.getInt(slot * ENTRY_BYTES + COUNT) >= 0)slot = (slot + 1) & tableMask;
+            int moved = slot * ENTRY_BYTES;
+            table.putLong(moved, key);
+            table.putInt(moved + HEAD, old.getInt(entry + HEAD));
+            table.putInt(moved + COUNT, count);
+            chunkCount++;
+        }
+        DirectMemory.free(old);
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.github.kleesup.kleeswept.world.trace;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The binary format of a trace written by {@link TraceRecorder} and read by {@link TraceReplay}.
+ * <p>
+ * A trace starts with {@link #MAGIC} and {@link #VERSION}, followed by one record per call. Every record starts with
+ * its op code and the id of the body (as var-int):
+ * <ul>
+ *     <li>{@link #OP_ADD}, {@link #OP_FORCE_UPDATE}: x, y, width, height</li>
+ *     <li>{@link #OP_REMOVE}: nothing</li>
+ *     <li>{@link #OP_UPDATE}, {@link #OP_SIMULATE}: a flag byte ({@link #FLAG_NO_DISPLACEMENT}), displacement x and y,
+ *     width, height, then the response: best goal x and y, updated displacement x and y, the amount of collisions
+ *     (var-int) and per collision the target id (var-int, {@code -1} if unknown), normal x and y (bytes), the hit time
+ *     and a flag byte ({@link #FLAG_OVERLAPPING}, {@link #FLAG_RESOLVED})</li>
+ * </ul>
+ * All floats are written with their exact bits, so a replay can be verified bit by bit.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+final class TraceFormat {
+
+    private TraceFormat(){}
+
+    static final int MAGIC = 0x4B535452; //"KSTR"
+    static final int VERSION = 1;
+
+    static final byte OP_ADD = 0;
+    static final byte OP_REMOVE = 1;
+    static final byte OP_FORCE_UPDATE = 2;
+    static final byte OP_UPDATE = 3;
+    static final byte OP_SIMULATE = 4;
+
+    static final byte FLAG_NO_DISPLACEMENT = 1;
+    static final byte FLAG_OVERLAPPING = 1;
+    static final byte FLAG_RESOLVED = 1 << 1;
+
+    /**
+     * Writes an int with 7 bits per byte, small values (like ids and counts) only take a single byte.
+     * Negative values are zig-zag encoded first.
+     */
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        int v = (value << 1) ^ (value >> 31);
+        while((v & ~0x7F) != 0){
+            out.writeByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte(v);
+    }
+
+    static int readVarInt(DataInput in) throws IOException {
+        int v = 0, shift = 0;
+        byte b;
+        do{
+            if(shift > 28)throw new IOException("Malformed var-int in trace!");
+            b = in.readByte();
+            v |= (b & 0x7F) << shift;
+            shift += 7;
+        }while((b & 0x80) != 0);
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+}
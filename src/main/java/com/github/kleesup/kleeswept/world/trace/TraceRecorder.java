@@ -0,0 +1,255 @@
+package com.github.kleesup.kleeswept.world.trace;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.github.kleesup.kleeswept.KleeHelper;
+import com.github.kleesup.kleeswept.world.CollisionResponse;
+import com.github.kleesup.kleeswept.world.CollisionWorld;
+import com.github.kleesup.kleeswept.world.body.ISweptBody;
+
+import java.io.*;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * A {@link CollisionWorld} wrapper that records every {@code addBody}, {@code removeBody}, {@code forceUpdate},
+ * {@code update} and {@code simulate} call (including the responses) into a compact binary trace, while passing the
+ * calls on to the wrapped world. The trace can be re-executed against any world with {@link TraceReplay}, so
+ * different implementations can be compared on a real workload.
+ * Bodies are identified by an id assigned the first time they are added, a body that is added again keeps its id.
+ * Bodies that were already contained in the world before it was wrapped are recorded as added (with their current
+ * bounding box) right before the first call involving them, either as the moved body or as the target of a collision.
+ * As they are added to the replayed world in a different order, collisions of such bodies with equal hit times might
+ * be ordered differently in a replay.
+ * The recorder has to be closed to flush the trace. The class is NOT Thread-Safe!
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.1
+ * @since 1.2
+ */
+public class TraceRecorder<Body extends ISweptBody> implements CollisionWorld<Body>, Closeable {
+
+    private final CollisionWorld<Body> world;
+    private final DataOutputStream out;
+    private final IdentityHashMap<ISweptBody, Integer> ids = new IdentityHashMap<>();
+    private int recorded;
+
+    //temporary fields which can be reused for less object heap.
+    private final Rectangle _box = new Rectangle();
+
+    /**
+     * @param world The world to record the calls of.
+     * @param out The stream to write the trace into, it is closed together with the recorder.
+     */
+    public TraceRecorder(CollisionWorld<Body> world, OutputStream out) {
+        KleeHelper.paramRequireNonNull(world, "World cannot be null!");
+        KleeHelper.paramRequireNonNull(out, "Output stream cannot be null!");
+        this.world = world;
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        try{
+            this.out.writeInt(TraceFormat.MAGIC);
+            this.out.writeInt(TraceFormat.VERSION);
+        }catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+    public TraceRecorder(CollisionWorld<Body> world, File file) throws FileNotFoundException {
+        this(world, new FileOutputStream(file));
+    }
+
+    @Override
+    public void addBody(Body body, Rectangle boundingBox) {
+        KleeHelper.paramRequireNonNull(boundingBox, "Bounding box cannot be null!");
+        addBody(body, boundingBox.x, boundingBox.y, boundingBox.width, boundingBox.height);
+    }
+
+    @Override
+    public void addBody(Body body, float bbX, float bbY, float bbWidth, float bbHeight) {
+        KleeHelper.paramRequireNonNull(body, "Body cannot be null!");
+        boolean added = !world.contains(body);
+        world.addBody(body, bbX, bbY, bbWidth, bbHeight);
+        if(!added)return; //adding a contained body does nothing
+        Integer id = ids.get(body);
+        if(id == null)ids.put(body, id = ids.size());
+        try{
+            begin(TraceFormat.OP_ADD, id);
+            writeBox(bbX, bbY, bbWidth, bbHeight);
+        }catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Rectangle removeBody(Body body) {
+        if(!world.contains(body))return world.removeBody(body);
+        try{
+            int id = idOf(body);
+            Rectangle removed = world.removeBody(body);
+            begin(TraceFormat.OP_REMOVE, id);
+            return removed;
+        }catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean contains(Body body) {
+        return world.contains(body);
+    }
+
+    @Override
+    public Rectangle getBoundingBox(Body body) {
+        return world.getBoundingBox(body);
+    }
+
+    @Override
+    public Rectangle getBoundingBox(Body body, Rectangle writeTo) {
+        return world.getBoundingBox(body, writeTo);
+    }
+
+    @Override
+    public CollisionResponse update(Body body, Vector2 displacement, float width, float height, CollisionResponse writeTo) {
+        int id = register(body);
+        CollisionResponse response = world.update(body, displacement, width, height, writeTo);
+        record(TraceFormat.OP_UPDATE, id, displacement, width, height, response);
+        return response;
+    }
+
+    @Override
+    public CollisionResponse update(Body body, Vector2 displacement, CollisionResponse response) {
+        Rectangle box = world.getBoundingBox(body, _box);
+        return update(body, displacement, box.width, box.height, response);
+    }
+
+    @Override
+    public CollisionResponse simulate(Body body, Vector2 displacement, float width, float height, CollisionResponse writeTo) {
+        int id = register(body);
+        CollisionResponse response = world.simulate(body, displacement, width, height, writeTo);
+        record(TraceFormat.OP_SIMULATE, id, displacement, width, height, response);
+        return response;
+    }
+
+    @Override
+    public CollisionResponse simulate(Body body, Vector2 displacement, CollisionResponse writeTo) {
+        Rectangle box = world.getBoundingBox(body, _box);
+        return simulate(body, displacement, box.width, box.height, writeTo);
+    }
+
+    @Override
+    public void forceUpdate(Body body, float goalX, float goalY, float width, float height) {
+        int id = register(body);
+        Rectangle box = world.getBoundingBox(body, _box);
+        //the world ignores updates that don't change the bounding box
+        boolean changed = goalX != box.x || goalY != box.y || width != box.width || height != box.height;
+        world.forceUpdate(body, goalX, goalY, width, height);
+        if(!changed)return;
+        try{
+            begin(TraceFormat.OP_FORCE_UPDATE, id);
+            writeBox(goalX, goalY, width, height);
+        }catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void forceUpdate(Body body, float goalX, float goalY) {
+        Rectangle box = world.getBoundingBox(body, _box);
+        forceUpdate(body, goalX, goalY, box.width, box.height);
+    }
+
+    /**
+     * Retrieves the id of a body, a body that was added before the world was wrapped is recorded as added first.
+     * Bodies that aren't contained in the world (and never were) are passed on to the world, which rejects them.
+     * @return The id of the body, {@code -1} if it is unknown and not contained in the world.
+     */
+    private int register(Body body){
+        try{
+            return idOf(body);
+        }catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int idOf(ISweptBody body) throws IOException {
+        Integer id = ids.get(body);
+        if(id != null)return id;
+        @SuppressWarnings("unchecked")
+        Body contained = (Body) body;
+        if(body == null || !world.contains(contained))return -1;
+        ids.put(body, id = ids.size());
+        Rectangle box = world.getBoundingBox(contained, _box);
+        begin(TraceFormat.OP_ADD, id);
+        writeBox(box.x, box.y, box.width, box.height);
+        return id;
+    }
+
+    private void begin(byte op, int id) throws IOException {
+        out.writeByte(op);
+        TraceFormat.writeVarInt(out, id);
+        recorded++;
+    }
+
+    private void writeBox(float x, float y, float width, float height) throws IOException {
+        out.writeFloat(x);
+        out.writeFloat(y);
+        out.writeFloat(width);
+        out.writeFloat(height);
+    }
+
+    private void record(byte op, int id, Vector2 displacement, float width, float height, CollisionResponse response){
+        try{
+            List<CollisionResponse.Collision> collisions = response.getCollisions();
+            //targets that were added before the world was wrapped have to be known before the record is replayed
+            for(CollisionResponse.Collision collision : collisions)idOf(collision.target);
+            begin(op, id);
+            out.writeByte(displacement == null ? TraceFormat.FLAG_NO_DISPLACEMENT : 0);
+            out.writeFloat(displacement == null ? 0 : displacement.x);
+            out.writeFloat(displacement == null ? 0 : displacement.y);
+            out.writeFloat(width);
+            out.writeFloat(height);
+            out.writeFloat(response.bestGoalX);
+            out.writeFloat(response.bestGoalY);
+            out.writeFloat(response.updatedDisplacementX);
+            out.writeFloat(response.updatedDisplacementY);
+            TraceFormat.writeVarInt(out, collisions.size());
+            for(CollisionResponse.Collision collision : collisions){
+                Integer target = ids.get(collision.target);
+                TraceFormat.writeVarInt(out, target == null ? -1 : target);
+                out.writeByte(collision.normalX);
+                out.writeByte(collision.normalY);
+                out.writeFloat(collision.hitTime);
+                out.writeByte((collision.isOverlapping ? TraceFormat.FLAG_OVERLAPPING : 0)
+                        | (collision.resolved ? TraceFormat.FLAG_RESOLVED : 0));
+            }
+        }catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return The amount of calls recorded so far.
+     */
+    public int getRecordedCount() {
+        return recorded;
+    }
+
+    /**
+     * @return The wrapped world.
+     */
+    public CollisionWorld<Body> getWorld() {
+        return world;
+    }
+
+    /**
+     * Flushes the trace into the underlying stream.
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+}
@@ -0,0 +1,268 @@
+package com.github.kleesup.kleeswept.world.trace;
+
+import com.badlogic.gdx.math.Vector2;
+import com.github.kleesup.kleeswept.KleeHelper;
+import com.github.kleesup.kleeswept.world.CollisionResponse;
+import com.github.kleesup.kleeswept.world.CollisionWorld;
+import com.github.kleesup.kleeswept.world.ShardedCollisionWorld;
+import com.github.kleesup.kleeswept.world.SimpleCollisionWorld;
+import com.github.kleesup.kleeswept.world.body.ISweptBody;
+import com.github.kleesup.kleeswept.world.body.SweptBody;
+import com.github.kleesup.kleeswept.world.chunk.EfficientChunkManager;
+import com.github.kleesup.kleeswept.world.chunk.MortonChunkManager;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Re-executes a trace written by {@link TraceRecorder} against any {@link CollisionWorld}. Every call is timed, the
+ * result reports the throughput and the latency percentiles of the calls. The responses of all {@code update} and
+ * {@code simulate} calls are compared bit by bit with the recorded ones.
+ * <br>
+ * Can also be run from the command line: {@code TraceReplay <trace> [chunkSize] [efficient|morton]}, which replays the
+ * trace against a {@link SimpleCollisionWorld} of {@link SweptBody}s.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+public final class TraceReplay {
+
+    private TraceReplay(){}
+
+    /**
+     * Replays a trace.
+     * @param in The stream to read the trace from, it is not closed.
+     * @param world The world to replay the calls on, should be empty.
+     * @param bodyFactory Creates the body for an id the first time it is added.
+     * @return The result of the replay.
+     * @throws IOException If the trace couldn't be read.
+     */
+    public static <Body extends ISweptBody> Result replay(InputStream in, CollisionWorld<Body> world, IntFunction<Body> bodyFactory) throws IOException {
+        KleeHelper.paramRequireNonNull(world, "World cannot be null!");
+        KleeHelper.paramRequireNonNull(bodyFactory, "Body factory cannot be null!");
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if(data.readInt() != TraceFormat.MAGIC)throw new IOException("Not a trace!");
+        int version = data.readInt();
+        if(version != TraceFormat.VERSION)throw new IOException("Unsupported trace version " + version + "!");
+
+        Result result = new Result();
+        BodyTable<Body> bodies = new BodyTable<>(bodyFactory);
+        CollisionResponse response = new CollisionResponse();
+        Vector2 displacement = new Vector2();
+        int op;
+        while((op = data.read()) != -1){
+            Body body = bodies.get(TraceFormat.readVarInt(data));
+            long start, end;
+            switch (op){
+                case TraceFormat.OP_ADD: {
+                    float x = data.readFloat(), y = data.readFloat(), width = data.readFloat(), height = data.readFloat();
+                    start = System.nanoTime();
+                    world.addBody(body, x, y, width, height);
+                    end = System.nanoTime();
+                    break;
+                }
+                case TraceFormat.OP_REMOVE:
+                    start = System.nanoTime();
+                    world.removeBody(body);
+                    end = System.nanoTime();
+                    break;
+                case TraceFormat.OP_FORCE_UPDATE: {
+                    float x = data.readFloat(), y = data.readFloat(), width = data.readFloat(), height = data.readFloat();
+                    start = System.nanoTime();
+                    world.forceUpdate(body, x, y, width, height);
+                    end = System.nanoTime();
+                    break;
+                }
+                case TraceFormat.OP_UPDATE:
+                case TraceFormat.OP_SIMULATE: {
+                    boolean noDisplacement = (data.readByte() & TraceFormat.FLAG_NO_DISPLACEMENT) != 0;
+                    displacement.set(data.readFloat(), data.readFloat());
+                    float width = data.readFloat(), height = data.readFloat();
+                    Vector2 move = noDisplacement ? null : displacement;
+                    start = System.nanoTime();
+                    if(op == TraceFormat.OP_UPDATE)world.update(body, move, width, height, response);
+                    else world.simulate(body, move, width, height, response);
+                    end = System.nanoTime();
+                    if(!matches(data, response, bodies)){
+                        if(result.firstMismatch < 0)result.firstMismatch = result.calls;
+                        result.mismatches++;
+                    }
+                    free(world, response);
+                    break;
+                }
+                default:
+                    throw new IOException("Unknown op " + op + " in trace!");
+            }
+            result.add(end - start);
+        }
+        result.finish();
+        return result;
+    }
+
+    /**
+     * Reads the recorded response and compares it with the replayed one. The recorded data is always read completely.
+     */
+    private static boolean matches(DataInput data, CollisionResponse response, BodyTable<?> bodies) throws IOException {
+        boolean matches = same(data.readFloat(), response.bestGoalX) & same(data.readFloat(), response.bestGoalY)
+                & same(data.readFloat(), response.updatedDisplacementX) & same(data.readFloat(), response.updatedDisplacementY);
+        int count = TraceFormat.readVarInt(data);
+        List<CollisionResponse.Collision> collisions = response.getCollisions();
+        if(count != collisions.size())matches = false;
+        for(int i = 0; i < count; i++){
+            int target = TraceFormat.readVarInt(data);
+            byte normalX = data.readByte(), normalY = data.readByte();
+            float hitTime = data.readFloat();
+            byte flags = data.readByte();
+            if(i >= collisions.size())continue;
+            CollisionResponse.Collision collision = collisions.get(i);
+            byte replayedFlags = (byte) ((collision.isOverlapping ? TraceFormat.FLAG_OVERLAPPING : 0)
+                    | (collision.resolved ? TraceFormat.FLAG_RESOLVED : 0));
+            matches &= target == bodies.idOf(collision.target) && normalX == collision.normalX
+                    && normalY == collision.normalY && same(hitTime, collision.hitTime) && flags == replayedFlags;
+        }
+        return matches;
+    }
+
+    private static boolean same(float a, float b){
+        return Float.floatToRawIntBits(a) == Float.floatToRawIntBits(b);
+    }
+
+    private static void free(CollisionWorld<?> world, CollisionResponse response){
+        if(world instanceof SimpleCollisionWorld)((SimpleCollisionWorld<?>) world).free(response);
+        else if(world instanceof ShardedCollisionWorld)((ShardedCollisionWorld<?>) world).free(response);
+        else response.clear();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if(args.length < 1){
+            System.out.println("Usage: TraceReplay <trace> [chunkSize] [efficient|morton]");
+            return;
+        }
+        int chunkSize = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        boolean morton = args.length > 2 && args[2].equalsIgnoreCase("morton");
+        SimpleCollisionWorld<SweptBody> world = new SimpleCollisionWorld<>(chunkSize,
+                morton ? new MortonChunkManager<>() : new EfficientChunkManager<>());
+        try(InputStream in = new FileInputStream(args[0])){
+            System.out.println(replay(in, world, id -> new SweptBody()));
+        }
+    }
+
+    /**
+     * Maps the ids of a trace to the bodies of the replay and back.
+     */
+    private static final class BodyTable<Body extends ISweptBody> {
+        private final IntFunction<Body> factory;
+        private final IdentityHashMap<ISweptBody, Integer> ids = new IdentityHashMap<>();
+        private Object[] bodies = new Object[64];
+
+        BodyTable(IntFunction<Body> factory) {
+            this.factory = factory;
+        }
+
+        @SuppressWarnings("unchecked")
+        Body get(int id) throws IOException {
+            if(id < 0)throw new IOException("Invalid body id " + id + " in trace!");
+            if(id >= bodies.length)bodies = Arrays.copyOf(bodies, Math.max(id + 1, bodies.length << 1));
+            Body body = (Body) bodies[id];
+            if(body == null){
+                bodies[id] = body = factory.apply(id);
+                ids.put(body, id);
+            }
+            return body;
+        }
+
+        int idOf(ISweptBody body){
+            Integer id = ids.get(body);
+            return id == null ? -1 : id;
+        }
+    }
+
+    /**
+     * The result of a replay.
+     */
+    public static final class Result {
+        private long[] latencies = new long[1024];
+        private int calls;
+        private long totalNanos;
+        private int mismatches;
+        private int firstMismatch = -1;
+
+        private Result() {
+        }
+
+        private void add(long nanos){
+            if(calls == latencies.length)latencies = Arrays.copyOf(latencies, calls << 1);
+            latencies[calls++] = nanos;
+            totalNanos += nanos;
+        }
+
+        private void finish(){
+            Arrays.sort(latencies, 0, calls);
+        }
+
+        /**
+         * @return The amount of replayed calls.
+         */
+        public int getCalls() {
+            return calls;
+        }
+
+        /**
+         * @return The time spent in the world, in nanoseconds.
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * @return The replayed calls per second (only counting the time spent in the world).
+         */
+        public double getThroughput(){
+            return totalNanos == 0 ? 0 : calls * 1e9 / totalNanos;
+        }
+
+        /**
+         * @param percentile The percentile, between {@code 0} and {@code 100}.
+         * @return The latency of a call at that percentile, in nanoseconds.
+         */
+        public long getLatency(double percentile){
+            if(percentile < 0 || percentile > 100)throw new IllegalArgumentException("The percentile has to be between 0 and 100!");
+            if(calls == 0)return 0;
+            int index = (int) Math.ceil(percentile / 100 * calls) - 1;
+            return latencies[Math.max(0, Math.min(calls - 1, index))];
+        }
+
+        /**
+         * @return The amount of calls whose response differs from the recorded one.
+         */
+        public int getMismatches() {
+            return mismatches;
+        }
+
+        /**
+         * @return The index of the first call whose response differs from the recorded one, {@code -1} if none did.
+         */
+        public int getFirstMismatch() {
+            return firstMismatch;
+        }
+
+        /**
+         * @return Whether all responses matched the recorded ones.
+         */
+        public boolean isIdentical(){
+            return mismatches == 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("calls=%d, throughput=%.0f calls/s, p50=%dns, p90=%dns, p99=%dns, p99.9=%dns, max=%dns, %s",
+                    calls, getThroughput(), getLatency(50), getLatency(90), getLatency(99), getLatency(99.9), getLatency(100),
+                    isIdentical() ? "identical" : mismatches + " mismatches (first at call " + firstMismatch + ")");
+        }
+    }
+
+}
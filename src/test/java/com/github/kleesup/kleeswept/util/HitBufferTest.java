@@ -0,0 +1,60 @@
+package com.github.kleesup.kleeswept.util;
+
+import com.badlogic.gdx.math.Vector2;
+import com.github.kleesup.kleeswept.world.body.SweptBody;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that sorting a {@link HitBuffer} by rank gives the same order as sorting it with the sorter as comparator.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+public class HitBufferTest {
+
+    private static final float[] TIMES = {-0.0f, 0.0f, 0.25f, 0.5f, -0.5f};
+
+    @Test
+    public void negativeZeroTiesWithZero(){
+        CollisionSorter<SweptBody> sorter = CollisionSorter.buildSmallestTimeOrVelocity();
+        sorter.set(null, null, new Vector2(5, 1), 1, 1);
+        HitBuffer buffer = new HitBuffer();
+        buffer.add(null, 0, false, (byte) 0, (byte) 1, -0.0f);
+        buffer.add(null, 1, false, (byte) 1, (byte) 0, 0.0f);
+        assertTrue(buffer.sortByRank(sorter));
+        //both hits happen at the same time, so the x-normal is resolved first when moving mostly along x
+        assertEquals(1, buffer.getId(buffer.index(0)));
+        assertEquals(0, buffer.getId(buffer.index(1)));
+    }
+
+    @Test
+    public void rankOrderMatchesComparator(){
+        Random random = new Random(27);
+        Vector2[] displacements = {new Vector2(5, 1), new Vector2(1, 5), new Vector2(2, 2)};
+        for(int round = 0; round < 500; round++){
+            CollisionSorter<SweptBody> sorter = random.nextBoolean() ?
+                    CollisionSorter.buildSmallestTime() : CollisionSorter.buildSmallestTimeOrVelocity();
+            sorter.set(null, null, displacements[random.nextInt(displacements.length)], 1, 1);
+            HitBuffer ranked = new HitBuffer(), compared = new HitBuffer();
+            int hits = 1 + random.nextInt(40);
+            for(int id = 0; id < hits; id++){
+                byte normalX = (byte) (random.nextInt(3) - 1);
+                byte normalY = normalX == 0 ? (byte) (random.nextBoolean() ? 1 : -1) : 0;
+                float time = TIMES[random.nextInt(TIMES.length)];
+                ranked.add(null, id, false, normalX, normalY, time);
+                compared.add(null, id, false, normalX, normalY, time);
+            }
+            assertTrue(ranked.sortByRank(sorter));
+            compared.sort(sorter);
+            for(int i = 0; i < hits; i++){
+                assertEquals("round " + round, compared.getId(compared.index(i)), ranked.getId(ranked.index(i)));
+            }
+        }
+    }
+
+}
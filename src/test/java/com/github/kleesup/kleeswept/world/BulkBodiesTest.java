@@ -0,0 +1,185 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.github.kleesup.kleeswept.world.body.SweptBody;
+import com.github.kleesup.kleeswept.world.chunk.DenseChunkManager;
+import com.github.kleesup.kleeswept.world.chunk.MortonChunkManager;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that {@link SimpleCollisionWorld#addBodies(Object[], float[])} and
+ * {@link SimpleCollisionWorld#removeBodies(Object[])} leave the world exactly like single additions and removals.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.1
+ * @since 1.2
+ */
+public class BulkBodiesTest {
+
+    private static final int AREA = 200;
+
+    @Test
+    public void bulkMatchesSingleCalls(){
+        check(() -> new SimpleCollisionWorld<>(8));
+    }
+
+    @Test
+    public void bulkMatchesSingleCallsWithMortonChunkManager(){
+        //a tiny relayout interval, so the chunk sets are replaced in the middle of bulk calls
+        check(() -> new SimpleCollisionWorld<>(8, new MortonChunkManager<>(8)));
+    }
+
+    @Test
+    public void bulkMatchesSingleCallsWithDenseChunkManager(){
+        //the bounds only cover a part of the area, so the chunks outside are used as well
+        check(() -> new SimpleCollisionWorld<>(8, new DenseChunkManager<>(0, 0, 12, 12)));
+    }
+
+    @Test
+    public void bulkRemovalFromOneMortonChunk(){
+        SimpleCollisionWorld<SweptBody> world = new SimpleCollisionWorld<>(1000, new MortonChunkManager<>(8));
+        SweptBody[] bodies = new SweptBody[20];
+        float[] boxes = new float[bodies.length * 4];
+        for(int i = 0; i < bodies.length; i++){
+            bodies[i] = new SweptBody();
+            boxes[i * 4] = i * 2;
+            boxes[i * 4 + 2] = 1;
+            boxes[i * 4 + 3] = 1;
+        }
+        world.addBodies(bodies, boxes);
+        assertEquals(bodies.length, world.removeBodies(bodies));
+        SweptBody mover = new SweptBody();
+        world.addBody(mover, 0, 5, 1, 1);
+        assertTrue(world.simulate(mover, new Vector2(0, -10), new CollisionResponse()).getCollisions().isEmpty());
+    }
+
+    @Test
+    public void bulkAddedSensorsFindTheirContacts(){
+        SimpleCollisionWorld<SweptBody> world = new SimpleCollisionWorld<>(8);
+        world.setChangeFeedCapacity(16);
+        SweptBody zone = new SweptBody(){
+            @Override
+            public boolean isSensor() {
+                return true;
+            }
+        };
+        SweptBody inside = new SweptBody(), outside = new SweptBody();
+        //the sensor comes first, so its contacts are only found once the whole batch is in its chunks
+        assertEquals(3, world.addBodies(new SweptBody[]{zone, inside, outside}, new float[]{0, 0, 20, 20, 5, 5, 2, 2, 50, 50, 2, 2}));
+        Array<SweptBody> contacts = world.getSensorContacts(zone, new Array<>());
+        assertEquals(1, contacts.size);
+        assertSame(inside, contacts.first());
+        assertEquals(1, world.getSensorEvents().size());
+        assertEquals(SensorEvents.ENTER, world.getSensorEvents().getType(0));
+        int[] added = new int[1];
+        world.getChangeFeed().read(world.getChangeFeed().getOldestCursor(), (type, body, handle, x, y, width, height) -> {
+            if(type == ChangeFeed.ADDED)added[0]++;
+        });
+        assertEquals(3, added[0]);
+    }
+
+    private void check(Supplier<SimpleCollisionWorld<SweptBody>> factory){
+        Random random = new Random(11);
+        SimpleCollisionWorld<SweptBody> single = new SimpleCollisionWorld<>(8), bulk = factory.get();
+        single.setChunkBoundsEnabled(true);
+        bulk.setChunkBoundsEnabled(true);
+        List<SweptBody> bodies = new ArrayList<>();
+        for(int i = 0; i < 300; i++)bodies.add(new SweptBody());
+        Vector2 displacement = new Vector2();
+        for(int step = 0; step < 2000; step++){
+            //batches may contain duplicates and bodies that are (not) in the world already
+            SweptBody[] batch = new SweptBody[1 + random.nextInt(8)];
+            for(int i = 0; i < batch.length; i++)batch[i] = bodies.get(random.nextInt(bodies.size()));
+            int op = random.nextInt(3);
+            if(op == 0){
+                float[] boxes = new float[batch.length * 4];
+                for(int i = 0; i < boxes.length; i++)boxes[i] = i % 4 < 2 ? random.nextFloat() * AREA : 1 + random.nextFloat() * 6;
+                int added = 0;
+                for(int i = 0; i < batch.length; i++){
+                    if(single.contains(batch[i]))continue;
+                    single.addBody(batch[i], boxes[i * 4], boxes[i * 4 + 1], boxes[i * 4 + 2], boxes[i * 4 + 3]);
+                    added++;
+                }
+                assertEquals(added, bulk.addBodies(batch, boxes));
+            }else if(op == 1){
+                int removed = 0;
+                for(SweptBody body : batch){
+                    if(!single.contains(body))continue;
+                    single.removeBody(body);
+                    removed++;
+                }
+                assertEquals(removed, bulk.removeBodies(batch));
+            }else{
+                SweptBody body = batch[0];
+                if(!single.contains(body))continue;
+                displacement.set(random.nextFloat() * 30 - 15, random.nextFloat() * 30 - 15);
+                assertEquals("step " + step, describe(single.update(body, displacement)), describe(bulk.update(body, displacement)));
+            }
+            assertEquals("step " + step, snapshot(single, bodies), snapshot(bulk, bodies));
+        }
+    }
+
+    @Test
+    public void removingAllBodiesEmptiesTheWorld(){
+        SimpleCollisionWorld<SweptBody> world = new SimpleCollisionWorld<>(8);
+        SweptBody[] bodies = new SweptBody[50];
+        float[] boxes = new float[bodies.length * 4];
+        for(int i = 0; i < bodies.length; i++){
+            bodies[i] = new SweptBody();
+            boxes[i * 4] = i * 3;
+            boxes[i * 4 + 1] = i;
+            boxes[i * 4 + 2] = 20;
+            boxes[i * 4 + 3] = 20;
+        }
+        assertEquals(bodies.length, world.addBodies(bodies, boxes));
+        assertEquals(0, world.addBodies(bodies, boxes));
+        assertEquals(bodies.length, world.removeBodies(bodies));
+        for(SweptBody body : bodies)assertFalse(world.contains(body));
+        Array<BodyEntry<SweptBody>> remaining = new Array<>();
+        world.collectEntries(new Rectangle(-100, -100, 400, 400), remaining);
+        assertEquals(0, remaining.size);
+    }
+
+    private static String describe(CollisionResponse response){
+        StringBuilder outcome = new StringBuilder().append(Float.floatToIntBits(response.bestGoalX)).append(',')
+                .append(Float.floatToIntBits(response.bestGoalY));
+        for(CollisionResponse.Collision collision : response.getCollisions()){
+            outcome.append('|').append(System.identityHashCode(collision.target)).append(' ').append(Float.floatToIntBits(collision.hitTime));
+        }
+        return outcome.toString();
+    }
+
+    /**
+     * @return The boxes of all bodies and the bodies every body can find around itself.
+     */
+    private static String snapshot(SimpleCollisionWorld<SweptBody> world, List<SweptBody> bodies){
+        StringBuilder snapshot = new StringBuilder();
+        for(int i = 0; i < bodies.size(); i++){
+            SweptBody body = bodies.get(i);
+            if(!world.contains(body))continue;
+            Rectangle box = world.getBoundingBox(body);
+            snapshot.append(i).append(':').append(box).append(" near=");
+            Rectangle around = new Rectangle(box.x - 8, box.y - 8, box.width + 16, box.height + 16);
+            Array<BodyEntry<SweptBody>> near = new Array<>();
+            world.collectEntries(around, near);
+            //the order of the chunk contents differs between the worlds, so the found bodies are sorted
+            int[] indices = new int[near.size];
+            for(int j = 0; j < near.size; j++)indices[j] = bodies.indexOf(near.get(j).body);
+            Arrays.sort(indices);
+            snapshot.append(Arrays.toString(indices));
+            snapshot.append('\n');
+        }
+        return snapshot.toString();
+    }
+
+}
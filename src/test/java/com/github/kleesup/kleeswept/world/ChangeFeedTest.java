@@ -0,0 +1,147 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.github.kleesup.kleeswept.world.body.SweptBody;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Replicates a world through its {@link ChangeFeed} and checks the region filter and the cursor handling.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+public class ChangeFeedTest {
+
+    @Test
+    public void replicaFollowsWorld(){
+        Random random = new Random(17);
+        SimpleCollisionWorld<SweptBody> world = new SimpleCollisionWorld<>(16);
+        world.setChangeFeedCapacity(1024);
+        ChangeFeed<SweptBody> feed = world.getChangeFeed();
+        List<SweptBody> bodies = new ArrayList<>();
+        for(int i = 0; i < 200; i++)bodies.add(new SweptBody());
+        Map<SweptBody, Rectangle> replica = new IdentityHashMap<>();
+        Map<SweptBody, Integer> handles = new IdentityHashMap<>();
+        long cursor = feed.getCursor();
+        int checkpoint = world.checkpoint();
+        Vector2 displacement = new Vector2();
+        for(int step = 0; step < 3000; step++){
+            SweptBody body = bodies.get(random.nextInt(bodies.size()));
+            int op = random.nextInt(10);
+            if(!world.contains(body)){
+                world.addBody(body, random.nextFloat() * 200, random.nextFloat() * 200, 1 + random.nextFloat() * 4, 2);
+            }else if(op == 0){
+                world.removeBody(body);
+            }else if(op == 1){
+                world.removeBodies(new SweptBody[]{body, bodies.get(random.nextInt(bodies.size()))});
+            }else if(op == 2){
+                world.forceUpdate(body, random.nextFloat() * 200, random.nextFloat() * 200, 1 + random.nextFloat() * 4, 2);
+            }else if(op == 3 && step % 50 == 3){
+                //rolled back changes are published as changes as well
+                world.rollback(checkpoint);
+            }else{
+                world.free(world.update(body, displacement.set(random.nextFloat() * 20 - 10, random.nextFloat() * 20 - 10)));
+            }
+            if(step % 7 != 0)continue;
+            assertFalse(feed.isLost(cursor));
+            cursor = feed.read(cursor, (type, changed, handle, x, y, width, height) -> {
+                if(type == ChangeFeed.REMOVED){
+                    replica.remove(changed);
+                    handles.remove(changed);
+                }else{
+                    replica.put(changed, new Rectangle(x, y, width, height));
+                    handles.put(changed, handle);
+                }
+            });
+            assertEquals(feed.getCursor(), cursor);
+            for(SweptBody other : bodies){
+                if(world.contains(other)){
+                    assertEquals(world.getBoundingBox(other), replica.get(other));
+                    assertEquals(Integer.valueOf(world.getHandle(other)), handles.get(other));
+                }else{
+                    assertNull(replica.get(other));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void regionReadOnlySeesTouchingChanges(){
+        SimpleCollisionWorld<SweptBody> world = new SimpleCollisionWorld<>(16);
+        world.setChangeFeedCapacity(16);
+        ChangeFeed<SweptBody> feed = world.getChangeFeed();
+        SweptBody body = new SweptBody();
+        //spans the chunks 0 to 3 along the x-axis
+        world.addBody(body, 2, 2, 60, 4);
+        world.forceUpdate(body, 3, 2);
+        //leaves for chunk (2, 2)
+        world.forceUpdate(body, 40, 40, 4, 4);
+        assertEquals(3, count(feed, 2, 0, 2, 0));
+        assertEquals(1, count(feed, 2, 2, 2, 2));
+        assertEquals(0, count(feed, 5, 5, 8, 8));
+        assertEquals(3, count(feed, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void overwrittenChangesAreLost(){
+        SimpleCollisionWorld<SweptBody> world = new SimpleCollisionWorld<>(16);
+        world.setChangeFeedCapacity(4);
+        ChangeFeed<SweptBody> feed = world.getChangeFeed();
+        SweptBody body = new SweptBody();
+        world.addBody(body, 0, 0, 1, 1);
+        for(int i = 1; i < 10; i++)world.forceUpdate(body, i, 0);
+        assertTrue(feed.isLost(0));
+        assertFalse(feed.isLost(feed.getOldestCursor()));
+        assertFalse(feed.isLost(feed.getCursor()));
+        try{
+            feed.read(0, (type, changed, handle, x, y, width, height) -> {});
+            fail("A lost cursor must not be read");
+        }catch (IllegalStateException expected){
+            //the consumer has to resynchronise
+        }
+    }
+
+    @Test
+    public void cursorAheadOfTheFeedIsLost(){
+        SimpleCollisionWorld<SweptBody> world = new SimpleCollisionWorld<>(16);
+        world.setChangeFeedCapacity(4);
+        ChangeFeed<SweptBody> feed = world.getChangeFeed();
+        world.addBody(new SweptBody(), 0, 0, 1, 1);
+        assertTrue(feed.isLost(feed.getCursor() + 1));
+        try{
+            feed.read(feed.getCursor() + 1, (type, changed, handle, x, y, width, height) -> {});
+            fail("A cursor ahead of the feed must not be read");
+        }catch (IllegalStateException expected){
+            //the cursor belongs to another feed
+        }
+    }
+
+    @Test
+    public void clearLosesUnreadChanges(){
+        SimpleCollisionWorld<SweptBody> world = new SimpleCollisionWorld<>(16);
+        world.setChangeFeedCapacity(8);
+        ChangeFeed<SweptBody> feed = world.getChangeFeed();
+        long cursor = feed.getCursor();
+        world.addBody(new SweptBody(), 0, 0, 1, 1);
+        feed.clear();
+        assertTrue(feed.isLost(cursor));
+        assertFalse(feed.isLost(feed.getCursor()));
+    }
+
+    private static int count(ChangeFeed<SweptBody> feed, int minChunkX, int minChunkY, int maxChunkX, int maxChunkY){
+        int[] count = new int[1];
+        feed.read(feed.getOldestCursor(), minChunkX, minChunkY, maxChunkX, maxChunkY, (type, body, handle, x, y, width, height) -> count[0]++);
+        return count[0];
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.github.kleesup.kleeswept.KleeHelper;
+import com.github.kleesup.kleeswept.world.body.SweptBody;
+import com.github.kleesup.kleeswept.world.chunk.EfficientChunkManager;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the bounds of {@link ChunkBounds} follow their members and are dropped once a chunk is empty, so
+ * emptied chunks are skipped by queries again.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+public class ChunkBoundsTest {
+
+    private static final int CHUNK_SIZE = 8;
+
+    @Test
+    public void emptiedChunksAreDropped(){
+        ChunkBounds bounds = new ChunkBounds(1f / CHUNK_SIZE);
+        Rectangle from = new Rectangle(1, 1, 2, 2), to = new Rectangle(41, 1, 2, 2);
+        bounds.add(from);
+        assertNotNull(bounds.get(0, 0));
+        bounds.move(from, to);
+        assertNull(bounds.get(0, 0));
+        assertEquals(1, bounds.get(5, 0).getCount());
+        bounds.remove(to);
+        assertNull(bounds.get(5, 0));
+        assertEquals(0, bounds.size());
+    }
+
+    @Test
+    public void boundsFollowTheirMembers(){
+        Random random = new Random(31);
+        ChunkBounds bounds = new ChunkBounds(1f / CHUNK_SIZE);
+        List<Rectangle> boxes = new ArrayList<>();
+        for(int step = 0; step < 5000; step++){
+            int op = random.nextInt(4);
+            if(boxes.isEmpty() || op == 0){
+                Rectangle box = randomBox(random);
+                boxes.add(box);
+                bounds.add(box);
+            }else if(op == 1){
+                bounds.remove(boxes.remove(random.nextInt(boxes.size())));
+            }else{
+                Rectangle box = boxes.get(random.nextInt(boxes.size()));
+                Rectangle moved = randomBox(random);
+                bounds.move(box, moved);
+                box.set(moved);
+            }
+            if(step % 100 != 0)continue;
+            Map<Long, Integer> counts = new HashMap<>();
+            for(Rectangle box : boxes){
+                for(int x = chunk(box.x); x <= chunk(box.x + box.width); x++){
+                    for(int y = chunk(box.y); y <= chunk(box.y + box.height); y++)counts.merge(KleeHelper.pairLong(x, y), 1, Integer::sum);
+                }
+            }
+            assertEquals("step " + step, counts.size(), bounds.size());
+            for(int x = -2; x < 20; x++){
+                for(int y = -2; y < 20; y++){
+                    Integer count = counts.get(KleeHelper.pairLong(x, y));
+                    ChunkBounds.Bounds chunk = bounds.get(x, y);
+                    if(count == null)assertNull(chunk);
+                    else assertEquals(count.intValue(), chunk.getCount());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void worldSkipsEmptiedChunks(){
+        CountingChunkManager chunks = new CountingChunkManager();
+        SimpleCollisionWorld<SweptBody> world = new SimpleCollisionWorld<>(CHUNK_SIZE, chunks);
+        world.setChunkBoundsEnabled(true);
+        SweptBody leaving = new SweptBody(), mover = new SweptBody();
+        world.addBody(leaving, 20, 2, 2, 2);
+        world.addBody(mover, 0, 2, 2, 2);
+        assertEquals(1, world.simulate(mover, new Vector2(40, 0), new CollisionResponse()).getCollisions().size());
+        world.forceUpdate(leaving, 20, 200);
+        chunks.visited.clear();
+        assertTrue(world.simulate(mover, new Vector2(40, 0), new CollisionResponse()).getCollisions().isEmpty());
+        assertFalse("the emptied chunk was visited", chunks.visited.containsKey(KleeHelper.pairLong(2, 0)));
+    }
+
+    private static Rectangle randomBox(Random random){
+        return new Rectangle(random.nextFloat() * 120, random.nextFloat() * 120, random.nextFloat() * 20, random.nextFloat() * 20);
+    }
+
+    private static int chunk(float value){
+        return KleeHelper.chunkFloor(value / CHUNK_SIZE);
+    }
+
+    /**
+     * Remembers which chunks were looked up.
+     */
+    private static final class CountingChunkManager extends EfficientChunkManager<SweptBody> {
+        private final Map<Long, Integer> visited = new HashMap<>();
+
+        @Override
+        public Set<SweptBody> getBodies(int chunkX, int chunkY) {
+            visited.merge(KleeHelper.pairLong(chunkX, chunkY), 1, Integer::sum);
+            return super.getBodies(chunkX, chunkY);
+        }
+    }
+
+}
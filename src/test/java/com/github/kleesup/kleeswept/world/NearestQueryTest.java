@@ -0,0 +1,95 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.github.kleesup.kleeswept.world.body.SweptBody;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares {@link SimpleCollisionWorld#kNearest(float, float, float, int, Predicate, Array, FloatArray)} with a brute
+ * force search over all bodies.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+public class NearestQueryTest {
+
+    private static final int[] KS = {1, 3, 10, Integer.MAX_VALUE};
+
+    @Test
+    public void matchesBruteForce(){
+        check(new SimpleCollisionWorld<>(16), 1);
+    }
+
+    @Test
+    public void matchesBruteForceWithOccupancyAndMargin(){
+        SimpleCollisionWorld<SweptBody> world = new SimpleCollisionWorld<>(16);
+        world.setOccupancyEnabled(true);
+        world.setChunkMargin(6);
+        check(world, 2);
+    }
+
+    @Test
+    public void emptyWorldFindsNothing(){
+        SimpleCollisionWorld<SweptBody> world = new SimpleCollisionWorld<>(16);
+        assertNull(world.nearest(0, 0, 100));
+        assertEquals(0, world.kNearest(0, 0, 100, Integer.MAX_VALUE, new Array<>()));
+    }
+
+    private void check(SimpleCollisionWorld<SweptBody> world, long seed){
+        Random random = new Random(seed);
+        List<SweptBody> bodies = new ArrayList<>();
+        for(int i = 0; i < 500; i++){
+            SweptBody body = new SweptBody();
+            bodies.add(body);
+            //integer positions produce plenty of equal distances, which are ordered by handle
+            world.addBody(body, random.nextInt(400) - 200, random.nextInt(400) - 200, 1 + random.nextInt(6), 1 + random.nextInt(6));
+        }
+        for(int i = 0; i < 100; i++)world.removeBody(bodies.remove(random.nextInt(bodies.size())));
+        Array<SweptBody> found = new Array<>();
+        FloatArray distances = new FloatArray();
+        for(int query = 0; query < 400; query++){
+            float x = random.nextFloat() * 500 - 250, y = random.nextFloat() * 500 - 250;
+            float radius = random.nextInt(4) == 0 ? 0 : random.nextFloat() * 150;
+            int k = KS[random.nextInt(KS.length)];
+            Predicate<SweptBody> filter = random.nextBoolean() ? null : body -> (world.getHandle(body) & 1) == 0;
+            List<SweptBody> expected = bruteForce(world, bodies, x, y, radius, k, filter);
+            int count = world.kNearest(x, y, radius, k, filter, found, distances);
+            assertEquals(expected.size(), count);
+            for(int i = 0; i < count; i++){
+                assertSame("query " + query + ", index " + i, expected.get(i), found.get(i));
+                assertEquals((float) Math.sqrt(distanceSquared(world.getBoundingBox(found.get(i)), x, y)), distances.get(i), 0);
+            }
+            assertSame(expected.isEmpty() ? null : expected.get(0), world.nearest(x, y, radius, filter));
+        }
+    }
+
+    private static List<SweptBody> bruteForce(SimpleCollisionWorld<SweptBody> world, List<SweptBody> bodies, float x, float y,
+                                              float radius, int k, Predicate<SweptBody> filter){
+        List<SweptBody> candidates = new ArrayList<>();
+        for(SweptBody body : bodies){
+            if(filter != null && !filter.test(body))continue;
+            if(distanceSquared(world.getBoundingBox(body), x, y) <= radius * radius)candidates.add(body);
+        }
+        candidates.sort(Comparator.<SweptBody>comparingDouble(body -> distanceSquared(world.getBoundingBox(body), x, y))
+                .thenComparingInt(world::getHandle));
+        return candidates.subList(0, Math.min(k, candidates.size()));
+    }
+
+    private static float distanceSquared(Rectangle box, float x, float y){
+        float dx = Math.max(Math.max(box.x - x, x - (box.x + box.width)), 0);
+        float dy = Math.max(Math.max(box.y - y, y - (box.y + box.height)), 0);
+        return dx * dx + dy * dy;
+    }
+
+}
@@ -0,0 +1,186 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.github.kleesup.kleeswept.world.body.SweptBody;
+import com.github.kleesup.kleeswept.world.chunk.EfficientChunkManager;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Replays random scripts of additions, moves and removals and checks that a rollback restores the bounding boxes,
+ * the handles and the chunk contents bit for bit.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+public class RollbackTest {
+
+    private static final int CHUNK_SIZE = 8;
+    private static final int AREA = 120;
+    //the chunks compared, bodies never leave them
+    private static final int MIN_CHUNK = -8, MAX_CHUNK = AREA / CHUNK_SIZE + 8;
+
+    @Test
+    public void rollbackRestoresState(){
+        for(int seed = 0; seed < 20; seed++)checkRollback(seed, 0);
+    }
+
+    @Test
+    public void rollbackRestoresStateWithChunkMargin(){
+        for(int seed = 0; seed < 20; seed++)checkRollback(seed, 3);
+    }
+
+    @Test
+    public void nestedRollbacksRestoreTheirState(){
+        Random random = new Random(42);
+        EfficientChunkManager<SweptBody> chunks = new EfficientChunkManager<>();
+        SimpleCollisionWorld<SweptBody> world = new SimpleCollisionWorld<>(CHUNK_SIZE, chunks);
+        List<SweptBody> bodies = populate(world, random, 100);
+        String outer = snapshot(world, chunks, bodies);
+        int first = world.checkpoint();
+        runScript(world, bodies, random, 100);
+        String inner = snapshot(world, chunks, bodies);
+        int second = world.checkpoint();
+        runScript(world, bodies, random, 100);
+        world.rollback(second);
+        assertEquals(inner, snapshot(world, chunks, bodies));
+        runScript(world, bodies, random, 100);
+        world.rollback(first);
+        assertEquals(outer, snapshot(world, chunks, bodies));
+        world.releaseCheckpoint(first);
+        assertFalse(world.hasOpenCheckpoint());
+    }
+
+    @Test
+    public void replayAfterRollbackIsIdentical(){
+        Random random = new Random(7);
+        SimpleCollisionWorld<SweptBody> world = new SimpleCollisionWorld<>(CHUNK_SIZE);
+        List<SweptBody> bodies = populate(world, random, 150);
+        int checkpoint = world.checkpoint();
+        String first = runScript(world, bodies, new Random(99), 300);
+        world.rollback(checkpoint);
+        String second = runScript(world, bodies, new Random(99), 300);
+        assertEquals(first, second);
+    }
+
+    private void checkRollback(long seed, float chunkMargin){
+        Random random = new Random(seed);
+        EfficientChunkManager<SweptBody> chunks = new EfficientChunkManager<>();
+        SimpleCollisionWorld<SweptBody> world = new SimpleCollisionWorld<>(CHUNK_SIZE, chunks);
+        world.setChunkMargin(chunkMargin);
+        List<SweptBody> bodies = populate(world, random, 150);
+        String before = snapshot(world, chunks, bodies);
+        int checkpoint = world.checkpoint();
+        runScript(world, bodies, random, 400);
+        assertNotEquals(before, snapshot(world, chunks, bodies));
+        world.rollback(checkpoint);
+        assertEquals("seed " + seed, before, snapshot(world, chunks, bodies));
+        //the checkpoint stays open, so the world can be rolled back to it again
+        runScript(world, bodies, random, 400);
+        world.rollback(checkpoint);
+        assertEquals("seed " + seed, before, snapshot(world, chunks, bodies));
+    }
+
+    /**
+     * Adds the bodies, a few of them are left out so the script can add them later.
+     */
+    private static List<SweptBody> populate(SimpleCollisionWorld<SweptBody> world, Random random, int count){
+        List<SweptBody> bodies = new ArrayList<>();
+        for(int i = 0; i < count; i++){
+            SweptBody body = new SweptBody();
+            bodies.add(body);
+            if(i % 10 == 9)continue;
+            world.addBody(body, random.nextInt(AREA), random.nextInt(AREA), 1 + random.nextFloat() * 5, 1 + random.nextFloat() * 5);
+        }
+        return bodies;
+    }
+
+    /**
+     * Runs a random script of changes against the world.
+     * @return The outcome of all updates, so scripts can be compared.
+     */
+    private static String runScript(SimpleCollisionWorld<SweptBody> world, List<SweptBody> bodies, Random random, int steps){
+        StringBuilder outcome = new StringBuilder();
+        Vector2 displacement = new Vector2();
+        for(int step = 0; step < steps; step++){
+            SweptBody body = bodies.get(random.nextInt(bodies.size()));
+            int op = random.nextInt(12);
+            if(!world.contains(body)){
+                if(op < 6)world.addBody(body, random.nextInt(AREA), random.nextInt(AREA), 1 + random.nextFloat() * 5, 2);
+                continue;
+            }
+            if(op == 0){
+                world.removeBody(body);
+            }else if(op == 1){
+                Rectangle box = world.getBoundingBox(body);
+                world.forceUpdate(body, random.nextInt(AREA), random.nextInt(AREA), box.width + 1, box.height);
+            }else if(op == 2){
+                SweptBody[] batch = new SweptBody[3];
+                for(int i = 0; i < batch.length; i++)batch[i] = bodies.get(random.nextInt(bodies.size()));
+                world.removeBodies(batch);
+            }else if(op == 3){
+                SweptBody[] batch = new SweptBody[2];
+                float[] boxes = new float[batch.length * 4];
+                for(int i = 0; i < batch.length; i++){
+                    batch[i] = bodies.get(random.nextInt(bodies.size()));
+                    boxes[i * 4] = random.nextInt(AREA);
+                    boxes[i * 4 + 1] = random.nextInt(AREA);
+                    boxes[i * 4 + 2] = 3;
+                    boxes[i * 4 + 3] = 3;
+                }
+                world.addBodies(batch, boxes);
+            }else{
+                Rectangle box = world.getBoundingBox(body);
+                //bodies are pushed back towards the area, so they never leave the compared chunks
+                float dx = random.nextFloat() * 20 - 10 + (box.x < 0 ? 10 : box.x > AREA ? -10 : 0);
+                float dy = random.nextFloat() * 20 - 10 + (box.y < 0 ? 10 : box.y > AREA ? -10 : 0);
+                CollisionResponse response = world.update(body, displacement.set(dx, dy));
+                outcome.append(Float.floatToIntBits(response.bestGoalX)).append(',')
+                        .append(Float.floatToIntBits(response.bestGoalY)).append(';');
+                for(CollisionResponse.Collision collision : response.getCollisions()){
+                    outcome.append(bodies.indexOf(collision.target)).append(collision.resolved).append(' ');
+                }
+                world.free(response);
+            }
+        }
+        return outcome.toString();
+    }
+
+    /**
+     * @return The boxes (as raw bits), handles and chunks of all bodies.
+     */
+    private static String snapshot(SimpleCollisionWorld<SweptBody> world, EfficientChunkManager<SweptBody> chunks, List<SweptBody> bodies){
+        StringBuilder snapshot = new StringBuilder();
+        for(int i = 0; i < bodies.size(); i++){
+            SweptBody body = bodies.get(i);
+            if(!world.contains(body))continue;
+            Rectangle box = world.getBoundingBox(body);
+            snapshot.append(i).append(':')
+                    .append(Float.floatToIntBits(box.x)).append(',').append(Float.floatToIntBits(box.y)).append(',')
+                    .append(Float.floatToIntBits(box.width)).append(',').append(Float.floatToIntBits(box.height))
+                    .append(" handle=").append(world.getHandle(body)).append('\n');
+        }
+        for(int chunkX = MIN_CHUNK; chunkX <= MAX_CHUNK; chunkX++){
+            for(int chunkY = MIN_CHUNK; chunkY <= MAX_CHUNK; chunkY++){
+                Set<SweptBody> members = chunks.getBodies(chunkX, chunkY);
+                if(members.isEmpty())continue;
+                //the members are listed in the order of the bodies, the iteration order of the chunk doesn't matter
+                snapshot.append('[').append(chunkX).append(',').append(chunkY).append(']');
+                for(int i = 0; i < bodies.size(); i++){
+                    if(members.contains(bodies.get(i)))snapshot.append(' ').append(i);
+                }
+                snapshot.append(" size=").append(members.size()).append('\n');
+            }
+        }
+        return snapshot.toString();
+    }
+
+}
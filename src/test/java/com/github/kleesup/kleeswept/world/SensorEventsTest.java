@@ -0,0 +1,144 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.github.kleesup.kleeswept.world.body.SweptBody;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the enter, stay and exit events of sensors and compares the tracked contacts with brute force overlap tests.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+public class SensorEventsTest {
+
+    @Test
+    public void enterStayExit(){
+        SimpleCollisionWorld<SweptBody> world = new SimpleCollisionWorld<>(16);
+        SweptBody zone = new Zone(), body = new SweptBody();
+        world.addBody(zone, 10, 0, 10, 10);
+        world.addBody(body, 0, 0, 2, 2);
+        assertEquals(0, world.getSensorEvents().size());
+        //sensors don't block movements
+        world.free(world.update(body, new Vector2(10, 0)));
+        assertEquals(10, world.getBoundingBox(body).x, 0);
+        world.forceUpdate(body, 12, 1);
+        world.forceUpdate(body, 40, 0);
+        assertEquals("enter zone body,stay zone body,exit zone body,", dispatch(world, zone, body));
+        assertEquals(0, world.getSensorEvents().size());
+        world.forceUpdate(body, 12, 0);
+        world.removeBody(body);
+        assertEquals("enter zone body,exit zone body,", dispatch(world, zone, body));
+    }
+
+    @Test
+    public void removedSensorExitsItsContacts(){
+        SimpleCollisionWorld<SweptBody> world = new SimpleCollisionWorld<>(16);
+        SweptBody zone = new Zone(), body = new SweptBody();
+        world.addBody(body, 5, 5, 2, 2);
+        world.addBody(zone, 0, 0, 10, 10);
+        assertEquals(1, world.getSensorContacts(body, new Array<>()).size);
+        world.removeBody(zone);
+        assertEquals(0, world.getSensorContacts(body, new Array<>()).size);
+        assertEquals("enter zone body,exit zone body,", dispatch(world, zone, body));
+    }
+
+    @Test
+    public void contactsMatchOverlaps(){
+        Random random = new Random(21);
+        SimpleCollisionWorld<SweptBody> world = new SimpleCollisionWorld<>(8);
+        List<SweptBody> bodies = new ArrayList<>();
+        for(int i = 0; i < 120; i++){
+            SweptBody body = i % 6 == 0 ? new Zone() : new SweptBody();
+            bodies.add(body);
+            world.addBody(body, random.nextFloat() * 100, random.nextFloat() * 100, 1 + random.nextFloat() * 12, 1 + random.nextFloat() * 12);
+        }
+        //the contacts are replayed from the events, so the events have to be complete as well
+        Set<String> replayed = new HashSet<>();
+        for(int step = 0; step < 3000; step++){
+            SweptBody body = bodies.get(random.nextInt(bodies.size()));
+            int op = random.nextInt(10);
+            if(!world.contains(body)){
+                world.addBody(body, random.nextFloat() * 100, random.nextFloat() * 100, 1 + random.nextFloat() * 12, 3);
+            }else if(op == 0){
+                world.removeBody(body);
+            }else if(op == 1){
+                world.forceUpdate(body, random.nextFloat() * 100, random.nextFloat() * 100, 1 + random.nextFloat() * 12, 3);
+            }else{
+                world.free(world.update(body, new Vector2(random.nextFloat() * 10 - 5, random.nextFloat() * 10 - 5)));
+            }
+            SensorEvents<SweptBody> events = world.getSensorEvents();
+            for(int i = 0; i < events.size(); i++){
+                String pair = bodies.indexOf(events.getSensor(i)) + "/" + bodies.indexOf(events.getOther(i));
+                if(events.getType(i) == SensorEvents.ENTER)assertTrue(pair, replayed.add(pair));
+                else if(events.getType(i) == SensorEvents.EXIT)assertTrue(pair, replayed.remove(pair));
+                else assertTrue(pair, replayed.contains(pair));
+            }
+            events.clear();
+            if(step % 10 == 0)assertEquals("step " + step, overlaps(world, bodies), replayed);
+        }
+    }
+
+    /**
+     * @return All overlapping pairs of a sensor and a body that isn't a sensor.
+     */
+    private static Set<String> overlaps(SimpleCollisionWorld<SweptBody> world, List<SweptBody> bodies){
+        Set<String> pairs = new HashSet<>();
+        for(int i = 0; i < bodies.size(); i++){
+            SweptBody sensor = bodies.get(i);
+            if(!sensor.isSensor() || !world.contains(sensor))continue;
+            for(int j = 0; j < bodies.size(); j++){
+                SweptBody other = bodies.get(j);
+                if(other.isSensor() || !world.contains(other))continue;
+                if(world.getBoundingBox(sensor).overlaps(world.getBoundingBox(other)))pairs.add(i + "/" + j);
+            }
+        }
+        return pairs;
+    }
+
+    private static String dispatch(SimpleCollisionWorld<SweptBody> world, SweptBody zone, SweptBody body){
+        StringBuilder events = new StringBuilder();
+        world.dispatchSensorEvents(new SensorListener<SweptBody>() {
+            @Override
+            public void onEnter(SweptBody sensor, SweptBody other) {
+                append("enter", sensor, other);
+            }
+
+            @Override
+            public void onStay(SweptBody sensor, SweptBody other) {
+                append("stay", sensor, other);
+            }
+
+            @Override
+            public void onExit(SweptBody sensor, SweptBody other) {
+                append("exit", sensor, other);
+            }
+
+            private void append(String type, SweptBody sensor, SweptBody other){
+                events.append(type).append(sensor == zone ? " zone" : " ?").append(other == body ? " body" : " ?").append(',');
+            }
+        });
+        return events.toString();
+    }
+
+    /**
+     * A sensor that bodies can move through.
+     */
+    private static final class Zone extends SweptBody {
+        @Override
+        public boolean isSensor() {
+            return true;
+        }
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.github.kleesup.kleeswept.world.body.SweptBody;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares a {@link ShardedCollisionWorld} with a single {@link SimpleCollisionWorld} and checks that parallel steps
+ * don't depend on the executor.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.1
+ * @since 1.2
+ */
+public class ShardedCollisionWorldTest {
+
+    @Test
+    public void updatesMatchSingleWorld(){
+        Random random = new Random(7);
+        SimpleCollisionWorld<SweptBody> single = new SimpleCollisionWorld<>(8);
+        ShardedCollisionWorld<SweptBody> sharded = new ShardedCollisionWorld<>(8, 32, 12);
+        List<SweptBody> bodies = new ArrayList<>();
+        for(int i = 0; i < 400; i++){
+            SweptBody body = new SweptBody();
+            bodies.add(body);
+            float x = random.nextFloat() * 100 - 20, y = random.nextFloat() * 100 - 20;
+            float width = 1 + random.nextFloat() * 5, height = 1 + random.nextFloat() * 5;
+            single.addBody(body, x, y, width, height);
+            sharded.addBody(body, x, y, width, height);
+        }
+        for(int step = 0; step < 10000; step++){
+            SweptBody body = bodies.get(random.nextInt(bodies.size()));
+            //some moves leave the region of the body, so bodies of other regions are borrowed
+            float range = step % 3 == 0 ? 40 : 10;
+            Vector2 displacement = new Vector2(random.nextFloat() * range * 2 - range, random.nextFloat() * range * 2 - range);
+            if(step % 500 == 0){
+                single.removeBody(body);
+                sharded.removeBody(body);
+                single.addBody(body, random.nextFloat() * 100, random.nextFloat() * 100, 3, 3);
+                sharded.addBody(body, single.getBoundingBox(body));
+                continue;
+            }
+            CollisionResponse expected = single.update(body, displacement), actual = sharded.update(body, displacement);
+            assertEquals("step " + step, expected.bestGoalX, actual.bestGoalX, 0);
+            assertEquals("step " + step, expected.bestGoalY, actual.bestGoalY, 0);
+            assertEquals("step " + step, expected.getCollisions().size(), actual.getCollisions().size());
+            for(int i = 0; i < expected.getCollisions().size(); i++){
+                assertSame(expected.getCollisions().get(i).target, actual.getCollisions().get(i).target);
+            }
+            single.free(expected);
+            sharded.free(actual);
+        }
+        for(SweptBody body : bodies)assertEquals(single.getBoundingBox(body), sharded.getBoundingBox(body));
+    }
+
+    @Test
+    public void stepDoesNotDependOnExecutor(){
+        ExecutorService serial = Executors.newSingleThreadExecutor(), parallel = Executors.newFixedThreadPool(4);
+        try{
+            assertEquals(runSteps(serial), runSteps(parallel));
+        }finally{
+            serial.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    public void removedBodySkipsQueuedMove(){
+        ShardedCollisionWorld<SweptBody> world = new ShardedCollisionWorld<>(16, 256, 8);
+        SweptBody removed = new SweptBody(), moved = new SweptBody();
+        world.addBody(removed, 0, 0, 1, 1);
+        world.addBody(moved, 300, 0, 1, 1);
+        world.move(removed, 1, 0);
+        world.move(moved, 2, 0);
+        world.removeBody(removed);
+        assertEquals(2, world.step());
+        assertTrue(world.getResponse(0).getCollisions().isEmpty());
+        assertEquals(302, world.getResponse(1).bestGoalX, 0);
+        assertEquals(302, world.getBoundingBox(moved).x, 0);
+    }
+
+    @Test
+    public void collisionsAreReusedAcrossSteps(){
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try{
+            ShardedCollisionWorld<SweptBody> world = new ShardedCollisionWorld<>(8, 32, 8, executor);
+            Random random = new Random(13);
+            List<SweptBody> bodies = new ArrayList<>();
+            //a dense crowd in several regions, so most moves collide
+            for(int i = 0; i < 400; i++){
+                SweptBody body = new SweptBody();
+                bodies.add(body);
+                world.addBody(body, (i % 20) * 5, (i / 20) * 5, 3, 3);
+            }
+            Set<CollisionResponse.Collision> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            int collisions = 0, maxPerStep = 0;
+            for(int step = 0; step < 200; step++){
+                for(SweptBody body : bodies)world.move(body, random.nextFloat() * 6 - 3, random.nextFloat() * 6 - 3);
+                int count = world.step(), perStep = 0;
+                for(int i = 0; i < count; i++){
+                    for(CollisionResponse.Collision collision : world.getResponse(i).getCollisions()){
+                        seen.add(collision);
+                        perStep++;
+                    }
+                }
+                collisions += perStep;
+                maxPerStep = Math.max(maxPerStep, perStep);
+                //bodies removed before the next step still return the collisions of their responses
+                for(int i = 0; i < 40; i++){
+                    SweptBody removed = bodies.get(random.nextInt(bodies.size()));
+                    Rectangle box = world.removeBody(removed);
+                    world.addBody(removed, box);
+                }
+            }
+            assertTrue(collisions > maxPerStep * 10);
+            //every collision object is reused as soon as its step is over
+            assertTrue(seen.size() + " collision objects for " + collisions + " collisions", seen.size() <= maxPerStep);
+        }finally{
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidGhostMarginIsRejected(){
+        new ShardedCollisionWorld<SweptBody>(8, 32, Float.NaN);
+    }
+
+    private static String runSteps(ExecutorService executor){
+        ShardedCollisionWorld<SweptBody> world = new ShardedCollisionWorld<>(8, 64, 16, executor);
+        Random random = new Random(3);
+        List<SweptBody> bodies = new ArrayList<>();
+        for(int i = 0; i < 2000; i++){
+            SweptBody body = new SweptBody();
+            bodies.add(body);
+            world.addBody(body, random.nextFloat() * 600, random.nextFloat() * 600, 2, 2);
+        }
+        for(int step = 0; step < 50; step++){
+            for(SweptBody body : bodies)world.move(body, random.nextInt(9) - 4, random.nextInt(9) - 4);
+            //a move far out of its region has to be deferred
+            if(step % 10 == 0)world.move(bodies.get(0), 100, 100);
+            world.step();
+        }
+        StringBuilder boxes = new StringBuilder();
+        for(SweptBody body : bodies){
+            Rectangle box = world.getBoundingBox(body);
+            boxes.append(Float.floatToIntBits(box.x)).append(',').append(Float.floatToIntBits(box.y)).append(';');
+        }
+        return boxes.toString();
+    }
+
+}
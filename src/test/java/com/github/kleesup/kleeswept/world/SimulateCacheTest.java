@@ -0,0 +1,143 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.badlogic.gdx.math.Vector2;
+import com.github.kleesup.kleeswept.world.body.ISweptBody;
+import com.github.kleesup.kleeswept.world.body.SweptBody;
+import com.github.kleesup.kleeswept.world.layer.CompactBodyLayer;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that cached simulation results are reused while nothing changed, and are dropped by every change in the
+ * chunks the movement went through.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+public class SimulateCacheTest {
+
+    private SimpleCollisionWorld<Probe> world;
+    private Probe mover;
+    private final Vector2 displacement = new Vector2(40, 0);
+
+    @Before
+    public void setUp(){
+        world = new SimpleCollisionWorld<>(16);
+        world.setSimulateCacheSize(16);
+        mover = new Probe();
+        world.addBody(mover, 0, 0, 2, 2);
+    }
+
+    @Test
+    public void unchangedWorldReusesResult(){
+        world.addBody(new Probe(), 20, 0, 2, 2);
+        assertEquals(1, simulate().getCollisions().size());
+        int checks = mover.checks;
+        assertEquals(1, simulate().getCollisions().size());
+        assertEquals("the result should come from the cache", checks, mover.checks);
+        //a change far away from the movement keeps the result
+        world.addBody(new Probe(), 500, 500, 2, 2);
+        assertEquals(1, simulate().getCollisions().size());
+        assertEquals(checks, mover.checks);
+    }
+
+    @Test
+    public void addInvalidates(){
+        assertEquals(0, simulate().getCollisions().size());
+        world.addBody(new Probe(), 20, 0, 2, 2);
+        assertEquals(1, simulate().getCollisions().size());
+    }
+
+    @Test
+    public void bulkAddInvalidates(){
+        assertEquals(0, simulate().getCollisions().size());
+        world.addBodies(new Probe[]{new Probe()}, new float[]{20, 0, 2, 2});
+        assertEquals(1, simulate().getCollisions().size());
+    }
+
+    @Test
+    public void removeInvalidates(){
+        Probe obstacle = new Probe();
+        world.addBody(obstacle, 20, 0, 2, 2);
+        assertEquals(1, simulate().getCollisions().size());
+        world.removeBody(obstacle);
+        assertEquals(0, simulate().getCollisions().size());
+    }
+
+    @Test
+    public void bulkRemoveInvalidates(){
+        Probe obstacle = new Probe();
+        world.addBody(obstacle, 20, 0, 2, 2);
+        assertEquals(1, simulate().getCollisions().size());
+        world.removeBodies(new Probe[]{obstacle});
+        assertEquals(0, simulate().getCollisions().size());
+    }
+
+    @Test
+    public void forceUpdateInvalidates(){
+        Probe obstacle = new Probe();
+        world.addBody(obstacle, 500, 500, 2, 2);
+        assertEquals(0, simulate().getCollisions().size());
+        //moved into the path
+        world.forceUpdate(obstacle, 20, 0);
+        assertEquals(1, simulate().getCollisions().size());
+        //moved out of the path
+        world.forceUpdate(obstacle, 500, 500);
+        assertEquals(0, simulate().getCollisions().size());
+        //resized into the path
+        world.forceUpdate(obstacle, 20, 4, 2, 2);
+        assertEquals(0, simulate().getCollisions().size());
+        world.forceUpdate(obstacle, 20, 1, 2, 2);
+        assertEquals(1, simulate().getCollisions().size());
+    }
+
+    @Test
+    public void movedBodyInvalidates(){
+        world.addBody(new Probe(), 20, 0, 2, 2);
+        assertEquals(1, simulate().getCollisions().size());
+        world.forceUpdate(mover, 0, 10);
+        assertEquals(0, simulate().getCollisions().size());
+    }
+
+    @Test
+    public void setLayerInvalidates(){
+        assertEquals(0, simulate().getCollisions().size());
+        CompactBodyLayer<Probe> layer = new CompactBodyLayer<>(16, 1 / 256f);
+        layer.add(new Probe(), 20, 0, 2, 2);
+        world.setLayer(layer);
+        assertEquals(1, simulate().getCollisions().size());
+        world.setLayer(null);
+        assertEquals(0, simulate().getCollisions().size());
+    }
+
+    @Test
+    public void clearDropsResults(){
+        world.addBody(new Probe(), 20, 0, 2, 2);
+        simulate();
+        int checks = mover.checks;
+        world.clearSimulateCache();
+        simulate();
+        assertTrue(mover.checks > checks);
+    }
+
+    private CollisionResponse simulate(){
+        return world.simulate(mover, displacement, new CollisionResponse());
+    }
+
+    /**
+     * A body that counts how often it was tested against other bodies.
+     */
+    private static final class Probe extends SweptBody {
+        private int checks;
+
+        @Override
+        public boolean checkCollision(ISweptBody other) {
+            checks++;
+            return true;
+        }
+    }
+
+}
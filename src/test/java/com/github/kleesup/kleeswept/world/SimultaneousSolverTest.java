@@ -0,0 +1,147 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.github.kleesup.kleeswept.world.body.SweptBody;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the outcome of {@link SimultaneousSolver} steps: bodies meet instead of passing each other, no overlaps are
+ * created, and the outcome neither depends on the queue order nor on the parallelism.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+public class SimultaneousSolverTest {
+
+    private static final int CROWD = 300;
+
+    @Test
+    public void headOnBodiesMeetInTheMiddle(){
+        SimpleCollisionWorld<SweptBody> world = new SimpleCollisionWorld<>(8);
+        SweptBody a = new SweptBody(), b = new SweptBody();
+        world.addBody(a, 0, 0, 2, 2);
+        world.addBody(b, 10, 0, 2, 2);
+        SimultaneousSolver<SweptBody> solver = new SimultaneousSolver<>(world);
+        solver.move(a, 10, 0);
+        solver.move(b, -10, 0);
+        assertEquals(2, solver.step());
+        assertEquals(4, world.getBoundingBox(a).x, 0);
+        assertEquals(6, world.getBoundingBox(b).x, 0);
+        assertEquals(1, solver.getResponse(0).getCollisions().size());
+        assertEquals(1, solver.getResponse(1).getCollisions().size());
+    }
+
+    @Test
+    public void crowdDoesNotOverlap(){
+        SimpleCollisionWorld<SweptBody> world = new SimpleCollisionWorld<>(16);
+        List<SweptBody> bodies = crowd(world);
+        SimultaneousSolver<SweptBody> solver = new SimultaneousSolver<>(world);
+        Random random = new Random(3);
+        for(int step = 0; step < 100; step++){
+            for(SweptBody body : bodies)solver.move(body, random.nextFloat() * 16 - 8, random.nextFloat() * 16 - 8);
+            solver.step();
+        }
+        for(int i = 0; i < bodies.size(); i++){
+            Rectangle box = world.getBoundingBox(bodies.get(i));
+            for(int j = i + 1; j < bodies.size(); j++){
+                assertFalse("bodies " + i + " and " + j + " overlap", box.overlaps(world.getBoundingBox(bodies.get(j))));
+            }
+        }
+    }
+
+    @Test
+    public void queueOrderDoesNotMatter(){
+        SimpleCollisionWorld<SweptBody> forward = new SimpleCollisionWorld<>(16), backward = new SimpleCollisionWorld<>(16);
+        List<SweptBody> forwardBodies = crowd(forward), backwardBodies = crowd(backward);
+        SimultaneousSolver<SweptBody> forwardSolver = new SimultaneousSolver<>(forward);
+        SimultaneousSolver<SweptBody> backwardSolver = new SimultaneousSolver<>(backward);
+        Random random = new Random(5);
+        List<Integer> order = new ArrayList<>();
+        for(int i = 0; i < CROWD; i++)order.add(i);
+        for(int step = 0; step < 50; step++){
+            float[] moves = randomMoves(random);
+            Collections.shuffle(order, random);
+            for(int i = 0; i < CROWD; i++)forwardSolver.move(forwardBodies.get(i), moves[i * 2], moves[i * 2 + 1]);
+            for(int i : order)backwardSolver.move(backwardBodies.get(i), moves[i * 2], moves[i * 2 + 1]);
+            forwardSolver.step();
+            backwardSolver.step();
+            assertEquals("step " + step, boxes(forward, forwardBodies), boxes(backward, backwardBodies));
+        }
+    }
+
+    @Test
+    public void parallelismDoesNotMatter(){
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try{
+            SimpleCollisionWorld<SweptBody> serial = new SimpleCollisionWorld<>(16), parallel = new SimpleCollisionWorld<>(16);
+            List<SweptBody> serialBodies = crowd(serial), parallelBodies = crowd(parallel);
+            SimultaneousSolver<SweptBody> serialSolver = new SimultaneousSolver<>(serial);
+            SimultaneousSolver<SweptBody> parallelSolver = new SimultaneousSolver<>(parallel);
+            parallelSolver.setExecutor(executor, 4);
+            Random random = new Random(9);
+            for(int step = 0; step < 50; step++){
+                float[] moves = randomMoves(random);
+                for(int i = 0; i < CROWD; i++){
+                    serialSolver.move(serialBodies.get(i), moves[i * 2], moves[i * 2 + 1]);
+                    parallelSolver.move(parallelBodies.get(i), moves[i * 2], moves[i * 2 + 1]);
+                }
+                serialSolver.step();
+                parallelSolver.step();
+                assertEquals(serialSolver.getIslandCount(), parallelSolver.getIslandCount());
+                assertEquals("step " + step, boxes(serial, serialBodies), boxes(parallel, parallelBodies));
+            }
+        }finally{
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void eventBudgetEndsTheStep(){
+        SimpleCollisionWorld<SweptBody> world = new SimpleCollisionWorld<>(16);
+        List<SweptBody> bodies = crowd(world);
+        SimultaneousSolver<SweptBody> solver = new SimultaneousSolver<>(world);
+        solver.setMaxEventsPerBody(1);
+        //every body runs into its neighbour, so there are far more events than the budget allows
+        for(SweptBody body : bodies)solver.move(body, 30, 0);
+        assertEquals(CROWD, solver.step());
+    }
+
+    /**
+     * Adds a grid of bodies that don't overlap.
+     */
+    private static List<SweptBody> crowd(SimpleCollisionWorld<SweptBody> world){
+        List<SweptBody> bodies = new ArrayList<>();
+        for(int i = 0; i < CROWD; i++){
+            SweptBody body = new SweptBody();
+            bodies.add(body);
+            world.addBody(body, (i % 20) * 10, (i / 20) * 10, 3, 3);
+        }
+        return bodies;
+    }
+
+    private static float[] randomMoves(Random random){
+        float[] moves = new float[CROWD * 2];
+        for(int i = 0; i < moves.length; i++)moves[i] = random.nextFloat() * 16 - 8;
+        return moves;
+    }
+
+    private static String boxes(SimpleCollisionWorld<SweptBody> world, List<SweptBody> bodies){
+        StringBuilder boxes = new StringBuilder();
+        for(SweptBody body : bodies){
+            Rectangle box = world.getBoundingBox(body);
+            boxes.append(Float.floatToIntBits(box.x)).append(',').append(Float.floatToIntBits(box.y)).append(';');
+        }
+        return boxes.toString();
+    }
+
+}
@@ -0,0 +1,198 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.github.kleesup.kleeswept.world.body.ISweptBody;
+import com.github.kleesup.kleeswept.world.body.SweptBody;
+import com.github.kleesup.kleeswept.world.chunk.DenseChunkManager;
+import com.github.kleesup.kleeswept.world.chunk.MortonChunkManager;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs random scenes against a world with the default options (the baseline) and against worlds with optional
+ * features enabled, all of them have to produce bit-identical responses.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+public class WorldEquivalenceTest {
+
+    private static final int CHUNK_SIZE = 16;
+    private static final int AREA = 300;
+    private static final int BODIES = 400;
+    private static final int STEPS = 3000;
+
+    @Test
+    public void singleChunk(){
+        //all bodies share one chunk, so the result doesn't depend on traversing and deduplicating several chunks
+        check(() -> new SimpleCollisionWorld<>(1 << 12), world -> {});
+    }
+
+    @Test
+    public void mortonChunkManager(){
+        check(() -> new SimpleCollisionWorld<>(CHUNK_SIZE, new MortonChunkManager<>(64)), world -> {});
+    }
+
+    @Test
+    public void denseChunkManager(){
+        //the bounds only cover a part of the area, so the chunks outside are used as well
+        check(() -> new SimpleCollisionWorld<>(CHUNK_SIZE, new DenseChunkManager<>(0, 0, 12, 12)), world -> {});
+    }
+
+    @Test
+    public void chunkBounds(){
+        check(() -> new SimpleCollisionWorld<>(CHUNK_SIZE), world -> world.setChunkBoundsEnabled(true));
+    }
+
+    @Test
+    public void occupancy(){
+        check(() -> new SimpleCollisionWorld<>(CHUNK_SIZE), world -> world.setOccupancyEnabled(true));
+    }
+
+    @Test
+    public void chunkMargin(){
+        check(() -> new SimpleCollisionWorld<>(CHUNK_SIZE), world -> world.setChunkMargin(5));
+    }
+
+    @Test
+    public void arenaMode(){
+        check(() -> new SimpleCollisionWorld<>(CHUNK_SIZE), world -> world.setArenaMode(true));
+    }
+
+    @Test
+    public void simulateCache(){
+        check(() -> new SimpleCollisionWorld<>(CHUNK_SIZE), world -> world.setSimulateCacheSize(64));
+    }
+
+    @Test
+    public void openCheckpoint(){
+        check(() -> new SimpleCollisionWorld<>(CHUNK_SIZE), SimpleCollisionWorld::checkpoint);
+    }
+
+    @Test
+    public void allOptions(){
+        check(() -> new SimpleCollisionWorld<>(CHUNK_SIZE, new MortonChunkManager<>(64)), world -> {
+            world.setChunkBoundsEnabled(true);
+            world.setOccupancyEnabled(true);
+            world.setChunkMargin(2.5f);
+            world.setArenaMode(true);
+            world.setSimulateCacheSize(128);
+        });
+    }
+
+    private void check(Supplier<SimpleCollisionWorld<Crate>> factory, Consumer<SimpleCollisionWorld<Crate>> options){
+        for(int seed = 0; seed < 4; seed++){
+            SimpleCollisionWorld<Crate> baseline = new SimpleCollisionWorld<>(CHUNK_SIZE);
+            SimpleCollisionWorld<Crate> world = factory.get();
+            options.accept(world);
+            List<Crate> baselineBodies = populate(baseline, seed);
+            List<Crate> bodies = populate(world, seed);
+            Random baselineRandom = new Random(seed), random = new Random(seed);
+            for(int step = 0; step < STEPS; step++){
+                String expected = step(baseline, baselineBodies, baselineRandom);
+                String actual = step(world, bodies, random);
+                assertEquals("seed " + seed + ", step " + step, expected, actual);
+            }
+        }
+    }
+
+    private static List<Crate> populate(SimpleCollisionWorld<Crate> world, long seed){
+        Random random = new Random(~seed);
+        List<Crate> bodies = new ArrayList<>();
+        for(int i = 0; i < BODIES; i++){
+            Crate body = new Crate(i % 5 != 0, i);
+            bodies.add(body);
+            world.addBody(body, random.nextFloat() * AREA, random.nextFloat() * AREA, 0.5f + random.nextFloat() * 8, 0.5f + random.nextFloat() * 8);
+        }
+        return bodies;
+    }
+
+    /**
+     * Performs a random call on the world.
+     * @return The outcome of the call.
+     */
+    private static String step(SimpleCollisionWorld<Crate> world, List<Crate> bodies, Random random){
+        Crate body = bodies.get(random.nextInt(bodies.size()));
+        int op = random.nextInt(20);
+        //a few displacements are repeated, so cached results are used as well
+        Vector2 displacement = random.nextInt(3) == 0 ? new Vector2(4, -3) : new Vector2(random.nextFloat() * 40 - 20, random.nextFloat() * 40 - 20);
+        String outcome;
+        if(!world.contains(body)){
+            world.addBody(body, random.nextFloat() * AREA, random.nextFloat() * AREA, 2, 3);
+            outcome = "added";
+        }else if(op == 0){
+            world.removeBody(body);
+            outcome = "removed";
+        }else if(op == 1){
+            world.forceUpdate(body, random.nextFloat() * AREA, random.nextFloat() * AREA);
+            outcome = "forced";
+        }else if(op < 8){
+            CollisionResponse response = world.simulate(body, displacement, new CollisionResponse());
+            outcome = describe(response);
+            PackedCollisionResponse packed = world.simulatePacked(body, displacement, new PackedCollisionResponse());
+            assertEquals(outcome, describe(packed));
+            world.free(response);
+        }else{
+            CollisionResponse response = world.update(body, displacement, new CollisionResponse());
+            outcome = describe(response);
+            world.free(response);
+        }
+        world.endTick();
+        Rectangle box = world.contains(body) ? world.getBoundingBox(body) : null;
+        return outcome + (box == null ? "" : " box=" + bits(box.x) + "," + bits(box.y) + "," + bits(box.width) + "," + bits(box.height));
+    }
+
+    private static String describe(CollisionResponse response){
+        StringBuilder outcome = new StringBuilder().append(bits(response.bestGoalX)).append(',').append(bits(response.bestGoalY))
+                .append(',').append(bits(response.updatedDisplacementX)).append(',').append(bits(response.updatedDisplacementY));
+        for(CollisionResponse.Collision collision : response.getCollisions()){
+            outcome.append('|').append(((Crate) collision.target).id).append(' ').append(collision.normalX).append(' ')
+                    .append(collision.normalY).append(' ').append(bits(collision.hitTime)).append(' ')
+                    .append(collision.isOverlapping).append(' ').append(collision.resolved);
+        }
+        return outcome.toString();
+    }
+
+    private static String describe(PackedCollisionResponse response){
+        StringBuilder outcome = new StringBuilder().append(bits(response.bestGoalX)).append(',').append(bits(response.bestGoalY))
+                .append(',').append(bits(response.updatedDisplacementX)).append(',').append(bits(response.updatedDisplacementY));
+        for(int i = 0; i < response.size(); i++){
+            outcome.append('|').append(((Crate) response.getTarget(i)).id).append(' ').append(response.getNormalX(i)).append(' ')
+                    .append(response.getNormalY(i)).append(' ').append(bits(response.getHitTime(i))).append(' ')
+                    .append(response.isOverlapping(i)).append(' ').append(response.isResolved(i));
+        }
+        return outcome.toString();
+    }
+
+    private static int bits(float value){
+        return Float.floatToIntBits(value);
+    }
+
+    /**
+     * A body that only resolves collisions with solid bodies.
+     */
+    private static final class Crate extends SweptBody {
+        private final boolean solid;
+        private final int id;
+
+        private Crate(boolean solid, int id) {
+            this.solid = solid;
+            this.id = id;
+        }
+
+        @Override
+        public boolean resolveCollision(ISweptBody other, CollisionResponse.Collision collision, Vector2 displacement) {
+            return ((Crate) other).solid;
+        }
+    }
+
+}
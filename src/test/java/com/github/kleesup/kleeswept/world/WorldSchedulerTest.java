@@ -0,0 +1,172 @@
+package com.github.kleesup.kleeswept.world;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.github.kleesup.kleeswept.world.body.ISweptBody;
+import com.github.kleesup.kleeswept.world.body.SweptBody;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Ticks worlds with a {@link WorldScheduler} and compares them with worlds ticked one after another on the calling
+ * thread. Also checks that worlds used outside the scheduler don't share their temporary fields.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.1
+ * @since 1.2
+ */
+public class WorldSchedulerTest {
+
+    private static final int THREADS = 4;
+    private static final int WORLDS = 40;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp(){
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void tearDown(){
+        executor.shutdown();
+    }
+
+    @Test
+    public void scheduledWorldsMatchSequentialTicks(){
+        WorldScheduler<SweptBody> scheduler = new WorldScheduler<>(executor, THREADS);
+        List<Scene> scheduled = new ArrayList<>(), sequential = new ArrayList<>();
+        for(int i = 0; i < WORLDS; i++){
+            Scene scene = new Scene(i);
+            scheduled.add(scene);
+            //the worlds differ in size, so the batches differ in cost
+            int moves = 10 + i * 5;
+            scheduler.schedule(scene.world, (world, delta) -> scene.tick(moves, delta));
+            sequential.add(new Scene(i));
+        }
+        for(int tick = 0; tick < 20; tick++){
+            assertEquals(WORLDS, scheduler.tick(1));
+            for(int i = 0; i < WORLDS; i++)sequential.get(i).tick(10 + i * 5, 1);
+        }
+        for(int i = 0; i < WORLDS; i++)assertEquals("world " + i, sequential.get(i).boxes(), scheduled.get(i).boxes());
+        //a context is only created per thread that ticks worlds at the same time
+        assertTrue(scheduler.getContextCount() <= THREADS);
+        //the worlds are still usable outside the scheduler
+        for(int i = 0; i < WORLDS; i++){
+            scheduled.get(i).tick(10, 1);
+            sequential.get(i).tick(10, 1);
+            assertEquals("world " + i, sequential.get(i).boxes(), scheduled.get(i).boxes());
+        }
+    }
+
+    @Test
+    public void callbacksCanQueryOtherWorlds(){
+        Scene other = new Scene(99);
+        Scene plain = new Scene(1), nesting = new Scene(1);
+        //the bodies of the nesting scene move bodies of another world whenever they are tested or hit
+        for(int i = 0; i < nesting.bodies.size(); i++){
+            SweptBody body = nesting.bodies.get(i);
+            Rectangle box = nesting.world.getBoundingBox(body);
+            nesting.world.removeBody(body);
+            SweptBody caller = new SweptBody(){
+                @Override
+                public boolean checkCollision(ISweptBody target) {
+                    other.tick(1, 1);
+                    return true;
+                }
+
+                @Override
+                public boolean resolveCollision(ISweptBody target, CollisionResponse.Collision collision, Vector2 displacement) {
+                    other.tick(1, 1);
+                    other.world.nearest(box.x, box.y, 50);
+                    return true;
+                }
+            };
+            nesting.bodies.set(i, caller);
+            nesting.world.addBody(caller, box);
+        }
+        for(int tick = 0; tick < 20; tick++){
+            plain.tick(20, 1);
+            nesting.tick(20, 1);
+            assertEquals("tick " + tick, plain.boxes(), nesting.boxes());
+        }
+    }
+
+    @Test
+    public void idleWorldsAreSkipped(){
+        WorldScheduler<SweptBody> scheduler = new WorldScheduler<>(executor, THREADS);
+        int[] ticks = new int[2];
+        WorldScheduler.ScheduledWorld<SweptBody> idle = scheduler.schedule(new Scene(0).world, (world, delta) -> ticks[0]++);
+        scheduler.schedule(new Scene(1).world, (world, delta) -> ticks[1]++);
+        idle.setIdle(true);
+        assertEquals(1, scheduler.tick(1));
+        idle.setIdle(false);
+        assertEquals(2, scheduler.tick(1));
+        assertTrue(scheduler.unschedule(idle));
+        assertFalse(scheduler.unschedule(idle));
+        assertEquals(1, scheduler.tick(1));
+        assertEquals(1, ticks[0]);
+        assertEquals(3, ticks[1]);
+    }
+
+    @Test
+    public void failingTickerIsRethrown(){
+        WorldScheduler<SweptBody> scheduler = new WorldScheduler<>(executor, THREADS);
+        for(int i = 0; i < 8; i++)scheduler.schedule(new Scene(i).world, (world, delta) -> {});
+        scheduler.schedule(new Scene(8).world, (world, delta) -> {
+            throw new IllegalArgumentException("broken ticker");
+        });
+        try{
+            scheduler.tick(1);
+            fail("The exception of the ticker must be rethrown");
+        }catch (IllegalArgumentException expected){
+            assertEquals("broken ticker", expected.getMessage());
+        }
+    }
+
+    /**
+     * A world with random bodies, which moves its bodies deterministically every tick.
+     */
+    private static final class Scene {
+        private final SimpleCollisionWorld<SweptBody> world = new SimpleCollisionWorld<>(16);
+        private final List<SweptBody> bodies = new ArrayList<>();
+        private final Random random;
+        private final Vector2 displacement = new Vector2();
+
+        private Scene(long seed) {
+            random = new Random(seed);
+            for(int i = 0; i < 100; i++){
+                SweptBody body = new SweptBody();
+                bodies.add(body);
+                world.addBody(body, random.nextFloat() * 200, random.nextFloat() * 200, 1 + random.nextFloat() * 4, 1 + random.nextFloat() * 4);
+            }
+        }
+
+        private void tick(int moves, float delta){
+            for(int i = 0; i < moves; i++){
+                SweptBody body = bodies.get(random.nextInt(bodies.size()));
+                displacement.set(random.nextFloat() * 10 - 5, random.nextFloat() * 10 - 5).scl(delta);
+                world.free(world.update(body, displacement));
+            }
+        }
+
+        private String boxes(){
+            StringBuilder boxes = new StringBuilder();
+            for(SweptBody body : bodies){
+                Rectangle box = world.getBoundingBox(body);
+                boxes.append(Float.floatToIntBits(box.x)).append(',').append(Float.floatToIntBits(box.y)).append(';');
+            }
+            return boxes.toString();
+        }
+    }
+
+}
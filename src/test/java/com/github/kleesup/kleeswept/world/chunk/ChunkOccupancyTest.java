@@ -0,0 +1,75 @@
+package com.github.kleesup.kleeswept.world.chunk;
+
+import com.github.kleesup.kleeswept.KleeHelper;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the searches of a {@link ChunkOccupancy} with a plain set of occupied chunks and checks that cleared
+ * chunks are skipped again.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+public class ChunkOccupancyTest {
+
+    @Test
+    public void searchesMatchOccupiedChunks(){
+        Random random = new Random(2);
+        ChunkOccupancy occupancy = new ChunkOccupancy();
+        Set<Long> occupied = new HashSet<>();
+        for(int step = 0; step < 20000; step++){
+            //clustered around the origin, but spread over several tiles and summary tiles
+            int chunkX = (int) (random.nextGaussian() * 3000), chunkY = (int) (random.nextGaussian() * 100);
+            long key = KleeHelper.pairLong(chunkX, chunkY);
+            if(random.nextInt(3) == 0 && !occupied.isEmpty()){
+                occupancy.clear(chunkX, chunkY);
+                occupied.remove(key);
+            }else{
+                occupancy.set(chunkX, chunkY);
+                occupied.add(key);
+            }
+            if(step % 500 != 0)continue;
+            int row = (int) (random.nextGaussian() * 100);
+            int from = (int) (random.nextGaussian() * 5000), to = from + random.nextInt(20000);
+            int expected = to + 1;
+            for(int x = from; x <= to; x++){
+                if(occupied.contains(KleeHelper.pairLong(x, row))){
+                    expected = x;
+                    break;
+                }
+            }
+            assertEquals("step " + step, expected, occupancy.nextOccupied(from, row, to));
+        }
+    }
+
+    @Test
+    public void clearedChunksAreSkippedAgain(){
+        ChunkOccupancy occupancy = new ChunkOccupancy();
+        occupancy.set(5, 3);
+        occupancy.set(70, 3);
+        occupancy.set(-10000, 3);
+        assertEquals(3, occupancy.getTileCount());
+        assertEquals(5, occupancy.nextOccupied(0, 3, 100));
+        occupancy.clear(5, 3);
+        assertFalse(occupancy.isOccupied(5, 3));
+        assertEquals(70, occupancy.nextOccupied(0, 3, 100));
+        occupancy.clear(70, 3);
+        occupancy.clear(-10000, 3);
+        assertEquals(101, occupancy.nextOccupied(-20000, 3, 100));
+        //the empty tiles are dropped
+        assertEquals(0, occupancy.getTileCount());
+        //clearing a chunk that isn't occupied does nothing
+        occupancy.clear(5, 3);
+        occupancy.set(6, 3);
+        assertEquals(6, occupancy.nextOccupied(0, 3, 100));
+        assertEquals(1, occupancy.getTileCount());
+    }
+
+}
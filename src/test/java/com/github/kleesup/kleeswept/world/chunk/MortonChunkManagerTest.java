@@ -0,0 +1,100 @@
+package com.github.kleesup.kleeswept.world.chunk;
+
+import com.github.kleesup.kleeswept.world.body.SweptBody;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares a {@link MortonChunkManager} with an {@link EfficientChunkManager} and checks what a relayout keeps and
+ * drops.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+public class MortonChunkManagerTest {
+
+    private static final int RANGE = 6;
+
+    @Test
+    public void chunksMatchEfficientChunkManager(){
+        for(int interval : new int[]{0, 1, 7, 64}){
+            Random random = new Random(interval);
+            MortonChunkManager<SweptBody> morton = new MortonChunkManager<>(interval);
+            EfficientChunkManager<SweptBody> efficient = new EfficientChunkManager<>();
+            List<SweptBody> bodies = new ArrayList<>();
+            for(int i = 0; i < 100; i++)bodies.add(new SweptBody());
+            for(int step = 0; step < 5000; step++){
+                int chunkX = random.nextInt(RANGE * 2) - RANGE, chunkY = random.nextInt(RANGE * 2) - RANGE;
+                SweptBody[] batch = new SweptBody[1 + random.nextInt(12)];
+                for(int i = 0; i < batch.length; i++)batch[i] = bodies.get(random.nextInt(bodies.size()));
+                switch(random.nextInt(5)){
+                    case 0:
+                        morton.addBody(chunkX, chunkY, batch[0]);
+                        efficient.addBody(chunkX, chunkY, batch[0]);
+                        break;
+                    case 1:
+                        morton.removeBody(chunkX, chunkY, batch[0]);
+                        efficient.removeBody(chunkX, chunkY, batch[0]);
+                        break;
+                    case 2:
+                        morton.addBodies(chunkX, chunkY, batch, batch.length);
+                        efficient.addBodies(chunkX, chunkY, batch, batch.length);
+                        break;
+                    case 3:
+                        //batches longer than the relayout interval
+                        morton.removeBodies(chunkX, chunkY, batch, batch.length);
+                        efficient.removeBodies(chunkX, chunkY, batch, batch.length);
+                        break;
+                    default:
+                        if(step % 100 == 4)morton.relayout();
+                }
+                if(step % 50 == 0)assertSameChunks("interval " + interval + ", step " + step, efficient, morton);
+            }
+            assertSameChunks("interval " + interval, efficient, morton);
+        }
+    }
+
+    @Test
+    public void relayoutDropsEmptyChunks(){
+        MortonChunkManager<SweptBody> chunks = new MortonChunkManager<>(0);
+        SweptBody kept = new SweptBody(), moved = new SweptBody();
+        chunks.addBody(-3, 5, kept);
+        chunks.addBody(2, 2, moved);
+        chunks.removeBody(2, 2, moved);
+        chunks.addBody(2, 3, moved);
+        assertEquals(3, chunks.getChunkCount());
+        chunks.relayout();
+        assertEquals(2, chunks.getChunkCount());
+        assertTrue(chunks.getBodies(-3, 5).contains(kept));
+        assertTrue(chunks.getBodies(2, 3).contains(moved));
+        assertTrue(chunks.getBodies(2, 2).isEmpty());
+    }
+
+    @Test
+    public void bulkRemovalSurvivesRelayout(){
+        //the relayout interval is reached in the middle of the removed batch
+        MortonChunkManager<SweptBody> chunks = new MortonChunkManager<>(8);
+        SweptBody[] bodies = new SweptBody[20];
+        for(int i = 0; i < bodies.length; i++)bodies[i] = new SweptBody();
+        chunks.addBodies(0, 0, bodies, bodies.length);
+        chunks.removeBodies(0, 0, bodies, bodies.length);
+        assertTrue(chunks.getBodies(0, 0).isEmpty());
+        assertEquals(0, chunks.getChunkCount());
+    }
+
+    private static void assertSameChunks(String message, EfficientChunkManager<SweptBody> expected, MortonChunkManager<SweptBody> actual){
+        for(int chunkX = -RANGE; chunkX < RANGE; chunkX++){
+            for(int chunkY = -RANGE; chunkY < RANGE; chunkY++){
+                assertEquals(message, new HashSet<>(expected.getBodies(chunkX, chunkY)), new HashSet<>(actual.getBodies(chunkX, chunkY)));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.github.kleesup.kleeswept.world.layer;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.github.kleesup.kleeswept.world.body.SweptBody;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the precision of the quantised boxes of a {@link CompactBodyLayer} and compares its queries with brute force
+ * overlap tests.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+public class CompactBodyLayerTest {
+
+    private static final float SIZE_GRID = 1 / 64f;
+
+    @Test
+    public void storedBoxesContainActualBoxes(){
+        Random random = new Random(12);
+        CompactBodyLayer<SweptBody> layer = new CompactBodyLayer<>(16, SIZE_GRID);
+        Map<SweptBody, Rectangle> boxes = new IdentityHashMap<>();
+        for(int i = 0; i < 5000; i++){
+            SweptBody body = new SweptBody();
+            Rectangle box = new Rectangle(random.nextFloat() * 2000 - 1000, random.nextFloat() * 2000 - 1000, random.nextFloat() * 10, random.nextFloat() * 10);
+            //positions right at the chunk borders
+            if(i % 10 == 0)box.setPosition(Math.round(box.x / 16) * 16f, -Math.ulp(0f));
+            layer.add(body, box.x, box.y, box.width, box.height);
+            boxes.put(body, box);
+        }
+        Map<SweptBody, Rectangle> stored = storedBoxes(layer);
+        assertEquals(boxes.size(), stored.size());
+        float slack = layer.getPositionStep() + Math.ulp(1000f);
+        for(Map.Entry<SweptBody, Rectangle> entry : boxes.entrySet()){
+            Rectangle box = entry.getValue(), quantised = stored.get(entry.getKey());
+            assertTrue(box + " in " + quantised, quantised.x <= box.x && quantised.y <= box.y);
+            assertTrue(box + " in " + quantised, quantised.x + quantised.width >= box.x + box.width);
+            assertTrue(box + " in " + quantised, quantised.y + quantised.height >= box.y + box.height);
+            assertEquals(box.x, quantised.x, slack);
+            assertEquals(box.y, quantised.y, slack);
+            assertEquals(box.x + box.width, quantised.x + quantised.width, slack + SIZE_GRID);
+            assertEquals(box.y + box.height, quantised.y + quantised.height, slack + SIZE_GRID);
+        }
+    }
+
+    @Test
+    public void queriesMatchBruteForce(){
+        Random random = new Random(6);
+        CompactBodyLayer<SweptBody> layer = new CompactBodyLayer<>(8, SIZE_GRID);
+        Map<SweptBody, Rectangle> boxes = new IdentityHashMap<>();
+        List<SweptBody> bodies = new ArrayList<>();
+        for(int step = 0; step < 3000; step++){
+            if(bodies.isEmpty() || random.nextInt(3) != 0){
+                SweptBody body = new SweptBody();
+                Rectangle box = new Rectangle(random.nextFloat() * 400 - 200, random.nextFloat() * 400 - 200, random.nextFloat() * 20, random.nextFloat() * 20);
+                layer.add(body, box.x, box.y, box.width, box.height);
+                bodies.add(body);
+                boxes.put(body, box);
+            }else{
+                SweptBody body = bodies.remove(random.nextInt(bodies.size()));
+                Rectangle box = boxes.remove(body);
+                assertTrue(layer.remove(body, box.x, box.y));
+                assertFalse(layer.remove(body, box.x, box.y));
+            }
+            assertEquals(bodies.size(), layer.size());
+            if(step % 50 != 0)continue;
+            Map<SweptBody, Rectangle> stored = storedBoxes(layer);
+            assertEquals(bodies.size(), stored.size());
+            for(int i = 0; i < 10; i++){
+                Rectangle area = new Rectangle(random.nextFloat() * 400 - 200, random.nextFloat() * 400 - 200, random.nextFloat() * 60, random.nextFloat() * 60);
+                Array<SweptBody> found = new Array<>();
+                int count = layer.query(area, found, new FloatArray());
+                int expected = 0;
+                for(Rectangle box : stored.values())if(box.overlaps(area))expected++;
+                assertEquals("step " + step, expected, count);
+                for(SweptBody body : found)assertTrue(stored.get(body).overlaps(area));
+            }
+        }
+        layer.clear();
+        assertEquals(0, layer.size());
+        assertTrue(storedBoxes(layer).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooBigBodyIsRejected(){
+        CompactBodyLayer<SweptBody> layer = new CompactBodyLayer<>(8, SIZE_GRID);
+        layer.add(new SweptBody(), 0, 0, layer.getMaxSize() * 2, 1);
+    }
+
+    /**
+     * @return The decoded boxes of all bodies of the layer.
+     */
+    private static Map<SweptBody, Rectangle> storedBoxes(CompactBodyLayer<SweptBody> layer){
+        Array<SweptBody> found = new Array<>();
+        FloatArray boxes = new FloatArray();
+        layer.query(new Rectangle(-1e5f, -1e5f, 2e5f, 2e5f), found, boxes);
+        Map<SweptBody, Rectangle> stored = new IdentityHashMap<>();
+        for(int i = 0; i < found.size; i++){
+            assertNull("every body is only found once", stored.put(found.get(i), new Rectangle(boxes.get(i * 4), boxes.get(i * 4 + 1), boxes.get(i * 4 + 2), boxes.get(i * 4 + 3))));
+        }
+        return stored;
+    }
+
+}
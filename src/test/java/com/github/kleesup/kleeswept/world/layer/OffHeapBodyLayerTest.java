@@ -0,0 +1,121 @@
+package com.github.kleesup.kleeswept.world.layer;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.github.kleesup.kleeswept.world.CollisionResponse;
+import com.github.kleesup.kleeswept.world.SimpleCollisionWorld;
+import com.github.kleesup.kleeswept.world.body.SweptBody;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the queries of an {@link OffHeapBodyLayer} with brute force overlap tests, and a world with an attached
+ * layer with a world holding the same static bodies.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+public class OffHeapBodyLayerTest {
+
+    @Test
+    public void queriesMatchBruteForce(){
+        Random random = new Random(4);
+        //a tiny capacity, so the records and the chunk table have to grow
+        try(OffHeapBodyLayer<SweptBody> layer = new OffHeapBodyLayer<>(8, 1)){
+            Map<SweptBody, Rectangle> boxes = new IdentityHashMap<>();
+            List<SweptBody> bodies = new ArrayList<>();
+            for(int step = 0; step < 5000; step++){
+                if(bodies.isEmpty() || random.nextInt(3) != 0){
+                    SweptBody body = new SweptBody();
+                    Rectangle box = new Rectangle(random.nextFloat() * 400 - 200, random.nextFloat() * 400 - 200, random.nextFloat() * 20, random.nextFloat() * 20);
+                    layer.add(body, box.x, box.y, box.width, box.height);
+                    bodies.add(body);
+                    boxes.put(body, box);
+                }else{
+                    SweptBody body = bodies.remove(random.nextInt(bodies.size()));
+                    Rectangle box = boxes.remove(body);
+                    assertTrue(layer.remove(body, box.x, box.y));
+                    assertFalse(layer.remove(body, box.x, box.y));
+                }
+                assertEquals(bodies.size(), layer.size());
+                if(step % 25 != 0)continue;
+                Rectangle area = new Rectangle(random.nextFloat() * 400 - 200, random.nextFloat() * 400 - 200, random.nextFloat() * 60, random.nextFloat() * 60);
+                if(step % 1000 == 0)area.set(-1000, -1000, 2000, 2000);
+                Array<SweptBody> found = new Array<>();
+                FloatArray foundBoxes = new FloatArray();
+                int count = layer.query(area, found, foundBoxes);
+                assertEquals(found.size, count);
+                assertEquals(count * 4, foundBoxes.size);
+                int expected = 0;
+                for(SweptBody body : bodies)if(boxes.get(body).overlaps(area))expected++;
+                assertEquals("step " + step, expected, count);
+                for(int i = 0; i < count; i++){
+                    //the boxes are stored with full precision
+                    Rectangle box = boxes.get(found.get(i));
+                    assertEquals(box, new Rectangle(foundBoxes.get(i * 4), foundBoxes.get(i * 4 + 1), foundBoxes.get(i * 4 + 2), foundBoxes.get(i * 4 + 3)));
+                }
+            }
+            layer.clear();
+            assertEquals(0, layer.size());
+            assertEquals(0, layer.query(new Rectangle(-1000, -1000, 2000, 2000), new Array<>(), new FloatArray()));
+        }
+    }
+
+    @Test
+    public void worldCollidesWithLayerLikeWithBodies(){
+        Random random = new Random(8);
+        SimpleCollisionWorld<SweptBody> bodies = new SimpleCollisionWorld<>(16), layered = new SimpleCollisionWorld<>(16);
+        try(OffHeapBodyLayer<SweptBody> layer = new OffHeapBodyLayer<>(16)){
+            layered.setLayer(layer);
+            for(int i = 0; i < 2000; i++){
+                SweptBody wall = new SweptBody();
+                float x = random.nextFloat() * 500, y = random.nextFloat() * 500, width = 0.5f + random.nextFloat() * 4, height = 0.5f + random.nextFloat() * 4;
+                bodies.addBody(wall, x, y, width, height);
+                layer.add(wall, x, y, width, height);
+            }
+            for(int i = 0; i < 500; i++){
+                SweptBody mover = new SweptBody();
+                float x = random.nextFloat() * 500, y = random.nextFloat() * 500;
+                bodies.addBody(mover, x, y, 1, 1);
+                layered.addBody(mover, x, y, 1, 1);
+                Vector2 displacement = new Vector2(random.nextFloat() * 30 - 15, random.nextFloat() * 30 - 15);
+                CollisionResponse expected = bodies.update(mover, displacement), actual = layered.update(mover, displacement);
+                assertEquals(expected.bestGoalX, actual.bestGoalX, 0);
+                assertEquals(expected.bestGoalY, actual.bestGoalY, 0);
+                assertEquals(expected.getCollisions().size(), actual.getCollisions().size());
+                bodies.free(expected);
+                layered.free(actual);
+                //the movers don't block each other, so only the walls matter
+                bodies.removeBody(mover);
+                layered.removeBody(mover);
+            }
+            layered.setLayer(null);
+        }
+    }
+
+    @Test
+    public void closedLayerCannotBeUsed(){
+        OffHeapBodyLayer<SweptBody> layer = new OffHeapBodyLayer<>(8);
+        layer.add(new SweptBody(), 0, 0, 1, 1);
+        assertTrue(layer.getOffHeapBytes() > 0);
+        layer.close();
+        assertTrue(layer.isClosed());
+        try{
+            layer.query(new Rectangle(0, 0, 1, 1), new Array<>(), new FloatArray());
+            fail("A closed layer must not be queried");
+        }catch (IllegalStateException expected){
+            //the memory was released already
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.github.kleesup.kleeswept.world.trace;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.github.kleesup.kleeswept.world.SimpleCollisionWorld;
+import com.github.kleesup.kleeswept.world.body.SweptBody;
+import com.github.kleesup.kleeswept.world.chunk.MortonChunkManager;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Records random workloads with a {@link TraceRecorder} and replays them with {@link TraceReplay}, every replayed call
+ * has to produce the recorded response.
+ * <br>Created on 18.10.2026</br>
+ * @author KleeSup
+ * @version 1.0
+ * @since 1.2
+ */
+public class TraceRecorderTest {
+
+    @Test
+    public void replayMatchesRecording() throws IOException {
+        byte[] trace = record(new SimpleCollisionWorld<>(8), new ArrayList<>(), 11);
+        TraceReplay.Result result = replay(trace, new SimpleCollisionWorld<>(8));
+        assertTrue(result.getCalls() > 0);
+        assertEquals(0, result.getMismatches());
+    }
+
+    @Test
+    public void replayMatchesOnOtherWorld() throws IOException {
+        byte[] trace = record(new SimpleCollisionWorld<>(8), new ArrayList<>(), 12);
+        assertEquals(0, replay(trace, new SimpleCollisionWorld<>(32, new MortonChunkManager<>())).getMismatches());
+    }
+
+    @Test
+    public void bodiesAddedBeforeWrappingAreRecorded() throws IOException {
+        Random random = new Random(13);
+        SimpleCollisionWorld<SweptBody> world = new SimpleCollisionWorld<>(8);
+        List<SweptBody> bodies = new ArrayList<>();
+        for(int i = 0; i < 200; i++){
+            SweptBody body = new SweptBody();
+            bodies.add(body);
+            world.addBody(body, random.nextFloat() * 150, random.nextFloat() * 150, 1 + random.nextFloat() * 4, 1 + random.nextFloat() * 4);
+        }
+        byte[] trace = record(world, bodies, 14);
+        assertEquals(0, replay(trace, new SimpleCollisionWorld<>(8)).getMismatches());
+    }
+
+    @Test
+    public void noOpForceUpdateIsNotRecorded(){
+        SimpleCollisionWorld<SweptBody> world = new SimpleCollisionWorld<>(8);
+        TraceRecorder<SweptBody> recorder = new TraceRecorder<>(world, new ByteArrayOutputStream());
+        SweptBody body = new SweptBody();
+        recorder.addBody(body, 0, 0, 2, 2);
+        int recorded = recorder.getRecordedCount();
+        recorder.forceUpdate(body, 0, 0);
+        assertEquals(recorded, recorder.getRecordedCount());
+        recorder.forceUpdate(body, 1, 0);
+        assertEquals(recorded + 1, recorder.getRecordedCount());
+    }
+
+    /**
+     * Records a random workload on a world.
+     * @param bodies The bodies already contained in the world, more are created by the workload.
+     * @return The trace.
+     */
+    private static byte[] record(SimpleCollisionWorld<SweptBody> world, List<SweptBody> bodies, long seed) throws IOException {
+        Random random = new Random(seed);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TraceRecorder<SweptBody> recorder = new TraceRecorder<>(world, out);
+        for(int step = 0; step < 2000; step++){
+            if(bodies.isEmpty() || random.nextInt(20) == 0){
+                SweptBody body = new SweptBody();
+                bodies.add(body);
+                recorder.addBody(body, random.nextFloat() * 150, random.nextFloat() * 150, 1 + random.nextFloat() * 4, 1 + random.nextFloat() * 4);
+                continue;
+            }
+            SweptBody body = bodies.get(random.nextInt(bodies.size()));
+            if(!recorder.contains(body)){
+                recorder.addBody(body, new Rectangle(random.nextFloat() * 150, random.nextFloat() * 150, 2, 2));
+                continue;
+            }
+            Vector2 displacement = new Vector2(random.nextFloat() * 20 - 10, random.nextFloat() * 20 - 10);
+            int op = random.nextInt(10);
+            if(op == 0){
+                recorder.removeBody(body);
+            }else if(op == 1){
+                Rectangle box = recorder.getBoundingBox(body);
+                recorder.forceUpdate(body, box.x, box.y);
+            }else if(op == 2){
+                recorder.forceUpdate(body, random.nextFloat() * 150, random.nextFloat() * 150);
+            }else if(op < 6){
+                world.free(recorder.simulate(body, displacement, null));
+            }else{
+                world.free(recorder.update(body, displacement, null));
+            }
+        }
+        recorder.close();
+        return out.toByteArray();
+    }
+
+    private static TraceReplay.Result replay(byte[] trace, SimpleCollisionWorld<SweptBody> world) throws IOException {
+        return TraceReplay.replay(new ByteArrayInputStream(trace), world, id -> new SweptBody());
+    }
+
+}